@@ -0,0 +1,87 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.AlgorithmInput;
+import info.gianlucacosta.arcontes.algorithms.AlgorithmOutput;
+import info.gianlucacosta.arcontes.algorithms.CommonAlgorithmSettings;
+import info.gianlucacosta.arcontes.graphs.GraphContext;
+import info.gianlucacosta.graphsj3.algorithms.spp.heuristics.SppHeuristic;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.SearchSpace;
+
+/**
+ * A* search between a start vertex and a target vertex.
+ * <p>
+ * It is a PointToPointSpp whose queue is ordered by the path length from the
+ * start vertex plus the lower bound, provided by an SppHeuristic, of the
+ * distance to the target vertex. Each lower bound is requested once per
+ * vertex, and stored in the SearchSpace of the query.
+ */
+public class AStarSpp extends PointToPointSpp {
+
+    private final SppHeuristic heuristic;
+
+    public AStarSpp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput, SppHeuristic heuristic) {
+        this(graphContext, algorithmSettings, algorithmInput, algorithmOutput, (CompiledGraph) null, heuristic);
+    }
+
+    public AStarSpp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput, CompiledGraph compiledGraph, SppHeuristic heuristic) {
+        super(graphContext, algorithmSettings, algorithmInput, algorithmOutput, compiledGraph);
+
+        if (heuristic == null) {
+            throw new IllegalArgumentException("The heuristic cannot be null");
+        }
+
+        this.heuristic = heuristic;
+    }
+
+    public AStarSpp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput, SearchSpace searchSpace, SppHeuristic heuristic) {
+        super(graphContext, algorithmSettings, algorithmInput, algorithmOutput, searchSpace);
+
+        if (heuristic == null) {
+            throw new IllegalArgumentException("The heuristic cannot be null");
+        }
+
+        this.heuristic = heuristic;
+    }
+
+    @Override
+    protected double getLowerBoundToTarget(int vertexIndex) {
+        SearchSpace searchSpace = getSearchSpace();
+
+        double result = searchSpace.getLowerBound(vertexIndex);
+
+        if (Double.isNaN(result)) {
+            result = heuristic.getLowerBound(getCompiledGraph().getVertex(vertexIndex), getTargetVertex());
+            searchSpace.setLowerBound(vertexIndex, result);
+        }
+
+        return result;
+    }
+
+    public SppHeuristic getHeuristic() {
+        return heuristic;
+    }
+
+}
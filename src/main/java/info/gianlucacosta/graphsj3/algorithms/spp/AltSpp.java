@@ -0,0 +1,52 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.AlgorithmInput;
+import info.gianlucacosta.arcontes.algorithms.AlgorithmOutput;
+import info.gianlucacosta.arcontes.algorithms.CommonAlgorithmSettings;
+import info.gianlucacosta.arcontes.graphs.GraphContext;
+import info.gianlucacosta.graphsj3.algorithms.spp.heuristics.LandmarkHeuristic;
+import info.gianlucacosta.graphsj3.algorithms.spp.heuristics.LandmarkTables;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.SearchSpace;
+
+/**
+ * ALT search between a start vertex and a target vertex: an A* search whose
+ * lower bounds come from precomputed LandmarkTables.
+ * <p>
+ * The same CompiledGraph - or SearchSpace - and LandmarkTables should be
+ * shared by all the queries on a graph, as computing them costs a few full
+ * searches.
+ */
+public class AltSpp extends AStarSpp {
+
+    public AltSpp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput, CompiledGraph compiledGraph, LandmarkTables landmarkTables) {
+        super(graphContext, algorithmSettings, algorithmInput, algorithmOutput, compiledGraph, new LandmarkHeuristic(compiledGraph, landmarkTables));
+    }
+
+    public AltSpp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput, SearchSpace searchSpace, LandmarkTables landmarkTables) {
+        super(graphContext, algorithmSettings, algorithmInput, algorithmOutput, searchSpace, new LandmarkHeuristic(searchSpace.getCompiledGraph(), landmarkTables));
+    }
+
+}
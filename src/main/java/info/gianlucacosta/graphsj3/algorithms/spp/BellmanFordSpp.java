@@ -0,0 +1,190 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.*;
+import info.gianlucacosta.arcontes.graphs.Graph;
+import info.gianlucacosta.arcontes.graphs.GraphContext;
+import info.gianlucacosta.arcontes.graphs.Link;
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.arcontes.graphs.analysis.DefaultOrientedGraphAnalyzer;
+import info.gianlucacosta.arcontes.graphs.analysis.OrientedGraphAnalyzer;
+import info.gianlucacosta.arcontes.graphs.conversions.linkconverters.LinksToNameBasedArcWrappersConverter;
+import info.gianlucacosta.arcontes.graphs.metainfo.NameInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.BellmanFordSearch;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+
+import java.util.*;
+
+/**
+ * SPP algorithm supporting negative arc weights, based on a queue-based
+ * Bellman-Ford search with the SLF and LLL heuristics.
+ * <p>
+ * Each step scans the arcs exiting from one vertex taken from the work
+ * queue. When the queue is empty, every vertex gets its SppVertexInfo
+ * label; the path vertexes start with the start vertex and then follow the
+ * graph order, each path link being the arc that reaches the vertex at the
+ * same position.
+ * <p>
+ * If a negative cycle can be reached from the start vertex, the run stops
+ * with a {@link NegativeCycleException} describing it.
+ */
+public class BellmanFordSpp extends CommonAlgorithm {
+
+    private final List<Vertex> pathVertexes;
+    private final List<Link> pathLinks;
+    private final LinksToNameBasedArcWrappersConverter linksToNameBasedArcWrappersConverter;
+    private final OrientedGraphAnalyzer graphAnalyzer;
+    private CompiledGraph compiledGraph;
+    private BellmanFordSearch search;
+    private Vertex startVertex;
+
+    public BellmanFordSpp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput) {
+        super(graphContext, algorithmSettings, algorithmInput, algorithmOutput);
+
+        linksToNameBasedArcWrappersConverter = new LinksToNameBasedArcWrappersConverter(graphContext.getMetaInfoRepository());
+
+        graphAnalyzer = new DefaultOrientedGraphAnalyzer(graphContext);
+
+        pathVertexes = new ArrayList<>();
+        pathLinks = new ArrayList<>();
+    }
+
+    @Override
+    public boolean doInit() throws AlgorithmException {
+        GraphContext graphContext = getGraphContext();
+        AlgorithmInput algorithmInput = getAlgorithmInput();
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+        CommonAlgorithmSettings algorithmSettings = getAlgorithmSettings();
+
+        if (!graphAnalyzer.getUnconnectedVertexes().isEmpty()) {
+            throw new AlgorithmException("All the vertexes in the graph must be connected to a link!");
+        }
+
+        Graph graph = graphContext.getGraph();
+
+        compiledGraph = new CompiledGraph(graphContext);
+
+        startVertex = algorithmInput.askForVertex(graph, "Choose start vertex:");
+        if (startVertex == null) {
+            return false;
+        }
+
+        search = new BellmanFordSearch(compiledGraph);
+        search.init(compiledGraph.getVertexIndex(startVertex));
+
+        if (algorithmSettings.isVerbose()) {
+            algorithmOutput.printHeader("Legend");
+            algorithmOutput.println();
+            algorithmOutput.println("Vbar", "Vertex whose exiting arcs are scanned in the current step");
+            algorithmOutput.println("Queue size", "Vertexes waiting to be scanned");
+            algorithmOutput.println();
+        }
+
+        return true;
+    }
+
+    @Override
+    protected AlgorithmStepOutcome doRunStep() throws AlgorithmException {
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+        CommonAlgorithmSettings algorithmSettings = getAlgorithmSettings();
+
+        MetaInfoRepository metaInfoRepository = getGraphContext().getMetaInfoRepository();
+
+        if (algorithmSettings.isVerbose()) {
+            algorithmOutput.printHeader("Step " + getCurrentStep());
+        }
+
+        if (search.step()) {
+            if (algorithmSettings.isVerbose()) {
+                algorithmOutput.println();
+                algorithmOutput.println("Vbar", metaInfoRepository.getMetaInfo(compiledGraph.getVertex(search.getLastScannedVertex()), NameInfo.class).getName());
+                algorithmOutput.println("Queue size", search.getQueueSize());
+                algorithmOutput.println();
+            }
+
+            return AlgorithmStepOutcome.CONTINUE;
+        }
+
+        if (search.getNegativeCycleLinks() != null) {
+            throw new NegativeCycleException(search.getNegativeCycleLinks(), search.getNegativeCycleWeight());
+        }
+
+        writeLabels();
+
+        return AlgorithmStepOutcome.FINISH;
+    }
+
+    private void writeLabels() throws AlgorithmException {
+        MetaInfoRepository metaInfoRepository = getGraphContext().getMetaInfoRepository();
+
+        int startIndex = compiledGraph.getVertexIndex(startVertex);
+
+        for (int vertexIndex = 0; vertexIndex < compiledGraph.getVertexCount(); vertexIndex++) {
+            if (Double.isInfinite(search.getPathLength(vertexIndex))) {
+                throw new AlgorithmException("Cannot determine Vbar: some vertexes cannot be reached from the start vertex");
+            }
+        }
+
+        metaInfoRepository.putMetaInfo(startVertex, new DefaultSppVertexInfo(null, 0));
+        pathVertexes.add(startVertex);
+
+        for (int vertexIndex = 0; vertexIndex < compiledGraph.getVertexCount(); vertexIndex++) {
+            if (vertexIndex == startIndex) {
+                continue;
+            }
+
+            int previousArc = search.getPreviousArc(vertexIndex);
+            Vertex vertex = compiledGraph.getVertex(vertexIndex);
+            Vertex previousVertex = compiledGraph.getVertex(compiledGraph.getArcHead(previousArc));
+
+            metaInfoRepository.putMetaInfo(vertex, new DefaultSppVertexInfo(previousVertex, search.getPathLength(vertexIndex)));
+
+            pathVertexes.add(vertex);
+            pathLinks.add(compiledGraph.getArcLink(previousArc));
+        }
+    }
+
+    @Override
+    protected void doFinish() throws AlgorithmException {
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+
+        algorithmOutput.println("The edges used by the shortest paths are: " + linksToNameBasedArcWrappersConverter.convert(pathLinks));
+        algorithmOutput.println("Scanned vertexes: " + search.getScannedVertexCount());
+    }
+
+    public Vertex getStartVertex() {
+        return startVertex;
+    }
+
+    public Collection<Vertex> getPathVertexes() {
+        return Collections.unmodifiableCollection(pathVertexes);
+    }
+
+    public Collection<Link> getPathLinks() {
+        return Collections.unmodifiableCollection(pathLinks);
+    }
+
+}
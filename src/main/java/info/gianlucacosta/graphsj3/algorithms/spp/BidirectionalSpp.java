@@ -0,0 +1,386 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.*;
+import info.gianlucacosta.arcontes.graphs.Graph;
+import info.gianlucacosta.arcontes.graphs.GraphContext;
+import info.gianlucacosta.arcontes.graphs.Link;
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.arcontes.graphs.conversions.linkconverters.LinksToNameBasedArcWrappersConverter;
+import info.gianlucacosta.arcontes.graphs.conversions.vertexconverters.VertexesToNameBasedVertexWrappersConverter;
+import info.gianlucacosta.arcontes.graphs.metainfo.NameInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.IndexedMinPriorityQueue;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.SearchSpace;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+
+import java.util.*;
+
+/**
+ * Bidirectional SPP algorithm between a start vertex and a target vertex.
+ * <p>
+ * A forward search from the start vertex, over the exiting arcs, and a
+ * backward search from the target vertex, over the entering arcs, advance
+ * alternately: each step settles one vertex in the search whose next
+ * vertex is closer to its source. The best path found where the two
+ * searches meet is final as soon as the sum of the two minimum keys is not
+ * lower than its length.
+ * <p>
+ * At the end, the vertexes of the shortest path get their SppVertexInfo
+ * label, with distances measured from the start vertex.
+ * <p>
+ * The labels of the two searches can be kept in two SearchSpace instances
+ * shared by the queries on the same graph, so that each query only resets
+ * the vertexes touched by the previous one.
+ */
+public class BidirectionalSpp extends CommonAlgorithm {
+
+    private final List<Vertex> pathVertexes;
+    private final List<Link> pathLinks;
+    private final VertexesToNameBasedVertexWrappersConverter vertexesToNameBasedVertexWrappersConverter;
+    private final LinksToNameBasedArcWrappersConverter linksToNameBasedArcWrappersConverter;
+    private CompiledGraph compiledGraph;
+    private SearchSpace forwardSpace;
+    private SearchSpace backwardSpace;
+    private double bestPathLength;
+    private int meetingIndex;
+    private int settledVertexCount;
+    private long startNanoTime;
+    private long elapsedNanoTime;
+    private Vertex startVertex;
+    private Vertex targetVertex;
+
+    public BidirectionalSpp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput) {
+        this(graphContext, algorithmSettings, algorithmInput, algorithmOutput, (CompiledGraph) null);
+    }
+
+    public BidirectionalSpp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput, CompiledGraph compiledGraph) {
+        super(graphContext, algorithmSettings, algorithmInput, algorithmOutput);
+
+        vertexesToNameBasedVertexWrappersConverter = new VertexesToNameBasedVertexWrappersConverter(graphContext.getMetaInfoRepository());
+        linksToNameBasedArcWrappersConverter = new LinksToNameBasedArcWrappersConverter(graphContext.getMetaInfoRepository());
+
+        this.compiledGraph = compiledGraph;
+
+        pathVertexes = new ArrayList<>();
+        pathLinks = new ArrayList<>();
+    }
+
+    /**
+     * @param forwardSpace  the labels of the forward search, whose arcs lead
+     *                      towards the start vertex
+     * @param backwardSpace the labels of the backward search, whose arcs lead
+     *                      towards the target vertex
+     */
+    public BidirectionalSpp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput, SearchSpace forwardSpace, SearchSpace backwardSpace) {
+        this(graphContext, algorithmSettings, algorithmInput, algorithmOutput, forwardSpace.getCompiledGraph());
+
+        if (forwardSpace == backwardSpace) {
+            throw new IllegalArgumentException("The two searches cannot share the same search space");
+        }
+
+        if (backwardSpace.getCompiledGraph() != forwardSpace.getCompiledGraph()) {
+            throw new IllegalArgumentException("The search spaces must belong to the same compiled graph");
+        }
+
+        this.forwardSpace = forwardSpace;
+        this.backwardSpace = backwardSpace;
+    }
+
+    @Override
+    public boolean doInit() throws AlgorithmException {
+        GraphContext graphContext = getGraphContext();
+        AlgorithmInput algorithmInput = getAlgorithmInput();
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+        CommonAlgorithmSettings algorithmSettings = getAlgorithmSettings();
+
+        Graph graph = graphContext.getGraph();
+
+        startVertex = algorithmInput.askForVertex(graph, "Choose start vertex:");
+        if (startVertex == null) {
+            return false;
+        }
+
+        targetVertex = algorithmInput.askForVertex(graph, "Choose target vertex:");
+        if (targetVertex == null) {
+            return false;
+        }
+
+        startNanoTime = System.nanoTime();
+
+        if (compiledGraph == null) {
+            compiledGraph = new CompiledGraph(graphContext);
+        }
+
+        if (forwardSpace == null) {
+            forwardSpace = new SearchSpace(compiledGraph);
+            backwardSpace = new SearchSpace(compiledGraph);
+        } else {
+            forwardSpace.reset();
+            backwardSpace.reset();
+        }
+
+        int startIndex = compiledGraph.getVertexIndex(startVertex);
+        int targetIndex = compiledGraph.getVertexIndex(targetVertex);
+
+        forwardSpace.setLabel(startIndex, 0, -1);
+        forwardSpace.getQueue().insert(startIndex, 0);
+
+        backwardSpace.setLabel(targetIndex, 0, -1);
+        backwardSpace.getQueue().insert(targetIndex, 0);
+
+        bestPathLength = Double.POSITIVE_INFINITY;
+        meetingIndex = -1;
+
+        if (startIndex == targetIndex) {
+            bestPathLength = 0;
+            meetingIndex = startIndex;
+        }
+
+        if (algorithmSettings.isVerbose()) {
+            algorithmOutput.printHeader("Legend");
+            algorithmOutput.println();
+            algorithmOutput.println("Vbar", "Vertex settled in the current step");
+            algorithmOutput.println("Best path length", "Length of the shortest path found where the searches meet");
+            algorithmOutput.println();
+        }
+
+        return true;
+    }
+
+    @Override
+    protected AlgorithmStepOutcome doRunStep() throws AlgorithmException {
+        GraphContext graphContext = getGraphContext();
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+        CommonAlgorithmSettings algorithmSettings = getAlgorithmSettings();
+
+        MetaInfoRepository metaInfoRepository = graphContext.getMetaInfoRepository();
+
+        if (algorithmSettings.isVerbose()) {
+            algorithmOutput.printHeader("Step " + getCurrentStep());
+        }
+
+        if (isSearchComplete()) {
+            if (meetingIndex < 0) {
+                throw new AlgorithmException("The target vertex cannot be reached from the start vertex");
+            }
+
+            buildPath();
+            elapsedNanoTime = System.nanoTime() - startNanoTime;
+            return AlgorithmStepOutcome.FINISH;
+        }
+
+        boolean forward = forwardSpace.getQueue().peekKey() <= backwardSpace.getQueue().peekKey();
+
+        int vBarIndex;
+        if (forward) {
+            vBarIndex = forwardSpace.getQueue().poll();
+            forwardSpace.settle(vBarIndex);
+            relaxExitingArcs(vBarIndex);
+        } else {
+            vBarIndex = backwardSpace.getQueue().poll();
+            backwardSpace.settle(vBarIndex);
+            relaxEnteringArcs(vBarIndex);
+        }
+
+        settledVertexCount++;
+
+        if (algorithmSettings.isVerbose()) {
+            algorithmOutput.println();
+            algorithmOutput.println("Search", forward ? "Forward" : "Backward");
+            algorithmOutput.println("Vbar", metaInfoRepository.getMetaInfo(compiledGraph.getVertex(vBarIndex), NameInfo.class).getName());
+            algorithmOutput.println("Best path length", bestPathLength);
+            algorithmOutput.println();
+        }
+
+        return AlgorithmStepOutcome.CONTINUE;
+    }
+
+    private boolean isSearchComplete() {
+        IndexedMinPriorityQueue forwardQueue = forwardSpace.getQueue();
+        IndexedMinPriorityQueue backwardQueue = backwardSpace.getQueue();
+
+        if (forwardQueue.isEmpty() || backwardQueue.isEmpty()) {
+            return true;
+        }
+
+        return forwardQueue.peekKey() + backwardQueue.peekKey() >= bestPathLength;
+    }
+
+    private void relaxExitingArcs(int vertexIndex) {
+        double vertexPathLength = forwardSpace.getPathLength(vertexIndex);
+
+        for (int arc = compiledGraph.getExitingArcsStart(vertexIndex); arc < compiledGraph.getExitingArcsEnd(vertexIndex); arc++) {
+            int tailIndex = compiledGraph.getArcTail(arc);
+
+            if (forwardSpace.isSettled(tailIndex)) {
+                continue;
+            }
+
+            double tailPathLength = vertexPathLength + compiledGraph.getArcWeight(arc);
+
+            if (tailPathLength < forwardSpace.getPathLength(tailIndex)) {
+                forwardSpace.setLabel(tailIndex, tailPathLength, arc);
+                forwardSpace.getQueue().insertOrDecrease(tailIndex, tailPathLength);
+            }
+
+            updateBestPath(tailIndex);
+        }
+    }
+
+    private void relaxEnteringArcs(int vertexIndex) {
+        double vertexPathLength = backwardSpace.getPathLength(vertexIndex);
+
+        for (int position = compiledGraph.getEnteringArcsStart(vertexIndex); position < compiledGraph.getEnteringArcsEnd(vertexIndex); position++) {
+            int arc = compiledGraph.getEnteringArc(position);
+            int headIndex = compiledGraph.getArcHead(arc);
+
+            if (backwardSpace.isSettled(headIndex)) {
+                continue;
+            }
+
+            double headPathLength = vertexPathLength + compiledGraph.getArcWeight(arc);
+
+            if (headPathLength < backwardSpace.getPathLength(headIndex)) {
+                backwardSpace.setLabel(headIndex, headPathLength, arc);
+                backwardSpace.getQueue().insertOrDecrease(headIndex, headPathLength);
+            }
+
+            updateBestPath(headIndex);
+        }
+    }
+
+    private void updateBestPath(int vertexIndex) {
+        double pathLength = forwardSpace.getPathLength(vertexIndex) + backwardSpace.getPathLength(vertexIndex);
+
+        if (pathLength < bestPathLength) {
+            bestPathLength = pathLength;
+            meetingIndex = vertexIndex;
+        }
+    }
+
+    private void buildPath() {
+        MetaInfoRepository metaInfoRepository = getGraphContext().getMetaInfoRepository();
+
+        LinkedList<Integer> vertexIndexes = new LinkedList<>();
+        LinkedList<Integer> arcs = new LinkedList<>();
+
+        vertexIndexes.add(meetingIndex);
+
+        int vertexIndex = meetingIndex;
+        while (forwardSpace.getArc(vertexIndex) >= 0) {
+            int arc = forwardSpace.getArc(vertexIndex);
+
+            arcs.addFirst(arc);
+            vertexIndex = compiledGraph.getArcHead(arc);
+            vertexIndexes.addFirst(vertexIndex);
+        }
+
+        vertexIndex = meetingIndex;
+        while (backwardSpace.getArc(vertexIndex) >= 0) {
+            int arc = backwardSpace.getArc(vertexIndex);
+
+            arcs.addLast(arc);
+            vertexIndex = compiledGraph.getArcTail(arc);
+            vertexIndexes.addLast(vertexIndex);
+        }
+
+        Vertex previousVertex = null;
+        double pathLength = 0;
+        Iterator<Integer> arcsIterator = arcs.iterator();
+
+        for (int pathVertexIndex : vertexIndexes) {
+            Vertex vertex = compiledGraph.getVertex(pathVertexIndex);
+
+            if (previousVertex != null) {
+                int arc = arcsIterator.next();
+
+                pathLength += compiledGraph.getArcWeight(arc);
+                pathLinks.add(compiledGraph.getArcLink(arc));
+            }
+
+            metaInfoRepository.putMetaInfo(vertex, new DefaultSppVertexInfo(previousVertex, pathLength));
+
+            pathVertexes.add(vertex);
+            previousVertex = vertex;
+        }
+    }
+
+    @Override
+    protected void doFinish() throws AlgorithmException {
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+
+        algorithmOutput.println("The vertexes of the shortest path are: " + vertexesToNameBasedVertexWrappersConverter.convert(pathVertexes));
+        algorithmOutput.println("The arcs of the shortest path are: " + linksToNameBasedArcWrappersConverter.convert(pathLinks));
+        algorithmOutput.println("The length of the shortest path is: " + getPathLength());
+        algorithmOutput.println("Settled vertexes: " + settledVertexCount);
+        algorithmOutput.println(String.format("Query time: %.3f ms", elapsedNanoTime / 1e6));
+    }
+
+    public Vertex getStartVertex() {
+        return startVertex;
+    }
+
+    public Vertex getTargetVertex() {
+        return targetVertex;
+    }
+
+    /**
+     * @return the length of the shortest path to the target vertex, or
+     * positive infinity if the search has not finished yet
+     */
+    public double getPathLength() {
+        if (pathVertexes.isEmpty()) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        return bestPathLength;
+    }
+
+    /**
+     * @return the vertexes settled by the forward and the backward searches
+     */
+    public int getSettledVertexCount() {
+        return settledVertexCount;
+    }
+
+    /**
+     * @return the wall time elapsed between the initialization and the end of
+     * the search, including the compilation of the graph if it was not passed
+     * to the constructor
+     */
+    public long getElapsedNanoTime() {
+        return elapsedNanoTime;
+    }
+
+    public Collection<Vertex> getPathVertexes() {
+        return Collections.unmodifiableCollection(pathVertexes);
+    }
+
+    public Collection<Link> getPathLinks() {
+        return Collections.unmodifiableCollection(pathLinks);
+    }
+
+}
@@ -0,0 +1,246 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.*;
+import info.gianlucacosta.arcontes.graphs.Graph;
+import info.gianlucacosta.arcontes.graphs.GraphContext;
+import info.gianlucacosta.arcontes.graphs.Link;
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.arcontes.graphs.conversions.linkconverters.LinksToNameBasedArcWrappersConverter;
+import info.gianlucacosta.arcontes.graphs.conversions.vertexconverters.VertexesToNameBasedVertexWrappersConverter;
+import info.gianlucacosta.arcontes.graphs.metainfo.NameInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.hierarchies.ContractionHierarchy;
+import info.gianlucacosta.graphsj3.algorithms.spp.hierarchies.ContractionHierarchySearch;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+
+import java.util.*;
+
+/**
+ * SPP algorithm between a start vertex and a target vertex, answered by a
+ * bidirectional upward search over a preprocessed ContractionHierarchy.
+ * <p>
+ * The hierarchy must have been built from the current state of the graph;
+ * each step settles one vertex. The shortcuts of the path found are
+ * unpacked, so the result has the same vertexes and arcs as a path found by
+ * Spp, and its vertexes get their SppVertexInfo label.
+ * <p>
+ * A ContractionHierarchySearch can be passed to the constructor and shared
+ * by the queries on the same hierarchy, so that each query only resets the
+ * vertexes touched by the previous one.
+ */
+public class ContractionHierarchySpp extends CommonAlgorithm {
+
+    private final List<Vertex> pathVertexes;
+    private final List<Link> pathLinks;
+    private final VertexesToNameBasedVertexWrappersConverter vertexesToNameBasedVertexWrappersConverter;
+    private final LinksToNameBasedArcWrappersConverter linksToNameBasedArcWrappersConverter;
+    private final ContractionHierarchy hierarchy;
+    private final CompiledGraph compiledGraph;
+    private ContractionHierarchySearch search;
+    private double pathLength = Double.POSITIVE_INFINITY;
+    private int settledVertexCount;
+    private long startNanoTime;
+    private long elapsedNanoTime;
+    private Vertex startVertex;
+    private Vertex targetVertex;
+
+    public ContractionHierarchySpp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput, ContractionHierarchy hierarchy) {
+        this(graphContext, algorithmSettings, algorithmInput, algorithmOutput, hierarchy, null);
+    }
+
+    /**
+     * @param search the search to reuse; it must not be used by another
+     *               query until this one has finished
+     */
+    public ContractionHierarchySpp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput, ContractionHierarchySearch search) {
+        this(graphContext, algorithmSettings, algorithmInput, algorithmOutput, search.getHierarchy(), search);
+    }
+
+    private ContractionHierarchySpp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput, ContractionHierarchy hierarchy, ContractionHierarchySearch search) {
+        super(graphContext, algorithmSettings, algorithmInput, algorithmOutput);
+
+        vertexesToNameBasedVertexWrappersConverter = new VertexesToNameBasedVertexWrappersConverter(graphContext.getMetaInfoRepository());
+        linksToNameBasedArcWrappersConverter = new LinksToNameBasedArcWrappersConverter(graphContext.getMetaInfoRepository());
+
+        this.hierarchy = hierarchy;
+        this.search = search;
+        compiledGraph = hierarchy.getCompiledGraph();
+
+        pathVertexes = new ArrayList<>();
+        pathLinks = new ArrayList<>();
+    }
+
+    @Override
+    public boolean doInit() throws AlgorithmException {
+        AlgorithmInput algorithmInput = getAlgorithmInput();
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+        CommonAlgorithmSettings algorithmSettings = getAlgorithmSettings();
+
+        Graph graph = getGraphContext().getGraph();
+
+        startVertex = algorithmInput.askForVertex(graph, "Choose start vertex:");
+        if (startVertex == null) {
+            return false;
+        }
+
+        targetVertex = algorithmInput.askForVertex(graph, "Choose target vertex:");
+        if (targetVertex == null) {
+            return false;
+        }
+
+        startNanoTime = System.nanoTime();
+
+        if (search == null) {
+            search = new ContractionHierarchySearch(hierarchy);
+        }
+
+        search.init(compiledGraph.getVertexIndex(startVertex), compiledGraph.getVertexIndex(targetVertex));
+
+        if (algorithmSettings.isVerbose()) {
+            algorithmOutput.printHeader("Legend");
+            algorithmOutput.println();
+            algorithmOutput.println("Vbar", "Vertex settled in the current step");
+            algorithmOutput.println("Best path length", "Length of the shortest path found where the upward searches meet");
+            algorithmOutput.println();
+        }
+
+        return true;
+    }
+
+    @Override
+    protected AlgorithmStepOutcome doRunStep() throws AlgorithmException {
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+        CommonAlgorithmSettings algorithmSettings = getAlgorithmSettings();
+
+        MetaInfoRepository metaInfoRepository = getGraphContext().getMetaInfoRepository();
+
+        if (algorithmSettings.isVerbose()) {
+            algorithmOutput.printHeader("Step " + getCurrentStep());
+        }
+
+        if (search.isFinished()) {
+            if (Double.isInfinite(search.getPathLength())) {
+                throw new AlgorithmException("The target vertex cannot be reached from the start vertex");
+            }
+
+            buildPath();
+            elapsedNanoTime = System.nanoTime() - startNanoTime;
+            return AlgorithmStepOutcome.FINISH;
+        }
+
+        int vBarIndex = search.step();
+        settledVertexCount = search.getSettledVertexCount();
+
+        if (algorithmSettings.isVerbose()) {
+            algorithmOutput.println();
+            algorithmOutput.println("Vbar", metaInfoRepository.getMetaInfo(compiledGraph.getVertex(vBarIndex), NameInfo.class).getName());
+            algorithmOutput.println("Best path length", search.getPathLength());
+            algorithmOutput.println();
+        }
+
+        return AlgorithmStepOutcome.CONTINUE;
+    }
+
+    private void buildPath() {
+        MetaInfoRepository metaInfoRepository = getGraphContext().getMetaInfoRepository();
+
+        metaInfoRepository.putMetaInfo(startVertex, new DefaultSppVertexInfo(null, 0));
+        pathVertexes.add(startVertex);
+
+        //The search may serve other queries later
+        pathLength = search.getPathLength();
+
+        Vertex previousVertex = startVertex;
+        double vertexPathLength = 0;
+
+        for (int arc : search.getPathArcs()) {
+            Vertex vertex = compiledGraph.getVertex(compiledGraph.getArcTail(arc));
+
+            vertexPathLength += compiledGraph.getArcWeight(arc);
+            pathLinks.add(compiledGraph.getArcLink(arc));
+
+            metaInfoRepository.putMetaInfo(vertex, new DefaultSppVertexInfo(previousVertex, vertexPathLength));
+
+            pathVertexes.add(vertex);
+            previousVertex = vertex;
+        }
+    }
+
+    @Override
+    protected void doFinish() throws AlgorithmException {
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+
+        algorithmOutput.println("The vertexes of the shortest path are: " + vertexesToNameBasedVertexWrappersConverter.convert(pathVertexes));
+        algorithmOutput.println("The arcs of the shortest path are: " + linksToNameBasedArcWrappersConverter.convert(pathLinks));
+        algorithmOutput.println("The length of the shortest path is: " + getPathLength());
+        algorithmOutput.println("Settled vertexes: " + getSettledVertexCount());
+        algorithmOutput.println(String.format("Query time: %.3f ms", elapsedNanoTime / 1e6));
+    }
+
+    public Vertex getStartVertex() {
+        return startVertex;
+    }
+
+    public Vertex getTargetVertex() {
+        return targetVertex;
+    }
+
+    public ContractionHierarchy getHierarchy() {
+        return hierarchy;
+    }
+
+    /**
+     * @return the length of the shortest path to the target vertex, or
+     * positive infinity if the search has not finished yet
+     */
+    public double getPathLength() {
+        return pathLength;
+    }
+
+    /**
+     * @return the vertexes settled by the two upward searches
+     */
+    public int getSettledVertexCount() {
+        return settledVertexCount;
+    }
+
+    /**
+     * @return the wall time elapsed between the initialization and the end of
+     * the search; the construction of the hierarchy is not included
+     */
+    public long getElapsedNanoTime() {
+        return elapsedNanoTime;
+    }
+
+    public Collection<Vertex> getPathVertexes() {
+        return Collections.unmodifiableCollection(pathVertexes);
+    }
+
+    public Collection<Link> getPathLinks() {
+        return Collections.unmodifiableCollection(pathLinks);
+    }
+
+}
@@ -0,0 +1,255 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.*;
+import info.gianlucacosta.arcontes.graphs.Graph;
+import info.gianlucacosta.arcontes.graphs.GraphContext;
+import info.gianlucacosta.arcontes.graphs.Link;
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.arcontes.graphs.analysis.DefaultOrientedGraphAnalyzer;
+import info.gianlucacosta.arcontes.graphs.analysis.OrientedGraphAnalyzer;
+import info.gianlucacosta.arcontes.graphs.conversions.linkconverters.LinksToNameBasedArcWrappersConverter;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.DeltaSteppingSearch;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parallel SPP algorithm based on delta-stepping.
+ * <p>
+ * Each step settles a whole bucket of vertexes, relaxing their arcs on all
+ * the available cores. At the end, every vertex gets the same SppVertexInfo
+ * distance as in {@link Spp}; when a vertex has several shortest paths, its
+ * previous vertex is the head of its first entering arc on one of them.
+ * The path vertexes start with the start vertex and then follow the graph
+ * order, each path link being the arc that reaches the vertex at the same
+ * position.
+ * <p>
+ * The pool can be supplied by the caller, who keeps owning it; otherwise,
+ * each run creates a pool of its own on initialization, shutting it down
+ * as soon as the run finishes or fails.
+ */
+public class DeltaSteppingSpp extends CommonAlgorithm {
+
+    private final List<Vertex> pathVertexes;
+    private final List<Link> pathLinks;
+    private final LinksToNameBasedArcWrappersConverter linksToNameBasedArcWrappersConverter;
+    private final OrientedGraphAnalyzer graphAnalyzer;
+    private final int parallelism;
+    private final ForkJoinPool forkJoinPool;
+    private ForkJoinPool ownedForkJoinPool;
+    private CompiledGraph compiledGraph;
+    private DeltaSteppingSearch search;
+    private Vertex startVertex;
+
+    public DeltaSteppingSpp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput) {
+        this(graphContext, algorithmSettings, algorithmInput, algorithmOutput, Runtime.getRuntime().availableProcessors());
+    }
+
+    public DeltaSteppingSpp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput, int parallelism) {
+        super(graphContext, algorithmSettings, algorithmInput, algorithmOutput);
+
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be at least 1");
+        }
+
+        linksToNameBasedArcWrappersConverter = new LinksToNameBasedArcWrappersConverter(graphContext.getMetaInfoRepository());
+
+        graphAnalyzer = new DefaultOrientedGraphAnalyzer(graphContext);
+
+        this.parallelism = parallelism;
+        forkJoinPool = null;
+
+        pathVertexes = new ArrayList<>();
+        pathLinks = new ArrayList<>();
+    }
+
+    /**
+     * @param forkJoinPool the pool running the relaxations; it is never shut
+     *                     down by the algorithm
+     */
+    public DeltaSteppingSpp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput, ForkJoinPool forkJoinPool) {
+        super(graphContext, algorithmSettings, algorithmInput, algorithmOutput);
+
+        linksToNameBasedArcWrappersConverter = new LinksToNameBasedArcWrappersConverter(graphContext.getMetaInfoRepository());
+
+        graphAnalyzer = new DefaultOrientedGraphAnalyzer(graphContext);
+
+        Objects.requireNonNull(forkJoinPool, "The pool cannot be null");
+
+        this.parallelism = forkJoinPool.getParallelism();
+        this.forkJoinPool = forkJoinPool;
+
+        pathVertexes = new ArrayList<>();
+        pathLinks = new ArrayList<>();
+    }
+
+    @Override
+    public boolean doInit() throws AlgorithmException {
+        GraphContext graphContext = getGraphContext();
+        AlgorithmInput algorithmInput = getAlgorithmInput();
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+        CommonAlgorithmSettings algorithmSettings = getAlgorithmSettings();
+
+        if (!graphAnalyzer.getUnconnectedVertexes().isEmpty()) {
+            throw new AlgorithmException("All the vertexes in the graph must be connected to a link!");
+        }
+
+        Graph graph = graphContext.getGraph();
+
+        compiledGraph = new CompiledGraph(graphContext);
+
+        if (compiledGraph.getMinArcWeight() < 0) {
+            throw new AlgorithmException("The arc weights cannot be negative");
+        }
+
+        startVertex = algorithmInput.askForVertex(graph, "Choose start vertex:");
+        if (startVertex == null) {
+            return false;
+        }
+
+        shutdownOwnedPool();
+
+        ForkJoinPool searchForkJoinPool = forkJoinPool;
+
+        if (searchForkJoinPool == null) {
+            ownedForkJoinPool = new ForkJoinPool(parallelism);
+            searchForkJoinPool = ownedForkJoinPool;
+        }
+
+        search = new DeltaSteppingSearch(compiledGraph, searchForkJoinPool);
+        search.init(compiledGraph.getVertexIndex(startVertex));
+
+        if (algorithmSettings.isVerbose()) {
+            algorithmOutput.printHeader("Legend");
+            algorithmOutput.println();
+            algorithmOutput.println("Bucket", "Vertexes whose distance is in [Bucket * Delta, (Bucket + 1) * Delta)");
+            algorithmOutput.println("Delta", search.getDelta());
+            algorithmOutput.println();
+        }
+
+        return true;
+    }
+
+    @Override
+    protected AlgorithmStepOutcome doRunStep() throws AlgorithmException {
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+        CommonAlgorithmSettings algorithmSettings = getAlgorithmSettings();
+
+        if (algorithmSettings.isVerbose()) {
+            algorithmOutput.printHeader("Step " + getCurrentStep());
+        }
+
+        long bucket = search.getCurrentBucket();
+        boolean pendingBuckets;
+
+        try {
+            pendingBuckets = search.processNextBucket();
+        } catch (RuntimeException ex) {
+            shutdownOwnedPool();
+            throw ex;
+        }
+
+        if (algorithmSettings.isVerbose()) {
+            algorithmOutput.println();
+            algorithmOutput.println("Bucket", bucket);
+            algorithmOutput.println("Settled vertexes", search.getSettledVertexCount());
+            algorithmOutput.println();
+        }
+
+        if (pendingBuckets) {
+            return AlgorithmStepOutcome.CONTINUE;
+        }
+
+        shutdownOwnedPool();
+        writeLabels();
+
+        return AlgorithmStepOutcome.FINISH;
+    }
+
+    private void shutdownOwnedPool() {
+        if (ownedForkJoinPool != null) {
+            ownedForkJoinPool.shutdown();
+            ownedForkJoinPool = null;
+        }
+    }
+
+    private void writeLabels() throws AlgorithmException {
+        MetaInfoRepository metaInfoRepository = getGraphContext().getMetaInfoRepository();
+
+        int startIndex = compiledGraph.getVertexIndex(startVertex);
+
+        for (int vertexIndex = 0; vertexIndex < compiledGraph.getVertexCount(); vertexIndex++) {
+            if (Double.isInfinite(search.getPathLength(vertexIndex))) {
+                throw new AlgorithmException("Cannot determine Vbar: some vertexes cannot be reached from the start vertex");
+            }
+        }
+
+        metaInfoRepository.putMetaInfo(startVertex, new DefaultSppVertexInfo(null, 0));
+        pathVertexes.add(startVertex);
+
+        for (int vertexIndex = 0; vertexIndex < compiledGraph.getVertexCount(); vertexIndex++) {
+            if (vertexIndex == startIndex) {
+                continue;
+            }
+
+            int previousArc = search.getPreviousArc(vertexIndex);
+            Vertex vertex = compiledGraph.getVertex(vertexIndex);
+            Vertex previousVertex = compiledGraph.getVertex(compiledGraph.getArcHead(previousArc));
+
+            metaInfoRepository.putMetaInfo(vertex, new DefaultSppVertexInfo(previousVertex, search.getPathLength(vertexIndex)));
+
+            pathVertexes.add(vertex);
+            pathLinks.add(compiledGraph.getArcLink(previousArc));
+        }
+    }
+
+    @Override
+    protected void doFinish() throws AlgorithmException {
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+
+        algorithmOutput.println("The edges used by the shortest paths are: " + linksToNameBasedArcWrappersConverter.convert(pathLinks));
+        algorithmOutput.println("Processed buckets: " + search.getProcessedBucketCount());
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public Vertex getStartVertex() {
+        return startVertex;
+    }
+
+    public Collection<Vertex> getPathVertexes() {
+        return Collections.unmodifiableCollection(pathVertexes);
+    }
+
+    public Collection<Link> getPathLinks() {
+        return Collections.unmodifiableCollection(pathLinks);
+    }
+
+}
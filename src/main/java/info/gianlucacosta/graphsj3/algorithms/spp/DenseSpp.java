@@ -0,0 +1,189 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.*;
+import info.gianlucacosta.arcontes.graphs.Graph;
+import info.gianlucacosta.arcontes.graphs.GraphContext;
+import info.gianlucacosta.arcontes.graphs.Link;
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.arcontes.graphs.analysis.DefaultOrientedGraphAnalyzer;
+import info.gianlucacosta.arcontes.graphs.analysis.OrientedGraphAnalyzer;
+import info.gianlucacosta.arcontes.graphs.conversions.linkconverters.LinksToNameBasedArcWrappersConverter;
+import info.gianlucacosta.arcontes.graphs.conversions.vertexconverters.VertexesToNameBasedVertexWrappersConverter;
+import info.gianlucacosta.arcontes.graphs.metainfo.NameInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.DenseShortestPathSearch;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SPP algorithm for dense graphs, running on an adjacency matrix.
+ * <p>
+ * The steps, the path vertexes and the path links are the same as in
+ * {@link Spp}, but the graph is loaded once into a flat matrix of weights,
+ * and the labels are only written at the end.
+ */
+public class DenseSpp extends CommonAlgorithm {
+
+    private final List<Vertex> pathVertexes;
+    private final List<Link> pathLinks;
+    private final VertexesToNameBasedVertexWrappersConverter vertexesToNameBasedVertexWrappersConverter;
+    private final LinksToNameBasedArcWrappersConverter linksToNameBasedArcWrappersConverter;
+    private final OrientedGraphAnalyzer graphAnalyzer;
+    private CompiledGraph compiledGraph;
+    private DenseShortestPathSearch search;
+
+    public DenseSpp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput) {
+        super(graphContext, algorithmSettings, algorithmInput, algorithmOutput);
+
+        vertexesToNameBasedVertexWrappersConverter = new VertexesToNameBasedVertexWrappersConverter(graphContext.getMetaInfoRepository());
+        linksToNameBasedArcWrappersConverter = new LinksToNameBasedArcWrappersConverter(graphContext.getMetaInfoRepository());
+
+        graphAnalyzer = new DefaultOrientedGraphAnalyzer(graphContext);
+
+        pathVertexes = new ArrayList<>();
+        pathLinks = new ArrayList<>();
+    }
+
+    @Override
+    public boolean doInit() throws AlgorithmException {
+        GraphContext graphContext = getGraphContext();
+        AlgorithmInput algorithmInput = getAlgorithmInput();
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+        CommonAlgorithmSettings algorithmSettings = getAlgorithmSettings();
+
+        if (!graphAnalyzer.getUnconnectedVertexes().isEmpty()) {
+            throw new AlgorithmException("All the vertexes in the graph must be connected to a link!");
+        }
+
+        Graph graph = graphContext.getGraph();
+
+        compiledGraph = new CompiledGraph(graphContext);
+
+        if (compiledGraph.getMinArcWeight() < 0) {
+            throw new AlgorithmException("The arc weights cannot be negative");
+        }
+
+        try {
+            search = new DenseShortestPathSearch(compiledGraph);
+        } catch (IllegalArgumentException ex) {
+            throw new AlgorithmException(ex.getMessage());
+        }
+
+        Vertex startVertex = algorithmInput.askForVertex(graph, "Choose start vertex:");
+        if (startVertex == null) {
+            return false;
+        }
+
+        search.init(compiledGraph.getVertexIndex(startVertex));
+        pathVertexes.add(startVertex);
+
+        if (algorithmSettings.isVerbose()) {
+            algorithmOutput.printHeader("Legend");
+            algorithmOutput.println();
+            algorithmOutput.println("Vbar", "Vertex added to the shortest path in the current step");
+            algorithmOutput.println();
+            algorithmOutput.printHeader("Before step 1");
+            algorithmOutput.println();
+            algorithmOutput.println("Path vertexes", vertexesToNameBasedVertexWrappersConverter.convert(pathVertexes));
+            algorithmOutput.println("Path arcs", linksToNameBasedArcWrappersConverter.convert(pathLinks));
+            algorithmOutput.println();
+        }
+
+        return true;
+    }
+
+    @Override
+    protected AlgorithmStepOutcome doRunStep() throws AlgorithmException {
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+        CommonAlgorithmSettings algorithmSettings = getAlgorithmSettings();
+
+        MetaInfoRepository metaInfoRepository = getGraphContext().getMetaInfoRepository();
+
+        if (algorithmSettings.isVerbose()) {
+            algorithmOutput.printHeader("Step " + getCurrentStep());
+        }
+
+        if (search.isFinished()) {
+            throw new AlgorithmException("Cannot determine Vbar: some vertexes cannot be reached from the start vertex");
+        }
+
+        int vBarIndex = search.step();
+        Vertex vBar = compiledGraph.getVertex(vBarIndex);
+
+        pathVertexes.add(vBar);
+
+        int arcToAdd = compiledGraph.findArc(search.getPreviousVertex(vBarIndex), vBarIndex);
+
+        if (arcToAdd < 0) {
+            throw new AlgorithmException("Cannot determine the arc to add");
+        }
+
+        pathLinks.add(compiledGraph.getArcLink(arcToAdd));
+
+        if (algorithmSettings.isVerbose()) {
+            algorithmOutput.println();
+            algorithmOutput.println("At the end of the step:");
+            algorithmOutput.println();
+            algorithmOutput.println("Vbar", metaInfoRepository.getMetaInfo(vBar, NameInfo.class).getName());
+            algorithmOutput.println("Path vertexes", vertexesToNameBasedVertexWrappersConverter.convert(pathVertexes));
+            algorithmOutput.println("Path edges", linksToNameBasedArcWrappersConverter.convert(pathLinks));
+            algorithmOutput.println();
+        }
+
+        if (pathVertexes.size() < compiledGraph.getVertexCount()) {
+            return AlgorithmStepOutcome.CONTINUE;
+        }
+
+        for (int vertexIndex = 0; vertexIndex < compiledGraph.getVertexCount(); vertexIndex++) {
+            int previousIndex = search.getPreviousVertex(vertexIndex);
+            Vertex previousVertex = (previousIndex >= 0) ? compiledGraph.getVertex(previousIndex) : null;
+
+            metaInfoRepository.putMetaInfo(compiledGraph.getVertex(vertexIndex), new DefaultSppVertexInfo(previousVertex, search.getPathLength(vertexIndex)));
+        }
+
+        return AlgorithmStepOutcome.FINISH;
+    }
+
+    @Override
+    protected void doFinish() throws AlgorithmException {
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+
+        algorithmOutput.println("The edges used by the shortest paths are: " + linksToNameBasedArcWrappersConverter.convert(pathLinks));
+    }
+
+    public Collection<Vertex> getPathVertexes() {
+        return Collections.unmodifiableCollection(pathVertexes);
+    }
+
+    public Collection<Link> getPathLinks() {
+        return Collections.unmodifiableCollection(pathLinks);
+    }
+
+}
@@ -0,0 +1,534 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.graphs.GraphContext;
+import info.gianlucacosta.arcontes.graphs.Link;
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.arcontes.graphs.analysis.DefaultOrientedGraphAnalyzer;
+import info.gianlucacosta.arcontes.graphs.analysis.OrientedGraphAnalyzer;
+import info.gianlucacosta.arcontes.graphs.metainfo.DefaultWeightInfo;
+import info.gianlucacosta.arcontes.graphs.metainfo.WeightInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.IndexedMinPriorityQueue;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.ShortestPathSearch;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+
+import java.util.*;
+
+/**
+ * Shortest path tree from a start vertex, kept up to date while the weights
+ * of the links change.
+ * <p>
+ * The tree is computed once, on construction, writing the SppVertexInfo
+ * label of every vertex as {@link Spp} does; the vertexes that cannot be
+ * reached get a label with no previous vertex and infinite distance. Then,
+ * in the style of Ramalingam and Reps, each weight change only repairs the
+ * vertexes it affects: a decrease propagates the shorter distances with a
+ * Dijkstra search starting from the tail of the arc, while an increase on a
+ * tree arc only affects the subtree below it: the vertexes of the subtree
+ * still reached by an arc on a shortest path from a vertex keeping its
+ * distance keep it too, moving to that arc if needed, and the others are
+ * reconnected with a Dijkstra search seeded from the rest of the tree. Only
+ * the labels of the vertexes whose distance or previous vertex changes are
+ * rewritten.
+ * <p>
+ * The graph structure must not change, and weights must not be negative.
+ */
+public class DynamicSpp {
+
+    private final GraphContext graphContext;
+    private final CompiledGraph compiledGraph;
+    private final int vertexCount;
+    private final int startIndex;
+
+    private final Map<Link, Integer> linkPositions;
+    private final int[] arcLinkOffsets;
+    private final Link[] groupedLinks;
+    private final int[] groupedLinkArcs;
+    private final double[] groupedLinkWeights;
+    private final double[] arcWeights;
+    private final Link[] arcLinks;
+
+    private final double[] pathLengths;
+    private final int[] previousArcs;
+    private final int[] firstChildren;
+    private final int[] nextSiblings;
+    private final int[] previousSiblings;
+    private int treeArcCount;
+
+    private final IndexedMinPriorityQueue queue;
+    private final int[] updateMarks;
+    private final int[] changedVertexes;
+    private int changedVertexCount;
+    private int updateCount;
+
+    private final int[] subtreeVertexes;
+    private final int[] detachedMarks;
+    private final int[] reattachArcs;
+
+    private final Collection<Link> pathLinks;
+
+    public DynamicSpp(GraphContext graphContext, Vertex startVertex) {
+        this.graphContext = graphContext;
+
+        compiledGraph = new CompiledGraph(graphContext);
+        compiledGraph.requireNonNegativeArcWeights();
+
+        vertexCount = compiledGraph.getVertexCount();
+        startIndex = compiledGraph.getVertexIndex(startVertex);
+
+        int arcCount = compiledGraph.getArcCount();
+
+        //Grouping the links by arc, to track the minimum weight among parallel links
+        OrientedGraphAnalyzer graphAnalyzer = new DefaultOrientedGraphAnalyzer(graphContext);
+        MetaInfoRepository metaInfoRepository = graphContext.getMetaInfoRepository();
+
+        List<Link> links = new ArrayList<>(graphContext.getGraph().getLinks());
+        int[] linkArcs = new int[links.size()];
+
+        arcLinkOffsets = new int[arcCount + 1];
+
+        for (int linkIndex = 0; linkIndex < links.size(); linkIndex++) {
+            Link link = links.get(linkIndex);
+
+            int headIndex = compiledGraph.getVertexIndex(graphAnalyzer.getHead(link));
+            int tailIndex = compiledGraph.getVertexIndex(graphAnalyzer.getTail(link));
+
+            linkArcs[linkIndex] = (headIndex != tailIndex) ? compiledGraph.findArc(headIndex, tailIndex) : -1;
+
+            if (linkArcs[linkIndex] >= 0) {
+                arcLinkOffsets[linkArcs[linkIndex] + 1]++;
+            }
+        }
+
+        for (int arc = 0; arc < arcCount; arc++) {
+            arcLinkOffsets[arc + 1] += arcLinkOffsets[arc];
+        }
+
+        groupedLinks = new Link[arcLinkOffsets[arcCount]];
+        groupedLinkArcs = new int[groupedLinks.length];
+        groupedLinkWeights = new double[groupedLinks.length];
+        linkPositions = new HashMap<>(groupedLinks.length * 2);
+
+        int[] insertionPositions = Arrays.copyOf(arcLinkOffsets, arcCount);
+
+        for (int linkIndex = 0; linkIndex < links.size(); linkIndex++) {
+            int arc = linkArcs[linkIndex];
+
+            if (arc >= 0) {
+                Link link = links.get(linkIndex);
+                int position = insertionPositions[arc]++;
+
+                groupedLinks[position] = link;
+                groupedLinkArcs[position] = arc;
+
+                WeightInfo<Double> linkWeightInfo = metaInfoRepository.getMetaInfo(link, WeightInfo.class);
+                groupedLinkWeights[position] = linkWeightInfo.getWeight();
+                linkPositions.put(link, position);
+            }
+        }
+
+        arcWeights = new double[arcCount];
+        arcLinks = new Link[arcCount];
+
+        for (int arc = 0; arc < arcCount; arc++) {
+            arcWeights[arc] = compiledGraph.getArcWeight(arc);
+            arcLinks[arc] = compiledGraph.getArcLink(arc);
+        }
+
+        pathLengths = new double[vertexCount];
+        previousArcs = new int[vertexCount];
+        firstChildren = new int[vertexCount];
+        nextSiblings = new int[vertexCount];
+        previousSiblings = new int[vertexCount];
+
+        Arrays.fill(firstChildren, -1);
+        Arrays.fill(nextSiblings, -1);
+        Arrays.fill(previousSiblings, -1);
+        Arrays.fill(previousArcs, -1);
+
+        ShortestPathSearch search = new ShortestPathSearch(compiledGraph);
+        search.searchForward(startIndex);
+
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            pathLengths[vertexIndex] = search.getPathLength(vertexIndex);
+            setPreviousArc(vertexIndex, search.getPreviousArc(vertexIndex));
+        }
+
+        queue = new IndexedMinPriorityQueue(vertexCount);
+        updateMarks = new int[vertexCount];
+        changedVertexes = new int[vertexCount];
+        subtreeVertexes = new int[vertexCount];
+        detachedMarks = new int[vertexCount];
+        reattachArcs = new int[vertexCount];
+
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            writeLabel(vertexIndex);
+        }
+
+        pathLinks = new AbstractCollection<Link>() {
+            @Override
+            public Iterator<Link> iterator() {
+                return new PathLinksIterator();
+            }
+
+            @Override
+            public int size() {
+                return treeArcCount;
+            }
+
+        };
+    }
+
+    /**
+     * Sets the weight of the given link, writing its WeightInfo, and repairs
+     * the shortest path tree.
+     *
+     * @return how many vertexes changed their label
+     */
+    public int setWeight(Link link, double weight) {
+        if (!(weight >= 0)) {
+            throw new IllegalArgumentException("Weights must be non-negative numbers");
+        }
+
+        Integer position = linkPositions.get(link);
+
+        if (position == null) {
+            if (!graphContext.getGraph().getLinks().contains(link)) {
+                throw new IllegalArgumentException("The link does not belong to the graph");
+            }
+
+            //Loops cannot belong to any shortest path
+            graphContext.getMetaInfoRepository().putMetaInfo(link, new DefaultWeightInfo<>(weight));
+            return 0;
+        }
+
+        graphContext.getMetaInfoRepository().putMetaInfo(link, new DefaultWeightInfo<>(weight));
+        groupedLinkWeights[position] = weight;
+
+        int arc = groupedLinkArcs[position];
+        double oldArcWeight = arcWeights[arc];
+
+        //The arc follows the first parallel link having minimum weight
+        arcWeights[arc] = Double.POSITIVE_INFINITY;
+        for (int linkPosition = arcLinkOffsets[arc]; linkPosition < arcLinkOffsets[arc + 1]; linkPosition++) {
+            if (groupedLinkWeights[linkPosition] < arcWeights[arc]) {
+                arcWeights[arc] = groupedLinkWeights[linkPosition];
+                arcLinks[arc] = groupedLinks[linkPosition];
+            }
+        }
+
+        updateCount++;
+        changedVertexCount = 0;
+
+        if (arcWeights[arc] < oldArcWeight) {
+            decreaseArcWeight(arc);
+        } else if (arcWeights[arc] > oldArcWeight) {
+            increaseArcWeight(arc);
+        }
+
+        for (int changedPosition = 0; changedPosition < changedVertexCount; changedPosition++) {
+            writeLabel(changedVertexes[changedPosition]);
+        }
+
+        return changedVertexCount;
+    }
+
+    private void decreaseArcWeight(int arc) {
+        int headIndex = compiledGraph.getArcHead(arc);
+        int tailIndex = compiledGraph.getArcTail(arc);
+
+        double tailPathLength = pathLengths[headIndex] + arcWeights[arc];
+
+        if (tailPathLength < pathLengths[tailIndex]) {
+            pathLengths[tailIndex] = tailPathLength;
+            setPreviousArc(tailIndex, arc);
+            queue.insert(tailIndex, tailPathLength);
+
+            propagate(false);
+        } else if (previousArcs[tailIndex] == arc) {
+            //The path length does not change, but the link of the arc might
+            markChanged(tailIndex);
+        }
+    }
+
+    private void increaseArcWeight(int arc) {
+        int tailIndex = compiledGraph.getArcTail(arc);
+
+        if (previousArcs[tailIndex] != arc) {
+            return;
+        }
+
+        //Detaching the subtree below the arc, whose distances can only grow
+        int subtreeVertexCount = 0;
+
+        subtreeVertexes[subtreeVertexCount++] = tailIndex;
+        detachedMarks[tailIndex] = updateCount;
+
+        for (int position = 0; position < subtreeVertexCount; position++) {
+            for (int child = firstChildren[subtreeVertexes[position]]; child >= 0; child = nextSiblings[child]) {
+                subtreeVertexes[subtreeVertexCount++] = child;
+                detachedMarks[child] = updateCount;
+            }
+        }
+
+        //Reattaching, in distance order, the vertexes reached by a tight arc from an attached vertex
+        for (int position = 0; position < subtreeVertexCount; position++) {
+            int vertexIndex = subtreeVertexes[position];
+
+            for (int enteringPosition = compiledGraph.getEnteringArcsStart(vertexIndex); enteringPosition < compiledGraph.getEnteringArcsEnd(vertexIndex); enteringPosition++) {
+                int enteringArc = compiledGraph.getEnteringArc(enteringPosition);
+
+                if (detachedMarks[compiledGraph.getArcHead(enteringArc)] != updateCount && isTight(enteringArc)) {
+                    reattachArcs[vertexIndex] = enteringArc;
+                    queue.insert(vertexIndex, pathLengths[vertexIndex]);
+                    break;
+                }
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int vertexIndex = queue.poll();
+            detachedMarks[vertexIndex] = 0;
+
+            int previousArc = previousArcs[vertexIndex];
+
+            //Keeping the previous arc whenever it still lies on a shortest path
+            if (detachedMarks[compiledGraph.getArcHead(previousArc)] == updateCount || !isTight(previousArc)) {
+                setPreviousArc(vertexIndex, reattachArcs[vertexIndex]);
+                markChanged(vertexIndex);
+            }
+
+            for (int exitingArc = compiledGraph.getExitingArcsStart(vertexIndex); exitingArc < compiledGraph.getExitingArcsEnd(vertexIndex); exitingArc++) {
+                int exitingTailIndex = compiledGraph.getArcTail(exitingArc);
+
+                if (detachedMarks[exitingTailIndex] == updateCount && !queue.contains(exitingTailIndex) && isTight(exitingArc)) {
+                    reattachArcs[exitingTailIndex] = exitingArc;
+                    queue.insert(exitingTailIndex, pathLengths[exitingTailIndex]);
+                }
+            }
+        }
+
+        //The vertexes still detached are exactly the ones whose distance grows
+        int firstAffectedPosition = changedVertexCount;
+
+        for (int position = 0; position < subtreeVertexCount; position++) {
+            int vertexIndex = subtreeVertexes[position];
+
+            if (detachedMarks[vertexIndex] == updateCount) {
+                markChanged(vertexIndex);
+
+                pathLengths[vertexIndex] = Double.POSITIVE_INFINITY;
+                setPreviousArc(vertexIndex, -1);
+            }
+        }
+
+        //Each affected vertex starts from its best arc coming from the rest of the tree
+        for (int position = firstAffectedPosition; position < changedVertexCount; position++) {
+            int vertexIndex = changedVertexes[position];
+
+            for (int enteringPosition = compiledGraph.getEnteringArcsStart(vertexIndex); enteringPosition < compiledGraph.getEnteringArcsEnd(vertexIndex); enteringPosition++) {
+                int enteringArc = compiledGraph.getEnteringArc(enteringPosition);
+                int headIndex = compiledGraph.getArcHead(enteringArc);
+
+                if (detachedMarks[headIndex] == updateCount) {
+                    continue;
+                }
+
+                double vertexPathLength = pathLengths[headIndex] + arcWeights[enteringArc];
+
+                if (vertexPathLength < pathLengths[vertexIndex]) {
+                    pathLengths[vertexIndex] = vertexPathLength;
+                    setPreviousArc(vertexIndex, enteringArc);
+                }
+            }
+
+            if (!Double.isInfinite(pathLengths[vertexIndex])) {
+                queue.insert(vertexIndex, pathLengths[vertexIndex]);
+            }
+        }
+
+        propagate(true);
+    }
+
+    /**
+     * @return true if the arc lies on a shortest path to its tail
+     */
+    private boolean isTight(int arc) {
+        return pathLengths[compiledGraph.getArcHead(arc)] + arcWeights[arc] == pathLengths[compiledGraph.getArcTail(arc)];
+    }
+
+    /**
+     * Dijkstra search from the queued vertexes; after an increase, the other
+     * vertexes keep their distances and are not relaxed
+     */
+    private void propagate(boolean onlyDetachedVertexes) {
+        while (!queue.isEmpty()) {
+            int vertexIndex = queue.poll();
+            markChanged(vertexIndex);
+
+            double vertexPathLength = pathLengths[vertexIndex];
+
+            for (int arc = compiledGraph.getExitingArcsStart(vertexIndex); arc < compiledGraph.getExitingArcsEnd(vertexIndex); arc++) {
+                int tailIndex = compiledGraph.getArcTail(arc);
+
+                if (onlyDetachedVertexes && detachedMarks[tailIndex] != updateCount) {
+                    continue;
+                }
+
+                double tailPathLength = vertexPathLength + arcWeights[arc];
+
+                if (tailPathLength < pathLengths[tailIndex]) {
+                    pathLengths[tailIndex] = tailPathLength;
+                    setPreviousArc(tailIndex, arc);
+                    queue.insertOrDecrease(tailIndex, tailPathLength);
+                }
+            }
+        }
+    }
+
+    private void markChanged(int vertexIndex) {
+        if (updateMarks[vertexIndex] != updateCount) {
+            updateMarks[vertexIndex] = updateCount;
+            changedVertexes[changedVertexCount++] = vertexIndex;
+        }
+    }
+
+    /**
+     * Moves the vertex to the children of the head of the given arc, keeping
+     * the children lists doubly linked
+     */
+    private void setPreviousArc(int vertexIndex, int arc) {
+        int oldArc = previousArcs[vertexIndex];
+
+        if (oldArc == arc) {
+            return;
+        }
+
+        if (oldArc >= 0) {
+            int oldParent = compiledGraph.getArcHead(oldArc);
+
+            if (previousSiblings[vertexIndex] >= 0) {
+                nextSiblings[previousSiblings[vertexIndex]] = nextSiblings[vertexIndex];
+            } else {
+                firstChildren[oldParent] = nextSiblings[vertexIndex];
+            }
+
+            if (nextSiblings[vertexIndex] >= 0) {
+                previousSiblings[nextSiblings[vertexIndex]] = previousSiblings[vertexIndex];
+            }
+
+            treeArcCount--;
+        }
+
+        previousArcs[vertexIndex] = arc;
+        previousSiblings[vertexIndex] = -1;
+        nextSiblings[vertexIndex] = -1;
+
+        if (arc >= 0) {
+            int parent = compiledGraph.getArcHead(arc);
+
+            nextSiblings[vertexIndex] = firstChildren[parent];
+            if (firstChildren[parent] >= 0) {
+                previousSiblings[firstChildren[parent]] = vertexIndex;
+            }
+            firstChildren[parent] = vertexIndex;
+
+            treeArcCount++;
+        }
+    }
+
+    private void writeLabel(int vertexIndex) {
+        int previousArc = previousArcs[vertexIndex];
+        Vertex previousVertex = (previousArc >= 0) ? compiledGraph.getVertex(compiledGraph.getArcHead(previousArc)) : null;
+
+        graphContext.getMetaInfoRepository().putMetaInfo(compiledGraph.getVertex(vertexIndex), new DefaultSppVertexInfo(previousVertex, pathLengths[vertexIndex]));
+    }
+
+    public Vertex getStartVertex() {
+        return compiledGraph.getVertex(startIndex);
+    }
+
+    public double getPathLength(Vertex vertex) {
+        return pathLengths[compiledGraph.getVertexIndex(vertex)];
+    }
+
+    /**
+     * @return the previous vertex in the shortest path to the given vertex, or
+     * null for the start vertex and for the vertexes that cannot be reached
+     */
+    public Vertex getPreviousVertex(Vertex vertex) {
+        int previousArc = previousArcs[compiledGraph.getVertexIndex(vertex)];
+
+        return (previousArc >= 0) ? compiledGraph.getVertex(compiledGraph.getArcHead(previousArc)) : null;
+    }
+
+    /**
+     * @return a live, unmodifiable view of the links of the shortest path
+     * tree, following the graph order of the vertexes they reach
+     */
+    public Collection<Link> getPathLinks() {
+        return pathLinks;
+    }
+
+    private class PathLinksIterator implements Iterator<Link> {
+
+        private int nextVertexIndex = -1;
+
+        PathLinksIterator() {
+            advance();
+        }
+
+        private void advance() {
+            do {
+                nextVertexIndex++;
+            } while (nextVertexIndex < vertexCount && previousArcs[nextVertexIndex] < 0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextVertexIndex < vertexCount;
+        }
+
+        @Override
+        public Link next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            Link result = arcLinks[previousArcs[nextVertexIndex]];
+            advance();
+
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
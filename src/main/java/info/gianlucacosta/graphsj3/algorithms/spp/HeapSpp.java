@@ -0,0 +1,255 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.*;
+import info.gianlucacosta.arcontes.graphs.Graph;
+import info.gianlucacosta.arcontes.graphs.GraphContext;
+import info.gianlucacosta.arcontes.graphs.Link;
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.arcontes.graphs.analysis.DefaultOrientedGraphAnalyzer;
+import info.gianlucacosta.arcontes.graphs.analysis.OrientedGraphAnalyzer;
+import info.gianlucacosta.arcontes.graphs.conversions.linkconverters.LinksToNameBasedArcWrappersConverter;
+import info.gianlucacosta.arcontes.graphs.conversions.vertexconverters.VertexesToNameBasedVertexWrappersConverter;
+import info.gianlucacosta.arcontes.graphs.metainfo.NameInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.IndexedMinPriorityQueue;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+
+import java.util.*;
+
+/**
+ * SPP algorithm backed by an indexed binary heap.
+ * <p>
+ * It performs the same steps as {@link Spp} and produces the same vertex
+ * labels, path vertexes and path links, but each step only relaxes the arcs
+ * exiting from Vbar and extracts the next Vbar in O(log V), so a full run
+ * takes O((V + E) log V) instead of O(V^2).
+ */
+public class HeapSpp extends CommonAlgorithm {
+
+    private final List<Vertex> pathVertexes;
+    private final List<Link> pathLinks;
+    private final VertexesToNameBasedVertexWrappersConverter vertexesToNameBasedVertexWrappersConverter;
+    private final LinksToNameBasedArcWrappersConverter linksToNameBasedArcWrappersConverter;
+    private final OrientedGraphAnalyzer graphAnalyzer;
+    private CompiledGraph compiledGraph;
+    private double[] pathLengths;
+    private int[] previousArcs;
+    private boolean[] settled;
+    private IndexedMinPriorityQueue queue;
+    private Vertex vBar;
+
+    public HeapSpp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput) {
+        super(graphContext, algorithmSettings, algorithmInput, algorithmOutput);
+
+        vertexesToNameBasedVertexWrappersConverter = new VertexesToNameBasedVertexWrappersConverter(graphContext.getMetaInfoRepository());
+        linksToNameBasedArcWrappersConverter = new LinksToNameBasedArcWrappersConverter(graphContext.getMetaInfoRepository());
+
+        graphAnalyzer = new DefaultOrientedGraphAnalyzer(graphContext);
+
+        pathVertexes = new ArrayList<>();
+        pathLinks = new ArrayList<>();
+    }
+
+    @Override
+    public boolean doInit() throws AlgorithmException {
+        GraphContext graphContext = getGraphContext();
+        AlgorithmInput algorithmInput = getAlgorithmInput();
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+        CommonAlgorithmSettings algorithmSettings = getAlgorithmSettings();
+
+        if (!graphAnalyzer.getUnconnectedVertexes().isEmpty()) {
+            throw new AlgorithmException("All the vertexes in the graph must be connected to a link!");
+        }
+
+        Graph graph = graphContext.getGraph();
+        MetaInfoRepository metaInfoRepository = graphContext.getMetaInfoRepository();
+
+        //The vertex indexes follow the graph order, so that ties are broken exactly as in Spp
+        compiledGraph = new CompiledGraph(graphContext);
+
+        int vertexCount = compiledGraph.getVertexCount();
+
+        pathLengths = new double[vertexCount];
+        previousArcs = new int[vertexCount];
+        settled = new boolean[vertexCount];
+        queue = new IndexedMinPriorityQueue(vertexCount);
+
+        Vertex startVertex = algorithmInput.askForVertex(graph, "Choose start vertex:");
+        if (startVertex == null) {
+            return false;
+        }
+
+        int startIndex = compiledGraph.getVertexIndex(startVertex);
+
+        pathVertexes.add(startVertex);
+        settled[startIndex] = true;
+
+        //Initializing the vertex labels
+        metaInfoRepository.putMetaInfo(startVertex, new DefaultSppVertexInfo(null, 0));
+
+        Arrays.fill(pathLengths, Double.POSITIVE_INFINITY);
+        pathLengths[startIndex] = 0;
+        Arrays.fill(previousArcs, -1);
+
+        for (Vertex vertex : compiledGraph.getVertexes()) {
+            if (vertex != startVertex) {
+                metaInfoRepository.putMetaInfo(vertex, new DefaultSppVertexInfo(startVertex, Double.POSITIVE_INFINITY));
+            }
+        }
+
+        relaxExitingArcs(startIndex);
+
+        if (algorithmSettings.isVerbose()) {
+
+            algorithmOutput.printHeader("Legend");
+            algorithmOutput.println();
+            algorithmOutput.println("Vbar", "Vertex added to the shortest path in the current step");
+            algorithmOutput.println();
+            algorithmOutput.printHeader("Before step 1");
+            algorithmOutput.println();
+            algorithmOutput.println("Path vertexes", vertexesToNameBasedVertexWrappersConverter.convert(pathVertexes));
+            algorithmOutput.println("Path arcs", linksToNameBasedArcWrappersConverter.convert(pathLinks));
+            algorithmOutput.println();
+        }
+
+        return true;
+    }
+
+    @Override
+    protected AlgorithmStepOutcome doRunStep() throws AlgorithmException {
+        GraphContext graphContext = getGraphContext();
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+        CommonAlgorithmSettings algorithmSettings = getAlgorithmSettings();
+
+        MetaInfoRepository metaInfoRepository = graphContext.getMetaInfoRepository();
+
+        if (algorithmSettings.isVerbose()) {
+            algorithmOutput.printHeader("Step " + getCurrentStep());
+        }
+
+        if (getCurrentStep() > 1) {
+            relaxExitingArcs(compiledGraph.getVertexIndex(vBar));
+        }
+
+        //Finding out the "vBar" vertex...
+        if (queue.isEmpty()) {
+            throw new AlgorithmException("Cannot determine Vbar: some vertexes cannot be reached from the start vertex");
+        }
+
+        int vBarIndex = queue.poll();
+        vBar = compiledGraph.getVertex(vBarIndex);
+
+        //Updating the sets...
+        pathVertexes.add(vBar);
+        settled[vBarIndex] = true;
+
+        int arcToAdd = previousArcs[vBarIndex];
+
+        if (arcToAdd < 0) {
+            throw new AlgorithmException("Cannot determine the arc to add");
+        }
+
+        pathLinks.add(compiledGraph.getArcLink(arcToAdd));
+
+        if (algorithmSettings.isVerbose()) {
+            algorithmOutput.println();
+            algorithmOutput.println("At the end of the step:");
+            algorithmOutput.println();
+            algorithmOutput.println("Vbar", metaInfoRepository.getMetaInfo(vBar, NameInfo.class).getName());
+            algorithmOutput.println("Path vertexes", vertexesToNameBasedVertexWrappersConverter.convert(pathVertexes));
+            algorithmOutput.println("Path edges", linksToNameBasedArcWrappersConverter.convert(pathLinks));
+            algorithmOutput.println();
+        }
+
+        if (pathVertexes.size() == compiledGraph.getVertexCount()) {
+            return AlgorithmStepOutcome.FINISH;
+        }
+
+        return AlgorithmStepOutcome.CONTINUE;
+    }
+
+    private void relaxExitingArcs(int vertexIndex) {
+        MetaInfoRepository metaInfoRepository = getGraphContext().getMetaInfoRepository();
+
+        Vertex vertex = compiledGraph.getVertex(vertexIndex);
+        double vertexPathLength = pathLengths[vertexIndex];
+
+        for (int arc = compiledGraph.getExitingArcsStart(vertexIndex); arc < compiledGraph.getExitingArcsEnd(vertexIndex); arc++) {
+            int tailIndex = compiledGraph.getArcTail(arc);
+
+            if (settled[tailIndex]) {
+                continue;
+            }
+
+            double tailPathLengthFromStart = vertexPathLength + compiledGraph.getArcWeight(arc);
+
+            if (tailPathLengthFromStart < pathLengths[tailIndex]) {
+                pathLengths[tailIndex] = tailPathLengthFromStart;
+                previousArcs[tailIndex] = arc;
+                queue.insertOrDecrease(tailIndex, tailPathLengthFromStart);
+
+                metaInfoRepository.putMetaInfo(compiledGraph.getVertex(tailIndex), new DefaultSppVertexInfo(vertex, tailPathLengthFromStart));
+            }
+        }
+    }
+
+    @Override
+    protected void doFinish() throws AlgorithmException {
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+
+        algorithmOutput.println("The edges used by the shortest paths are: " + linksToNameBasedArcWrappersConverter.convert(pathLinks));
+    }
+
+    public Collection<Vertex> getPathVertexes() {
+        return Collections.unmodifiableCollection(pathVertexes);
+    }
+
+    public Collection<Link> getPathLinks() {
+        return Collections.unmodifiableCollection(pathLinks);
+    }
+
+    /**
+     * Walks the previous arcs back from the given vertex, without querying
+     * the graph.
+     *
+     * @return the links of the shortest path from the start vertex to the
+     * given vertex, which must have already been added to the path vertexes
+     */
+    public List<Link> getPathTo(Vertex vertex) {
+        if (compiledGraph == null) {
+            throw new IllegalStateException("The algorithm has not been initialized");
+        }
+
+        int vertexIndex = compiledGraph.getVertexIndex(vertex);
+
+        if (!settled[vertexIndex]) {
+            throw new IllegalStateException("The shortest path to the vertex has not been determined yet");
+        }
+
+        return compiledGraph.getPathLinks(previousArcs, vertexIndex);
+    }
+
+}
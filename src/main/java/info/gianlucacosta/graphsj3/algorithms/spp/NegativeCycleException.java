@@ -0,0 +1,60 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.AlgorithmException;
+import info.gianlucacosta.arcontes.graphs.Link;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown when the shortest paths are undefined because the graph contains a
+ * cycle whose total weight is negative.
+ */
+public class NegativeCycleException extends AlgorithmException {
+
+    private final List<Link> cycleLinks;
+    private final double cycleWeight;
+
+    /**
+     * @param cycleLinks  the links of the cycle, in path order
+     * @param cycleWeight the total weight of the cycle
+     */
+    public NegativeCycleException(List<Link> cycleLinks, double cycleWeight) {
+        super(String.format("The graph contains a negative cycle of %d arcs, having weight %s", cycleLinks.size(), cycleWeight));
+
+        this.cycleLinks = Collections.unmodifiableList(new ArrayList<>(cycleLinks));
+        this.cycleWeight = cycleWeight;
+    }
+
+    public List<Link> getCycleLinks() {
+        return cycleLinks;
+    }
+
+    public double getCycleWeight() {
+        return cycleWeight;
+    }
+
+}
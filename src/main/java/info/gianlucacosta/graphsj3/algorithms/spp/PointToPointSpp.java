@@ -0,0 +1,309 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.*;
+import info.gianlucacosta.arcontes.graphs.Graph;
+import info.gianlucacosta.arcontes.graphs.GraphContext;
+import info.gianlucacosta.arcontes.graphs.Link;
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.arcontes.graphs.conversions.linkconverters.LinksToNameBasedArcWrappersConverter;
+import info.gianlucacosta.arcontes.graphs.conversions.vertexconverters.VertexesToNameBasedVertexWrappersConverter;
+import info.gianlucacosta.arcontes.graphs.metainfo.NameInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.IndexedMinPriorityQueue;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.SearchSpace;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+
+import java.util.*;
+
+/**
+ * SPP algorithm between a start vertex and a target vertex, both provided by
+ * the algorithm input.
+ * <p>
+ * Every step settles one vertex, in order of distance from the start vertex,
+ * and the algorithm finishes as soon as the target vertex is settled: only
+ * the settled vertexes and their neighbours get an SppVertexInfo label, and
+ * the solution is the shortest path to the target vertex.
+ * <p>
+ * A CompiledGraph can be passed to the constructor and shared by several
+ * queries on the same graph; passing a SearchSpace instead also shares the
+ * labels of the search, which are reset only where the previous query
+ * touched them, so that the cost of each query depends on the vertexes it
+ * reaches.
+ * <p>
+ * Subclasses can make the search goal-directed by overriding
+ * {@link #getLowerBoundToTarget(int)}.
+ */
+public class PointToPointSpp extends CommonAlgorithm {
+
+    private final List<Vertex> pathVertexes;
+    private final List<Link> pathLinks;
+    private final VertexesToNameBasedVertexWrappersConverter vertexesToNameBasedVertexWrappersConverter;
+    private final LinksToNameBasedArcWrappersConverter linksToNameBasedArcWrappersConverter;
+    private CompiledGraph compiledGraph;
+    private SearchSpace searchSpace;
+    private double pathLength = Double.POSITIVE_INFINITY;
+    private int settledVertexCount;
+    private long startNanoTime;
+    private long elapsedNanoTime;
+    private Vertex startVertex;
+    private Vertex targetVertex;
+    private int targetIndex;
+
+    public PointToPointSpp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput) {
+        this(graphContext, algorithmSettings, algorithmInput, algorithmOutput, (CompiledGraph) null);
+    }
+
+    public PointToPointSpp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput, CompiledGraph compiledGraph) {
+        super(graphContext, algorithmSettings, algorithmInput, algorithmOutput);
+
+        vertexesToNameBasedVertexWrappersConverter = new VertexesToNameBasedVertexWrappersConverter(graphContext.getMetaInfoRepository());
+        linksToNameBasedArcWrappersConverter = new LinksToNameBasedArcWrappersConverter(graphContext.getMetaInfoRepository());
+
+        this.compiledGraph = compiledGraph;
+
+        pathVertexes = new ArrayList<>();
+        pathLinks = new ArrayList<>();
+    }
+
+    /**
+     * @param searchSpace the labels to reuse; it must not be used by another
+     *                    query until this one has finished
+     */
+    public PointToPointSpp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput, SearchSpace searchSpace) {
+        this(graphContext, algorithmSettings, algorithmInput, algorithmOutput, searchSpace.getCompiledGraph());
+
+        this.searchSpace = searchSpace;
+    }
+
+    @Override
+    public boolean doInit() throws AlgorithmException {
+        GraphContext graphContext = getGraphContext();
+        AlgorithmInput algorithmInput = getAlgorithmInput();
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+        CommonAlgorithmSettings algorithmSettings = getAlgorithmSettings();
+
+        Graph graph = graphContext.getGraph();
+        MetaInfoRepository metaInfoRepository = graphContext.getMetaInfoRepository();
+
+        startVertex = algorithmInput.askForVertex(graph, "Choose start vertex:");
+        if (startVertex == null) {
+            return false;
+        }
+
+        targetVertex = algorithmInput.askForVertex(graph, "Choose target vertex:");
+        if (targetVertex == null) {
+            return false;
+        }
+
+        startNanoTime = System.nanoTime();
+
+        if (compiledGraph == null) {
+            compiledGraph = new CompiledGraph(graphContext);
+        }
+
+        if (searchSpace == null) {
+            searchSpace = new SearchSpace(compiledGraph);
+        } else {
+            searchSpace.reset();
+        }
+
+        int startIndex = compiledGraph.getVertexIndex(startVertex);
+        targetIndex = compiledGraph.getVertexIndex(targetVertex);
+
+        searchSpace.setLabel(startIndex, 0, -1);
+        searchSpace.getQueue().insert(startIndex, getLowerBoundToTarget(startIndex));
+
+        metaInfoRepository.putMetaInfo(startVertex, new DefaultSppVertexInfo(null, 0));
+
+        if (algorithmSettings.isVerbose()) {
+            algorithmOutput.printHeader("Legend");
+            algorithmOutput.println();
+            algorithmOutput.println("Vbar", "Vertex settled in the current step");
+            algorithmOutput.println();
+        }
+
+        return true;
+    }
+
+    @Override
+    protected AlgorithmStepOutcome doRunStep() throws AlgorithmException {
+        GraphContext graphContext = getGraphContext();
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+        CommonAlgorithmSettings algorithmSettings = getAlgorithmSettings();
+
+        MetaInfoRepository metaInfoRepository = graphContext.getMetaInfoRepository();
+
+        if (algorithmSettings.isVerbose()) {
+            algorithmOutput.printHeader("Step " + getCurrentStep());
+        }
+
+        IndexedMinPriorityQueue queue = searchSpace.getQueue();
+
+        if (queue.isEmpty()) {
+            throw new AlgorithmException("The target vertex cannot be reached from the start vertex");
+        }
+
+        int vBarIndex = queue.poll();
+        Vertex vBar = compiledGraph.getVertex(vBarIndex);
+
+        searchSpace.settle(vBarIndex);
+        settledVertexCount++;
+
+        if (algorithmSettings.isVerbose()) {
+            algorithmOutput.println();
+            algorithmOutput.println("Vbar", metaInfoRepository.getMetaInfo(vBar, NameInfo.class).getName());
+            algorithmOutput.println("Distance from the start vertex", searchSpace.getPathLength(vBarIndex));
+            algorithmOutput.println();
+        }
+
+        if (vBarIndex == targetIndex) {
+            buildPath();
+            elapsedNanoTime = System.nanoTime() - startNanoTime;
+            return AlgorithmStepOutcome.FINISH;
+        }
+
+        double vBarPathLength = searchSpace.getPathLength(vBarIndex);
+
+        for (int arc = compiledGraph.getExitingArcsStart(vBarIndex); arc < compiledGraph.getExitingArcsEnd(vBarIndex); arc++) {
+            int tailIndex = compiledGraph.getArcTail(arc);
+
+            if (searchSpace.isSettled(tailIndex)) {
+                continue;
+            }
+
+            double tailPathLengthFromStart = vBarPathLength + compiledGraph.getArcWeight(arc);
+
+            if (tailPathLengthFromStart < searchSpace.getPathLength(tailIndex)) {
+                searchSpace.setLabel(tailIndex, tailPathLengthFromStart, arc);
+                queue.insertOrDecrease(tailIndex, tailPathLengthFromStart + getLowerBoundToTarget(tailIndex));
+
+                metaInfoRepository.putMetaInfo(compiledGraph.getVertex(tailIndex), new DefaultSppVertexInfo(vBar, tailPathLengthFromStart));
+            }
+        }
+
+        return AlgorithmStepOutcome.CONTINUE;
+    }
+
+    /**
+     * Returns a lower bound of the distance between the given vertex and the
+     * target vertex, added to the path length of the vertex to obtain its key
+     * in the queue; it must be consistent, as settled vertexes are never
+     * reopened.
+     * <p>
+     * The default implementation returns 0, for a plain Dijkstra search.
+     */
+    protected double getLowerBoundToTarget(int vertexIndex) {
+        return 0;
+    }
+
+    private void buildPath() {
+        LinkedList<Vertex> reversedVertexes = new LinkedList<>();
+        LinkedList<Link> reversedLinks = new LinkedList<>();
+
+        int vertexIndex = targetIndex;
+        reversedVertexes.addFirst(compiledGraph.getVertex(vertexIndex));
+
+        while (searchSpace.getArc(vertexIndex) >= 0) {
+            int arc = searchSpace.getArc(vertexIndex);
+
+            reversedLinks.addFirst(compiledGraph.getArcLink(arc));
+
+            vertexIndex = compiledGraph.getArcHead(arc);
+            reversedVertexes.addFirst(compiledGraph.getVertex(vertexIndex));
+        }
+
+        pathVertexes.addAll(reversedVertexes);
+        pathLinks.addAll(reversedLinks);
+
+        //The search space may serve other queries later
+        pathLength = searchSpace.getPathLength(targetIndex);
+    }
+
+    @Override
+    protected void doFinish() throws AlgorithmException {
+        AlgorithmOutput algorithmOutput = getAlgorithmOutput();
+
+        algorithmOutput.println("The vertexes of the shortest path are: " + vertexesToNameBasedVertexWrappersConverter.convert(pathVertexes));
+        algorithmOutput.println("The arcs of the shortest path are: " + linksToNameBasedArcWrappersConverter.convert(pathLinks));
+        algorithmOutput.println("The length of the shortest path is: " + getPathLength());
+        algorithmOutput.println("Settled vertexes: " + settledVertexCount);
+        algorithmOutput.println(String.format("Query time: %.3f ms", elapsedNanoTime / 1e6));
+    }
+
+    protected CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    protected SearchSpace getSearchSpace() {
+        return searchSpace;
+    }
+
+    public Vertex getStartVertex() {
+        return startVertex;
+    }
+
+    public Vertex getTargetVertex() {
+        return targetVertex;
+    }
+
+    /**
+     * @return the length of the shortest path to the target vertex, or
+     * positive infinity if the target has not been settled yet
+     */
+    public double getPathLength() {
+        return pathLength;
+    }
+
+    public int getSettledVertexCount() {
+        return settledVertexCount;
+    }
+
+    /**
+     * @return the wall time elapsed between the initialization and the
+     * settlement of the target vertex, including the compilation of the graph
+     * if it was not passed to the constructor
+     */
+    public long getElapsedNanoTime() {
+        return elapsedNanoTime;
+    }
+
+    /**
+     * @return the vertexes of the shortest path, from the start vertex to the
+     * target vertex; empty until the target vertex is settled
+     */
+    public Collection<Vertex> getPathVertexes() {
+        return Collections.unmodifiableCollection(pathVertexes);
+    }
+
+    /**
+     * @return the arcs of the shortest path, from the start vertex to the
+     * target vertex; empty until the target vertex is settled
+     */
+    public Collection<Link> getPathLinks() {
+        return Collections.unmodifiableCollection(pathLinks);
+    }
+
+}
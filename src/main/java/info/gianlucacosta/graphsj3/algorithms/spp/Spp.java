@@ -34,30 +34,71 @@ import info.gianlucacosta.arcontes.graphs.conversions.vertexconverters.VertexesT
 import info.gianlucacosta.arcontes.graphs.metainfo.NameInfo;
 import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
 import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.SppVertexInfo;
-import info.gianlucacosta.helios.collections.general.CollectionItems;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.BreadthFirstSearch;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
 import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * SPP algorithm
+ * <p>
+ * When all the arcs have the same positive weight, the order in which the
+ * vertexes are added to the path is computed at init by a
+ * {@link BreadthFirstSearch}, so that each step no longer scans all the
+ * vertexes to find Vbar; the labels are the same. On large graphs, that
+ * search runs on the pool passed to the constructor, if any.
  */
 public class Spp extends CommonAlgorithm {
 
+    private static final int PARALLEL_BREADTH_FIRST_SEARCH_THRESHOLD = 1 << 16;
+
     private final List<Vertex> pathVertexes;
     private final List<Link> pathLinks;
     private final VertexesToNameBasedVertexWrappersConverter vertexesToNameBasedVertexWrappersConverter;
     private final LinksToNameBasedArcWrappersConverter linksToNameBasedArcWrappersConverter;
     private final OrientedGraphAnalyzer graphAnalyzer;
-    private List<Vertex> vList;
+    private final boolean writingLabels;
+    private final ForkJoinPool forkJoinPool;
+    private CompiledGraph compiledGraph;
+    private boolean[] settled;
+    private double[] pathLengths;
+    private int[] previousArcs;
+    private BreadthFirstSearch breadthFirstSearch;
+    private int startIndex;
     private Vertex vBar;
 
     public Spp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput) {
+        this(graphContext, algorithmSettings, algorithmInput, algorithmOutput, true);
+    }
+
+    /**
+     * @param writingLabels if false, the SppVertexInfo labels are not written
+     *                      into the metainfo repository during the run, and
+     *                      each step allocates nothing: the labels are only
+     *                      created on demand by {@link #getSppVertexInfo(Vertex)}
+     */
+    public Spp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput, boolean writingLabels) {
+        this(graphContext, algorithmSettings, algorithmInput, algorithmOutput, writingLabels, null);
+    }
+
+    /**
+     * @param forkJoinPool the pool running the breadth-first search on graphs
+     *                     having uniform weights and at least 65536 vertexes,
+     *                     or null to always run it sequentially; it is never
+     *                     shut down by the algorithm
+     */
+    public Spp(GraphContext graphContext, CommonAlgorithmSettings algorithmSettings, AlgorithmInput algorithmInput, AlgorithmOutput algorithmOutput, boolean writingLabels, ForkJoinPool forkJoinPool) {
         super(graphContext, algorithmSettings, algorithmInput, algorithmOutput);
 
+        this.writingLabels = writingLabels;
+        this.forkJoinPool = forkJoinPool;
+
         vertexesToNameBasedVertexWrappersConverter = new VertexesToNameBasedVertexWrappersConverter(graphContext.getMetaInfoRepository());
         linksToNameBasedArcWrappersConverter = new LinksToNameBasedArcWrappersConverter(graphContext.getMetaInfoRepository());
 
@@ -81,21 +122,48 @@ public class Spp extends CommonAlgorithm {
         Graph graph = graphContext.getGraph();
         MetaInfoRepository metaInfoRepository = graphContext.getMetaInfoRepository();
 
-        vList = new ArrayList<>(graph.getVertexes());
+        //The arcs are compiled once, so that each step only visits the arcs exiting from Vbar
+        compiledGraph = new CompiledGraph(graphContext);
+
+        int vertexCount = compiledGraph.getVertexCount();
+
+        //Path lengths and previous arcs live in arrays; the labels only mirror them
+        settled = new boolean[vertexCount];
+        pathLengths = new double[vertexCount];
+        previousArcs = new int[vertexCount];
 
         Vertex startVertex = algorithmInput.askForVertex(graph, "Choose start vertex:");
         if (startVertex == null) {
             return false;
         }
 
+        startIndex = compiledGraph.getVertexIndex(startVertex);
+
         pathVertexes.add(startVertex);
-        vList.remove(startVertex);
+        settled[startIndex] = true;
 
         //Initializing the vertex labels
-        metaInfoRepository.putMetaInfo(startVertex, new DefaultSppVertexInfo(null, 0));
+        Arrays.fill(pathLengths, Double.POSITIVE_INFINITY);
+        Arrays.fill(previousArcs, -1);
+        pathLengths[startIndex] = 0;
+
+        if (BreadthFirstSearch.hasUniformWeights(compiledGraph)) {
+            runBreadthFirstSearch();
+        } else {
+            breadthFirstSearch = null;
+        }
+
+        for (int arc = compiledGraph.getExitingArcsStart(startIndex); arc < compiledGraph.getExitingArcsEnd(startIndex); arc++) {
+            int vertexIndex = compiledGraph.getArcTail(arc);
 
-        for (Vertex vertex : vList) {
-            metaInfoRepository.putMetaInfo(vertex, new DefaultSppVertexInfo(startVertex, graphAnalyzer.getMinWeightBetween(startVertex, vertex)));
+            pathLengths[vertexIndex] = compiledGraph.getArcWeight(arc);
+            previousArcs[vertexIndex] = arc;
+        }
+
+        if (writingLabels) {
+            for (Vertex vertex : compiledGraph.getVertexes()) {
+                metaInfoRepository.putMetaInfo(vertex, getSppVertexInfo(vertex));
+            }
         }
 
         if (algorithmSettings.isVerbose()) {
@@ -114,6 +182,17 @@ public class Spp extends CommonAlgorithm {
         return true;
     }
 
+    private void runBreadthFirstSearch() {
+        ForkJoinPool searchForkJoinPool = null;
+
+        if (compiledGraph.getVertexCount() >= PARALLEL_BREADTH_FIRST_SEARCH_THRESHOLD) {
+            searchForkJoinPool = forkJoinPool;
+        }
+
+        breadthFirstSearch = new BreadthFirstSearch(compiledGraph, searchForkJoinPool);
+        breadthFirstSearch.search(startIndex);
+    }
+
     @Override
     protected AlgorithmStepOutcome doRunStep() throws AlgorithmException {
         GraphContext graphContext = getGraphContext();
@@ -127,48 +206,64 @@ public class Spp extends CommonAlgorithm {
         }
 
         if (getCurrentStep() > 1) {
-            SppVertexInfo vBarVertexInfo = metaInfoRepository.getMetaInfo(vBar, SppVertexInfo.class);
+            int vBarIndex = compiledGraph.getVertexIndex(vBar);
+            double vBarPathLength = pathLengths[vBarIndex];
+
+            for (int arc = compiledGraph.getExitingArcsStart(vBarIndex); arc < compiledGraph.getExitingArcsEnd(vBarIndex); arc++) {
+                int vertexIndex = compiledGraph.getArcTail(arc);
 
-            for (Vertex vertex : vList) {
-                SppVertexInfo currentVertexInfo = metaInfoRepository.getMetaInfo(vertex, SppVertexInfo.class);
+                if (settled[vertexIndex]) {
+                    continue;
+                }
 
-                double vertexPathLengthFromStart = vBarVertexInfo.getPathLength() + graphAnalyzer.getMinWeightBetween(vBar, vertex);
+                double vertexPathLengthFromStart = vBarPathLength + compiledGraph.getArcWeight(arc);
 
-                if (vertexPathLengthFromStart < currentVertexInfo.getPathLength()) {
-                    metaInfoRepository.putMetaInfo(vertex, new DefaultSppVertexInfo(vBar, vertexPathLengthFromStart));
+                if (vertexPathLengthFromStart < pathLengths[vertexIndex]) {
+                    pathLengths[vertexIndex] = vertexPathLengthFromStart;
+                    previousArcs[vertexIndex] = arc;
+
+                    if (writingLabels) {
+                        metaInfoRepository.putMetaInfo(compiledGraph.getVertex(vertexIndex), new DefaultSppVertexInfo(vBar, vertexPathLengthFromStart));
+                    }
                 }
             }
         }
 
-        double minPathLength = Double.POSITIVE_INFINITY;
-
-        //Finding out the "vBar" vertex...
-        for (Vertex vertex : vList) {
-            SppVertexInfo currentVertexInfo = metaInfoRepository.getMetaInfo(vertex, SppVertexInfo.class);
+        int vBarIndex = -1;
 
-            if (currentVertexInfo.getPathLength() < minPathLength) {
-                vBar = vertex;
-                minPathLength = currentVertexInfo.getPathLength();
+        if (breadthFirstSearch != null) {
+            //With uniform weights, the vertexes are added by level and, within each level, in graph order
+            if (pathVertexes.size() < breadthFirstSearch.getReachedVertexCount()) {
+                vBarIndex = breadthFirstSearch.getReachedVertex(pathVertexes.size());
+            }
+        } else {
+            double minPathLength = Double.POSITIVE_INFINITY;
+
+            //Finding out the "vBar" vertex, scanning the unsettled vertexes in graph order...
+            for (int vertexIndex = 0; vertexIndex < pathLengths.length; vertexIndex++) {
+                if (!settled[vertexIndex] && pathLengths[vertexIndex] < minPathLength) {
+                    vBarIndex = vertexIndex;
+                    minPathLength = pathLengths[vertexIndex];
+                }
             }
         }
 
-        if (vBar == null) {
+        if (vBarIndex < 0) {
             throw new AlgorithmException("Cannot determine Vbar. Algorithm error");
         }
 
         //Updating the sets...
+        vBar = compiledGraph.getVertex(vBarIndex);
         pathVertexes.add(vBar);
-        vList.remove(vBar);
-
-        SppVertexInfo vBarVertexInfo = metaInfoRepository.getMetaInfo(vBar, SppVertexInfo.class);
+        settled[vBarIndex] = true;
 
-        Link arcToAdd = CollectionItems.getFirst(graphAnalyzer.getArcsWithMinWeightBetween(vBarVertexInfo.getPreviousVertex(), vBar));
+        int arcToAdd = previousArcs[vBarIndex];
 
-        if (arcToAdd == null) {
+        if (arcToAdd < 0) {
             throw new AlgorithmException("Cannot determine the arc to add");
         }
 
-        pathLinks.add(arcToAdd);
+        pathLinks.add(compiledGraph.getArcLink(arcToAdd));
 
         if (algorithmSettings.isVerbose()) {
             algorithmOutput.println();
@@ -180,7 +275,7 @@ public class Spp extends CommonAlgorithm {
             algorithmOutput.println();
         }
 
-        if (vList.isEmpty()) {
+        if (pathVertexes.size() == pathLengths.length) {
             return AlgorithmStepOutcome.FINISH;
         }
 
@@ -202,4 +297,64 @@ public class Spp extends CommonAlgorithm {
         return Collections.unmodifiableCollection(pathLinks);
     }
 
+    public boolean isWritingLabels() {
+        return writingLabels;
+    }
+
+    /**
+     * @return true if the arcs have uniform weights, so that the order of
+     * the path vertexes was computed by a breadth-first search
+     */
+    public boolean isUsingBreadthFirstSearch() {
+        return breadthFirstSearch != null;
+    }
+
+    /**
+     * @return the current label of the given vertex, created on demand from
+     * the path lengths and the previous arcs; it equals the label written
+     * into the metainfo repository, when labels are written
+     */
+    public SppVertexInfo getSppVertexInfo(Vertex vertex) {
+        if (compiledGraph == null) {
+            throw new IllegalStateException("The algorithm has not been initialized");
+        }
+
+        int vertexIndex = compiledGraph.getVertexIndex(vertex);
+        int previousArc = previousArcs[vertexIndex];
+
+        Vertex previousVertex;
+
+        if (previousArc >= 0) {
+            previousVertex = compiledGraph.getVertex(compiledGraph.getArcHead(previousArc));
+        } else if (vertexIndex != startIndex) {
+            //The vertexes not reached yet point to the start vertex, as in the initial labels
+            previousVertex = compiledGraph.getVertex(startIndex);
+        } else {
+            previousVertex = null;
+        }
+
+        return new DefaultSppVertexInfo(previousVertex, pathLengths[vertexIndex]);
+    }
+
+    /**
+     * Walks the previous arcs back from the given vertex, without querying
+     * the graph.
+     *
+     * @return the links of the shortest path from the start vertex to the
+     * given vertex, which must have already been added to the path vertexes
+     */
+    public List<Link> getPathTo(Vertex vertex) {
+        if (compiledGraph == null) {
+            throw new IllegalStateException("The algorithm has not been initialized");
+        }
+
+        int vertexIndex = compiledGraph.getVertexIndex(vertex);
+
+        if (!settled[vertexIndex]) {
+            throw new IllegalStateException("The shortest path to the vertex has not been determined yet");
+        }
+
+        return compiledGraph.getPathLinks(previousArcs, vertexIndex);
+    }
+
 }
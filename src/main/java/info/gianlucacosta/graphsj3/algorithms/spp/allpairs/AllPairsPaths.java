@@ -0,0 +1,152 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.allpairs;
+
+import info.gianlucacosta.arcontes.graphs.Link;
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.SppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Distances and shortest paths between all the pairs of vertexes of a
+ * CompiledGraph.
+ * <p>
+ * For each source vertex, the previous arcs form a shortest path tree: the
+ * previous arc of a vertex is the last arc of its shortest path from the
+ * source.
+ */
+public class AllPairsPaths {
+
+    private final CompiledGraph compiledGraph;
+    private final DistanceMatrix distanceMatrix;
+    private final int[] previousArcs;
+
+    /**
+     * @param previousArcs the row-major previous arcs, -1 for the source and
+     *                     for the unreachable vertexes; the array is not
+     *                     copied
+     */
+    public AllPairsPaths(CompiledGraph compiledGraph, DistanceMatrix distanceMatrix, int[] previousArcs) {
+        int vertexCount = compiledGraph.getVertexCount();
+
+        if (distanceMatrix.getRowCount() != vertexCount || distanceMatrix.getColumnCount() != vertexCount || previousArcs.length != (long) vertexCount * vertexCount) {
+            throw new IllegalArgumentException("The matrixes do not match the vertexes of the graph");
+        }
+
+        this.compiledGraph = compiledGraph;
+        this.distanceMatrix = distanceMatrix;
+        this.previousArcs = previousArcs;
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    public DistanceMatrix getDistanceMatrix() {
+        return distanceMatrix;
+    }
+
+    public double getDistance(Vertex sourceVertex, Vertex targetVertex) {
+        return distanceMatrix.getDistance(sourceVertex, targetVertex);
+    }
+
+    /**
+     * @return the last arc of the shortest path between the given vertexes, or
+     * -1 if they are the same vertex or the target cannot be reached
+     */
+    public int getPreviousArc(int sourceIndex, int targetIndex) {
+        return previousArcs[sourceIndex * compiledGraph.getVertexCount() + targetIndex];
+    }
+
+    /**
+     * @return the label that Spp would assign to the given vertex when started
+     * from the given source vertex; the previous vertex is null if the vertex
+     * cannot be reached, whereas Spp points it to the source
+     */
+    public SppVertexInfo getSppVertexInfo(Vertex sourceVertex, Vertex vertex) {
+        int sourceIndex = compiledGraph.getVertexIndex(sourceVertex);
+        int vertexIndex = compiledGraph.getVertexIndex(vertex);
+
+        int previousArc = getPreviousArc(sourceIndex, vertexIndex);
+        Vertex previousVertex = (previousArc >= 0) ? compiledGraph.getVertex(compiledGraph.getArcHead(previousArc)) : null;
+
+        return new DefaultSppVertexInfo(previousVertex, distanceMatrix.getDistance(sourceIndex, vertexIndex));
+    }
+
+    /**
+     * @return the links of the shortest path between the given vertexes; the
+     * list is empty if they are the same vertex or if the target cannot be
+     * reached
+     */
+    public List<Link> getPathLinks(Vertex sourceVertex, Vertex targetVertex) {
+        int sourceIndex = compiledGraph.getVertexIndex(sourceVertex);
+        int vertexIndex = compiledGraph.getVertexIndex(targetVertex);
+
+        LinkedList<Link> result = new LinkedList<>();
+
+        while (vertexIndex != sourceIndex) {
+            int previousArc = getPreviousArc(sourceIndex, vertexIndex);
+
+            if (previousArc < 0) {
+                result.clear();
+                break;
+            }
+
+            result.addFirst(compiledGraph.getArcLink(previousArc));
+            vertexIndex = compiledGraph.getArcHead(previousArc);
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the vertexes of the shortest path between the given vertexes;
+     * the list is empty if the target cannot be reached
+     */
+    public List<Vertex> getPathVertexes(Vertex sourceVertex, Vertex targetVertex) {
+        int sourceIndex = compiledGraph.getVertexIndex(sourceVertex);
+        int vertexIndex = compiledGraph.getVertexIndex(targetVertex);
+
+        LinkedList<Vertex> result = new LinkedList<>();
+        result.add(targetVertex);
+
+        while (vertexIndex != sourceIndex) {
+            int previousArc = getPreviousArc(sourceIndex, vertexIndex);
+
+            if (previousArc < 0) {
+                result.clear();
+                break;
+            }
+
+            vertexIndex = compiledGraph.getArcHead(previousArc);
+            result.addFirst(compiledGraph.getVertex(vertexIndex));
+        }
+
+        return result;
+    }
+
+}
@@ -0,0 +1,238 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.allpairs;
+
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.IndexRangeTask;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Cache-blocked Floyd-Warshall algorithm, meant for dense graphs.
+ * <p>
+ * The distances and the previous arcs are kept in flat row-major arrays,
+ * split into square blocks. For each block along the diagonal, the diagonal
+ * block is updated first; then the blocks in its row and in its column, in
+ * parallel; finally all the other blocks, in parallel. Every block update
+ * only reads the blocks in the same row and column of the current pivot
+ * block, so it works on a small set of cache-resident tiles.
+ * <p>
+ * Arc weights can be negative, as long as there are no negative cycles.
+ * When some arcs are not positive, equal distances are compared by their
+ * number of arcs, so that zero-weight cycles cannot make the previous arcs
+ * circular.
+ */
+public class BlockedFloydWarshall {
+
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+
+    private final CompiledGraph compiledGraph;
+    private final int parallelism;
+    private final int blockSize;
+    private final int vertexCount;
+    private final int blockCount;
+    private double[] distances;
+    private int[] previousArcs;
+    private int[] arcCounts;
+
+    public BlockedFloydWarshall(CompiledGraph compiledGraph) {
+        this(compiledGraph, Runtime.getRuntime().availableProcessors(), DEFAULT_BLOCK_SIZE);
+    }
+
+    public BlockedFloydWarshall(CompiledGraph compiledGraph, int parallelism, int blockSize) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be at least 1");
+        }
+
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("The block size must be at least 1");
+        }
+
+        this.compiledGraph = compiledGraph;
+        this.parallelism = parallelism;
+        this.blockSize = blockSize;
+
+        vertexCount = compiledGraph.getVertexCount();
+        blockCount = (vertexCount + blockSize - 1) / blockSize;
+    }
+
+    /**
+     * @return the shortest paths between all the pairs of vertexes
+     * @throws IllegalArgumentException if the graph contains a negative cycle
+     */
+    public AllPairsPaths search() {
+        if (!compiledGraph.getNegativeLoopLinks().isEmpty()) {
+            throw new IllegalArgumentException("The graph contains a negative cycle");
+        }
+
+        int size = DistanceMatrix.getCheckedSize(vertexCount, vertexCount);
+
+        distances = new double[size];
+        previousArcs = new int[size];
+
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(previousArcs, -1);
+
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            distances[vertexIndex * vertexCount + vertexIndex] = 0;
+        }
+
+        boolean positiveArcs = true;
+
+        for (int arc = 0; arc < compiledGraph.getArcCount(); arc++) {
+            int position = compiledGraph.getArcHead(arc) * vertexCount + compiledGraph.getArcTail(arc);
+
+            distances[position] = compiledGraph.getArcWeight(arc);
+            previousArcs[position] = arc;
+
+            if (distances[position] <= 0) {
+                positiveArcs = false;
+            }
+        }
+
+        if (!positiveArcs) {
+            arcCounts = new int[size];
+
+            for (int arc = 0; arc < compiledGraph.getArcCount(); arc++) {
+                arcCounts[compiledGraph.getArcHead(arc) * vertexCount + compiledGraph.getArcTail(arc)] = 1;
+            }
+        }
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+
+        try {
+            for (int pivot = 0; pivot < blockCount; pivot++) {
+                final int pivotBlock = pivot;
+
+                updateBlock(pivotBlock, pivotBlock, pivotBlock);
+
+                if (blockCount > 1) {
+                    //The blocks in the row and in the column of the pivot block
+                    forkJoinPool.invoke(new IndexRangeTask(0, blockCount, new IndexRangeTask.Body() {
+                        @Override
+                        public void run(int block) {
+                            if (block != pivotBlock) {
+                                updateBlock(pivotBlock, block, pivotBlock);
+                                updateBlock(block, pivotBlock, pivotBlock);
+                            }
+                        }
+
+                    }));
+
+                    //The remaining blocks, by row-major position
+                    forkJoinPool.invoke(new IndexRangeTask(0, blockCount * blockCount, new IndexRangeTask.Body() {
+                        @Override
+                        public void run(int blockPosition) {
+                            int rowBlock = blockPosition / blockCount;
+                            int columnBlock = blockPosition % blockCount;
+
+                            if (rowBlock != pivotBlock && columnBlock != pivotBlock) {
+                                updateBlock(rowBlock, columnBlock, pivotBlock);
+                            }
+                        }
+
+                    }));
+                }
+            }
+        } finally {
+            forkJoinPool.shutdown();
+        }
+
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            if (distances[vertexIndex * vertexCount + vertexIndex] < 0) {
+                throw new IllegalArgumentException("The graph contains a negative cycle");
+            }
+        }
+
+        AllPairsPaths result = new AllPairsPaths(
+                compiledGraph,
+                new DistanceMatrix(compiledGraph.getVertexes(), compiledGraph.getVertexes(), distances),
+                previousArcs);
+
+        distances = null;
+        previousArcs = null;
+        arcCounts = null;
+
+        return result;
+    }
+
+    /**
+     * Relaxes the paths from the vertexes of the row block to the vertexes of
+     * the column block through the vertexes of the pivot block
+     */
+    private void updateBlock(int rowBlock, int columnBlock, int pivotBlock) {
+        int rowStart = rowBlock * blockSize;
+        int rowEnd = Math.min(rowStart + blockSize, vertexCount);
+        int columnStart = columnBlock * blockSize;
+        int columnEnd = Math.min(columnStart + blockSize, vertexCount);
+        int pivotStart = pivotBlock * blockSize;
+        int pivotEnd = Math.min(pivotStart + blockSize, vertexCount);
+
+        for (int pivot = pivotStart; pivot < pivotEnd; pivot++) {
+            int pivotOffset = pivot * vertexCount;
+
+            for (int row = rowStart; row < rowEnd; row++) {
+                int rowOffset = row * vertexCount;
+                double rowToPivot = distances[rowOffset + pivot];
+
+                if (rowToPivot == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+
+                if (arcCounts == null) {
+                    for (int column = columnStart; column < columnEnd; column++) {
+                        double pathLength = rowToPivot + distances[pivotOffset + column];
+
+                        if (pathLength < distances[rowOffset + column]) {
+                            distances[rowOffset + column] = pathLength;
+                            previousArcs[rowOffset + column] = previousArcs[pivotOffset + column];
+                        }
+                    }
+                } else {
+                    int rowToPivotArcCount = arcCounts[rowOffset + pivot];
+
+                    for (int column = columnStart; column < columnEnd; column++) {
+                        double pathLength = rowToPivot + distances[pivotOffset + column];
+                        double currentPathLength = distances[rowOffset + column];
+
+                        if (pathLength < currentPathLength || (pathLength == currentPathLength && pathLength != Double.POSITIVE_INFINITY && rowToPivotArcCount + arcCounts[pivotOffset + column] < arcCounts[rowOffset + column])) {
+                            distances[rowOffset + column] = pathLength;
+                            previousArcs[rowOffset + column] = previousArcs[pivotOffset + column];
+                            arcCounts[rowOffset + column] = rowToPivotArcCount + arcCounts[pivotOffset + column];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+}
@@ -0,0 +1,146 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.allpairs;
+
+import info.gianlucacosta.arcontes.graphs.Vertex;
+
+import java.util.*;
+
+/**
+ * Distances between a list of row vertexes and a list of column vertexes,
+ * stored row by row in a single double array.
+ * <p>
+ * Unreachable pairs have positive infinity as their distance.
+ */
+public class DistanceMatrix {
+
+    private final List<Vertex> rowVertexes;
+    private final List<Vertex> columnVertexes;
+    private final Map<Vertex, Integer> rowIndexes;
+    private final Map<Vertex, Integer> columnIndexes;
+    private final double[] distances;
+
+    /**
+     * @param distances the row-major distances, which are not copied
+     */
+    public DistanceMatrix(List<Vertex> rowVertexes, List<Vertex> columnVertexes, double[] distances) {
+        if (distances.length != (long) rowVertexes.size() * columnVertexes.size()) {
+            throw new IllegalArgumentException("The distances do not match the size of the matrix");
+        }
+
+        this.rowVertexes = Collections.unmodifiableList(new ArrayList<>(rowVertexes));
+        this.columnVertexes = Collections.unmodifiableList(new ArrayList<>(columnVertexes));
+        this.distances = distances;
+
+        rowIndexes = createIndexes(this.rowVertexes);
+        columnIndexes = createIndexes(this.columnVertexes);
+    }
+
+    private static Map<Vertex, Integer> createIndexes(List<Vertex> vertexes) {
+        Map<Vertex, Integer> result = new HashMap<>(vertexes.size() * 2);
+
+        for (int index = 0; index < vertexes.size(); index++) {
+            result.put(vertexes.get(index), index);
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks that the size of a row-major matrix can be addressed by a single
+     * array.
+     *
+     * @return the size of the matrix
+     */
+    public static int getCheckedSize(int rowCount, int columnCount) {
+        long size = (long) rowCount * columnCount;
+
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(String.format("A %d x %d matrix is too large", rowCount, columnCount));
+        }
+
+        return (int) size;
+    }
+
+    public int getRowCount() {
+        return rowVertexes.size();
+    }
+
+    public int getColumnCount() {
+        return columnVertexes.size();
+    }
+
+    public List<Vertex> getRowVertexes() {
+        return rowVertexes;
+    }
+
+    public List<Vertex> getColumnVertexes() {
+        return columnVertexes;
+    }
+
+    public int getRowIndex(Vertex vertex) {
+        Integer result = rowIndexes.get(vertex);
+
+        if (result == null) {
+            throw new IllegalArgumentException("The vertex is not a row of the matrix");
+        }
+
+        return result;
+    }
+
+    public int getColumnIndex(Vertex vertex) {
+        Integer result = columnIndexes.get(vertex);
+
+        if (result == null) {
+            throw new IllegalArgumentException("The vertex is not a column of the matrix");
+        }
+
+        return result;
+    }
+
+    public double getDistance(int row, int column) {
+        return distances[row * columnVertexes.size() + column];
+    }
+
+    public double getDistance(Vertex rowVertex, Vertex columnVertex) {
+        return getDistance(getRowIndex(rowVertex), getColumnIndex(columnVertex));
+    }
+
+    /**
+     * Copies the given row into the destination array, starting from the given
+     * offset.
+     */
+    public void copyRow(int row, double[] destination, int offset) {
+        int columnCount = columnVertexes.size();
+
+        System.arraycopy(distances, row * columnCount, destination, offset, columnCount);
+    }
+
+    /**
+     * @return a copy of the row-major distances
+     */
+    public double[] toArray() {
+        return distances.clone();
+    }
+
+}
@@ -0,0 +1,166 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.allpairs;
+
+import info.gianlucacosta.graphsj3.algorithms.spp.NegativeCycleException;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.BellmanFordSearch;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.IndexRangeTask;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.ShortestPathSearch;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Johnson's all-pairs algorithm, supporting negative arc weights.
+ * <p>
+ * A queue-based Bellman-Ford search, from a virtual vertex connected to all the others
+ * by zero-weight arcs, computes a potential for each vertex; the reduced
+ * cost of each arc - its weight plus the potential of its head minus the
+ * potential of its tail - is then non-negative, and shortest paths do not
+ * change. A Dijkstra search on the reduced costs is run from every source
+ * vertex on a work-stealing pool, and the distances are computed by adding
+ * the original weights along the resulting shortest path trees.
+ * <p>
+ * If the graph contains a negative cycle, it is reported instead.
+ */
+public class JohnsonAllPairsSearch {
+
+    private final CompiledGraph compiledGraph;
+    private final int parallelism;
+    private final int vertexCount;
+
+    public JohnsonAllPairsSearch(CompiledGraph compiledGraph) {
+        this(compiledGraph, Runtime.getRuntime().availableProcessors());
+    }
+
+    public JohnsonAllPairsSearch(CompiledGraph compiledGraph, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be at least 1");
+        }
+
+        this.compiledGraph = compiledGraph;
+        this.parallelism = parallelism;
+
+        vertexCount = compiledGraph.getVertexCount();
+    }
+
+    /**
+     * @return the shortest paths between all the pairs of vertexes
+     * @throws NegativeCycleException if the graph contains a negative cycle
+     */
+    public AllPairsPaths search() throws NegativeCycleException {
+        double[] potentials = computePotentials();
+
+        final double[] reducedCosts = new double[compiledGraph.getArcCount()];
+        for (int arc = 0; arc < reducedCosts.length; arc++) {
+            double reducedCost = compiledGraph.getArcWeight(arc) + potentials[compiledGraph.getArcHead(arc)] - potentials[compiledGraph.getArcTail(arc)];
+
+            //Rounding errors must not produce negative costs
+            reducedCosts[arc] = Math.max(0, reducedCost);
+        }
+
+        int size = DistanceMatrix.getCheckedSize(vertexCount, vertexCount);
+
+        final double[] distances = new double[size];
+        final int[] previousArcs = new int[size];
+
+        final ThreadLocal<ShortestPathSearch> searches = new ThreadLocal<ShortestPathSearch>() {
+            @Override
+            protected ShortestPathSearch initialValue() {
+                return new ShortestPathSearch(compiledGraph, reducedCosts);
+            }
+
+        };
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+
+        try {
+            forkJoinPool.invoke(new IndexRangeTask(0, vertexCount, new IndexRangeTask.Body() {
+                @Override
+                public void run(int sourceIndex) {
+                    searchRow(searches.get(), sourceIndex, distances, previousArcs);
+                }
+
+            }));
+        } finally {
+            forkJoinPool.shutdown();
+        }
+
+        return new AllPairsPaths(
+                compiledGraph,
+                new DistanceMatrix(compiledGraph.getVertexes(), compiledGraph.getVertexes(), distances),
+                previousArcs);
+    }
+
+    /**
+     * Bellman-Ford search from the virtual vertex: every vertex starts at
+     * distance 0, as if it were reached by a zero-weight arc
+     */
+    private double[] computePotentials() throws NegativeCycleException {
+        BellmanFordSearch search = new BellmanFordSearch(compiledGraph);
+
+        if (!search.searchFromAllVertexes()) {
+            throw new NegativeCycleException(search.getNegativeCycleLinks(), search.getNegativeCycleWeight());
+        }
+
+        double[] potentials = new double[vertexCount];
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            potentials[vertexIndex] = search.getPathLength(vertexIndex);
+        }
+
+        return potentials;
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Fills the row of the given source vertex
+     */
+    private void searchRow(ShortestPathSearch search, int sourceIndex, double[] distances, int[] previousArcs) {
+        search.searchForward(sourceIndex);
+
+        int rowOffset = sourceIndex * vertexCount;
+
+        Arrays.fill(distances, rowOffset, rowOffset + vertexCount, Double.POSITIVE_INFINITY);
+        Arrays.fill(previousArcs, rowOffset, rowOffset + vertexCount, -1);
+
+        //Vertexes are settled after their previous vertex
+        distances[rowOffset + sourceIndex] = 0;
+
+        for (int position = 1; position < search.getSettledVertexCount(); position++) {
+            int vertexIndex = search.getSettledVertex(position);
+            int arc = search.getPreviousArc(vertexIndex);
+
+            distances[rowOffset + vertexIndex] = distances[rowOffset + compiledGraph.getArcHead(arc)] + compiledGraph.getArcWeight(arc);
+            previousArcs[rowOffset + vertexIndex] = arc;
+        }
+    }
+
+}
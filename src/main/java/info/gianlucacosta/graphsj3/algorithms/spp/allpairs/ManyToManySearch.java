@@ -0,0 +1,293 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.allpairs;
+
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.graphsj3.algorithms.spp.hierarchies.ContractionHierarchy;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.IndexRangeTask;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.IndexedMinPriorityQueue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Computes the distances from many source vertexes to many target vertexes
+ * over a ContractionHierarchy, with the bucket-based technique of Knopp et
+ * al.
+ * <p>
+ * First, an upward backward search runs from each target, leaving in the
+ * bucket of each vertex it settles the target and the distance to it; then,
+ * an upward forward search runs from each source, and each vertex it
+ * settles combines its distance with the entries of its bucket. Both phases
+ * run their searches in parallel, each worker thread reusing its own search
+ * state; each source writes into its own row of the resulting
+ * DistanceMatrix.
+ * <p>
+ * As the upward searches only explore a small portion of the hierarchy, this
+ * is far cheaper than a complete Dijkstra search from each source.
+ */
+public class ManyToManySearch {
+
+    private final ContractionHierarchy hierarchy;
+    private final int parallelism;
+
+    public ManyToManySearch(ContractionHierarchy hierarchy) {
+        this(hierarchy, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ManyToManySearch(ContractionHierarchy hierarchy, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be at least 1");
+        }
+
+        this.hierarchy = hierarchy;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return the distances from the given source vertexes, one row for each
+     * of them, to the given target vertexes, one column for each of them
+     */
+    public DistanceMatrix search(List<Vertex> sourceVertexes, List<Vertex> targetVertexes) {
+        CompiledGraph compiledGraph = hierarchy.getCompiledGraph();
+
+        final int[] sourceIndexes = getVertexIndexes(sourceVertexes);
+        final int[] targetIndexes = getVertexIndexes(targetVertexes);
+
+        final double[] distances = new double[DistanceMatrix.getCheckedSize(sourceIndexes.length, targetIndexes.length)];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+
+        final ThreadLocal<UpwardSearch> searches = new ThreadLocal<UpwardSearch>() {
+            @Override
+            protected UpwardSearch initialValue() {
+                return new UpwardSearch();
+            }
+
+        };
+
+        final int[][] targetSpaceVertexes = new int[targetIndexes.length][];
+        final double[][] targetSpacePathLengths = new double[targetIndexes.length][];
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+
+        try {
+            forkJoinPool.invoke(new IndexRangeTask(0, targetIndexes.length, new IndexRangeTask.Body() {
+                @Override
+                public void run(int column) {
+                    searchBackward(searches.get(), column, targetIndexes, targetSpaceVertexes, targetSpacePathLengths);
+                }
+
+            }));
+
+            final Buckets buckets = new Buckets(compiledGraph.getVertexCount(), targetSpaceVertexes, targetSpacePathLengths);
+
+            forkJoinPool.invoke(new IndexRangeTask(0, sourceIndexes.length, new IndexRangeTask.Body() {
+                @Override
+                public void run(int row) {
+                    searchForward(searches.get(), row, sourceIndexes, buckets, distances);
+                }
+
+            }));
+        } finally {
+            forkJoinPool.shutdown();
+        }
+
+        return new DistanceMatrix(sourceVertexes, targetVertexes, distances);
+    }
+
+    private int[] getVertexIndexes(List<Vertex> vertexes) {
+        CompiledGraph compiledGraph = hierarchy.getCompiledGraph();
+
+        int[] result = new int[vertexes.size()];
+        for (int position = 0; position < result.length; position++) {
+            result[position] = compiledGraph.getVertexIndex(vertexes.get(position));
+        }
+
+        return result;
+    }
+
+    public ContractionHierarchy getHierarchy() {
+        return hierarchy;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Dijkstra search following only the edges towards higher-ranked
+     * vertexes, run until its queue is empty
+     */
+    private class UpwardSearch {
+
+        private final double[] pathLengths;
+        private final int[] settledVertexes;
+        private final double[] settledPathLengths;
+        private final IndexedMinPriorityQueue queue;
+        private int settledVertexCount;
+
+        UpwardSearch() {
+            int vertexCount = hierarchy.getCompiledGraph().getVertexCount();
+
+            pathLengths = new double[vertexCount];
+            Arrays.fill(pathLengths, Double.POSITIVE_INFINITY);
+
+            settledVertexes = new int[vertexCount];
+            settledPathLengths = new double[vertexCount];
+            queue = new IndexedMinPriorityQueue(vertexCount);
+        }
+
+        void search(int sourceIndex, boolean backward) {
+            //Every vertex reached by the previous search was also settled
+            for (int position = 0; position < settledVertexCount; position++) {
+                pathLengths[settledVertexes[position]] = Double.POSITIVE_INFINITY;
+            }
+
+            settledVertexCount = 0;
+
+            pathLengths[sourceIndex] = 0;
+            queue.insert(sourceIndex, 0);
+
+            while (!queue.isEmpty()) {
+                int vertexIndex = queue.poll();
+                double vertexPathLength = pathLengths[vertexIndex];
+
+                settledVertexes[settledVertexCount] = vertexIndex;
+                settledPathLengths[settledVertexCount] = vertexPathLength;
+                settledVertexCount++;
+
+                if (backward) {
+                    for (int position = hierarchy.getDownwardEdgesStart(vertexIndex); position < hierarchy.getDownwardEdgesEnd(vertexIndex); position++) {
+                        int edge = hierarchy.getDownwardEdge(position);
+
+                        relax(hierarchy.getEdgeHead(edge), vertexPathLength + hierarchy.getEdgeWeight(edge));
+                    }
+                } else {
+                    for (int position = hierarchy.getUpwardEdgesStart(vertexIndex); position < hierarchy.getUpwardEdgesEnd(vertexIndex); position++) {
+                        int edge = hierarchy.getUpwardEdge(position);
+
+                        relax(hierarchy.getEdgeTail(edge), vertexPathLength + hierarchy.getEdgeWeight(edge));
+                    }
+                }
+            }
+        }
+
+        private void relax(int vertexIndex, double vertexPathLength) {
+            if (vertexPathLength < pathLengths[vertexIndex]) {
+                pathLengths[vertexIndex] = vertexPathLength;
+                queue.insertOrDecrease(vertexIndex, vertexPathLength);
+            }
+        }
+
+    }
+
+    /**
+     * For each vertex, the targets whose backward search settled it, with
+     * the distance from the vertex to each of them, in compressed rows
+     */
+    private static class Buckets {
+
+        private final int columnCount;
+        private final int[] offsets;
+        private final int[] columns;
+        private final double[] pathLengths;
+
+        Buckets(int vertexCount, int[][] targetSpaceVertexes, double[][] targetSpacePathLengths) {
+            columnCount = targetSpaceVertexes.length;
+            offsets = new int[vertexCount + 1];
+
+            long entryCount = 0;
+            for (int[] spaceVertexes : targetSpaceVertexes) {
+                for (int vertexIndex : spaceVertexes) {
+                    offsets[vertexIndex + 1]++;
+                }
+
+                entryCount += spaceVertexes.length;
+            }
+
+            if (entryCount > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("The search spaces of the targets are too large");
+            }
+
+            for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+                offsets[vertexIndex + 1] += offsets[vertexIndex];
+            }
+
+            columns = new int[(int) entryCount];
+            pathLengths = new double[(int) entryCount];
+
+            int[] insertionPositions = Arrays.copyOf(offsets, vertexCount);
+
+            for (int column = 0; column < targetSpaceVertexes.length; column++) {
+                int[] spaceVertexes = targetSpaceVertexes[column];
+                double[] spacePathLengths = targetSpacePathLengths[column];
+
+                for (int position = 0; position < spaceVertexes.length; position++) {
+                    int entry = insertionPositions[spaceVertexes[position]]++;
+
+                    columns[entry] = column;
+                    pathLengths[entry] = spacePathLengths[position];
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Stores the search space of the given target, with the distance from
+     * each of its vertexes to the target
+     */
+    private void searchBackward(UpwardSearch search, int column, int[] targetIndexes, int[][] targetSpaceVertexes, double[][] targetSpacePathLengths) {
+        search.search(targetIndexes[column], true);
+
+        targetSpaceVertexes[column] = Arrays.copyOf(search.settledVertexes, search.settledVertexCount);
+        targetSpacePathLengths[column] = Arrays.copyOf(search.settledPathLengths, search.settledVertexCount);
+    }
+
+    /**
+     * Fills the row of the given source by scanning the buckets of the
+     * vertexes in its search space
+     */
+    private void searchForward(UpwardSearch search, int row, int[] sourceIndexes, Buckets buckets, double[] distances) {
+        search.search(sourceIndexes[row], false);
+
+        int rowOffset = row * buckets.columnCount;
+
+        for (int position = 0; position < search.settledVertexCount; position++) {
+            int vertexIndex = search.settledVertexes[position];
+            double vertexPathLength = search.settledPathLengths[position];
+
+            for (int entry = buckets.offsets[vertexIndex]; entry < buckets.offsets[vertexIndex + 1]; entry++) {
+                double distance = vertexPathLength + buckets.pathLengths[entry];
+                int cell = rowOffset + buckets.columns[entry];
+
+                if (distance < distances[cell]) {
+                    distances[cell] = distance;
+                }
+            }
+        }
+    }
+
+}
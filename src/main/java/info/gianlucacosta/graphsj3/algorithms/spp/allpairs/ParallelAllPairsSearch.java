@@ -0,0 +1,119 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.allpairs;
+
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.IndexRangeTask;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.ShortestPathSearch;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Computes the distances from many source vertexes by running independent
+ * Dijkstra searches on a work-stealing pool.
+ * <p>
+ * All the searches share the same read-only CompiledGraph, while each worker
+ * thread reuses its own ShortestPathSearch; each search writes its distances
+ * into its own row of the resulting DistanceMatrix, whose columns are all
+ * the vertexes of the compiled graph. No metainfo is written.
+ */
+public class ParallelAllPairsSearch {
+
+    private final CompiledGraph compiledGraph;
+    private final int parallelism;
+
+    public ParallelAllPairsSearch(CompiledGraph compiledGraph) {
+        this(compiledGraph, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelAllPairsSearch(CompiledGraph compiledGraph, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be at least 1");
+        }
+
+        compiledGraph.requireNonNegativeArcWeights();
+
+        this.compiledGraph = compiledGraph;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return the distances between all the pairs of vertexes
+     */
+    public DistanceMatrix search() {
+        return search(compiledGraph.getVertexes());
+    }
+
+    /**
+     * @return the distances from the given source vertexes, one row for each
+     * of them, to all the vertexes
+     */
+    public DistanceMatrix search(List<Vertex> sourceVertexes) {
+        int vertexCount = compiledGraph.getVertexCount();
+
+        final int[] sourceIndexes = new int[sourceVertexes.size()];
+        for (int row = 0; row < sourceIndexes.length; row++) {
+            sourceIndexes[row] = compiledGraph.getVertexIndex(sourceVertexes.get(row));
+        }
+
+        final double[] distances = new double[DistanceMatrix.getCheckedSize(sourceIndexes.length, vertexCount)];
+
+        final ThreadLocal<ShortestPathSearch> searches = new ThreadLocal<ShortestPathSearch>() {
+            @Override
+            protected ShortestPathSearch initialValue() {
+                return new ShortestPathSearch(compiledGraph);
+            }
+
+        };
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+
+        try {
+            forkJoinPool.invoke(new IndexRangeTask(0, sourceIndexes.length, new IndexRangeTask.Body() {
+                @Override
+                public void run(int row) {
+                    ShortestPathSearch search = searches.get();
+
+                    search.searchForward(sourceIndexes[row]);
+                    search.copyPathLengths(distances, row * compiledGraph.getVertexCount());
+                }
+
+            }));
+        } finally {
+            forkJoinPool.shutdown();
+        }
+
+        return new DistanceMatrix(sourceVertexes, compiledGraph.getVertexes(), distances);
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+}
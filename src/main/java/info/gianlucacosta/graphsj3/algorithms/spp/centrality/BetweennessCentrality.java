@@ -0,0 +1,115 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.centrality;
+
+import info.gianlucacosta.arcontes.graphs.Link;
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Betweenness centrality of the vertexes and of the arcs of a compiled graph.
+ * <p>
+ * The betweenness of a vertex is the sum, over the ordered pairs (s, t) of
+ * other vertexes, of the fraction of the shortest paths from s to t passing
+ * through it; the betweenness of an arc is the same sum over all the
+ * ordered pairs. Values are not normalized. When only some pivots were
+ * used as sources, the sums are scaled by the number of vertexes divided by
+ * the number of pivots, so they estimate the exact ones.
+ */
+public class BetweennessCentrality {
+
+    private final CompiledGraph compiledGraph;
+    private final double[] vertexBetweenness;
+    private final double[] arcBetweenness;
+    private final int sourceCount;
+    private final Map<Link, Integer> linkArcs;
+
+    /**
+     * @param vertexBetweenness the betweenness of each vertex, indexed by
+     *                          vertex; the array is not copied
+     * @param arcBetweenness    the betweenness of each arc, indexed by arc;
+     *                          the array is not copied
+     * @param sourceCount       the number of sources of the searches
+     */
+    public BetweennessCentrality(CompiledGraph compiledGraph, double[] vertexBetweenness, double[] arcBetweenness, int sourceCount) {
+        if (vertexBetweenness.length != compiledGraph.getVertexCount() || arcBetweenness.length != compiledGraph.getArcCount()) {
+            throw new IllegalArgumentException("The arrays do not match the graph");
+        }
+
+        this.compiledGraph = compiledGraph;
+        this.vertexBetweenness = vertexBetweenness;
+        this.arcBetweenness = arcBetweenness;
+        this.sourceCount = sourceCount;
+
+        linkArcs = new HashMap<>(compiledGraph.getArcCount() * 2);
+        for (int arc = 0; arc < compiledGraph.getArcCount(); arc++) {
+            linkArcs.put(compiledGraph.getArcLink(arc), arc);
+        }
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    public double getBetweenness(Vertex vertex) {
+        return vertexBetweenness[compiledGraph.getVertexIndex(vertex)];
+    }
+
+    public double getBetweenness(int vertexIndex) {
+        return vertexBetweenness[vertexIndex];
+    }
+
+    public double getArcBetweenness(int arc) {
+        return arcBetweenness[arc];
+    }
+
+    /**
+     * @return the betweenness of the arc of the given link, or 0 for the
+     * links that are not arcs of the compiled graph - loops and the parallel
+     * links other than the first one having minimum weight
+     */
+    public double getLinkBetweenness(Link link) {
+        Integer arc = linkArcs.get(link);
+
+        return (arc != null) ? arcBetweenness[arc] : 0;
+    }
+
+    /**
+     * @return the number of source vertexes used for the computation
+     */
+    public int getSourceCount() {
+        return sourceCount;
+    }
+
+    /**
+     * @return true if only some pivots were used as sources, so that the
+     * values are estimates
+     */
+    public boolean isSampled() {
+        return sourceCount < compiledGraph.getVertexCount();
+    }
+
+}
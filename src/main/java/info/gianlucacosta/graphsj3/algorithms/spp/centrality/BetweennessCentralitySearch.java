@@ -0,0 +1,280 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.centrality;
+
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.IndexRangeTask;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.ShortestPathSearch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Computes the betweenness centrality of vertexes and arcs with Brandes'
+ * algorithm, running the searches from the sources on a work-stealing pool.
+ * <p>
+ * For each source, a Dijkstra search settles the vertexes; the number of
+ * shortest paths reaching each vertex is then counted in settlement order
+ * over its tight entering arcs, and the dependencies are accumulated in
+ * reverse order. An arc is tight when it links two vertexes, the head
+ * settled first, whose distances differ exactly by its weight.
+ * <p>
+ * The graph is treated as simple, as compiled: of several parallel links,
+ * only the first one having minimum weight is an arc, so parallel links of
+ * equal weight count as a single path, and the other ones get no
+ * betweenness.
+ * <p>
+ * Each worker thread reuses its own search and adds into its own
+ * accumulators, which are merged once all the sources are done. In sampling
+ * mode, only the given number of pivots, chosen at random, are used as
+ * sources.
+ */
+public class BetweennessCentralitySearch {
+
+    private final CompiledGraph compiledGraph;
+    private final int parallelism;
+
+    public BetweennessCentralitySearch(CompiledGraph compiledGraph) {
+        this(compiledGraph, Runtime.getRuntime().availableProcessors());
+    }
+
+    public BetweennessCentralitySearch(CompiledGraph compiledGraph, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be at least 1");
+        }
+
+        compiledGraph.requireNonNegativeArcWeights();
+
+        this.compiledGraph = compiledGraph;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return the exact betweenness, using all the vertexes as sources
+     */
+    public BetweennessCentrality search() {
+        int[] sourceIndexes = new int[compiledGraph.getVertexCount()];
+
+        for (int vertexIndex = 0; vertexIndex < sourceIndexes.length; vertexIndex++) {
+            sourceIndexes[vertexIndex] = vertexIndex;
+        }
+
+        return search(sourceIndexes);
+    }
+
+    /**
+     * @param pivotCount the number of distinct source vertexes
+     * @param random     the generator choosing the pivots
+     * @return the betweenness estimated from the given number of random
+     * pivots
+     */
+    public BetweennessCentrality searchSampled(int pivotCount, Random random) {
+        int vertexCount = compiledGraph.getVertexCount();
+
+        if (pivotCount < 1 || pivotCount > vertexCount) {
+            throw new IllegalArgumentException("The pivot count must be between 1 and the vertex count");
+        }
+
+        int[] vertexIndexes = new int[vertexCount];
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            vertexIndexes[vertexIndex] = vertexIndex;
+        }
+
+        //Partial Fisher-Yates shuffle
+        for (int position = 0; position < pivotCount; position++) {
+            int swapPosition = position + random.nextInt(vertexCount - position);
+
+            int vertexIndex = vertexIndexes[swapPosition];
+            vertexIndexes[swapPosition] = vertexIndexes[position];
+            vertexIndexes[position] = vertexIndex;
+        }
+
+        int[] pivotIndexes = new int[pivotCount];
+        System.arraycopy(vertexIndexes, 0, pivotIndexes, 0, pivotCount);
+
+        return search(pivotIndexes);
+    }
+
+    private BetweennessCentrality search(final int[] sourceIndexes) {
+        final List<Accumulator> accumulators = new ArrayList<>();
+
+        final ThreadLocal<Accumulator> threadAccumulators = new ThreadLocal<Accumulator>() {
+            @Override
+            protected Accumulator initialValue() {
+                Accumulator accumulator = new Accumulator();
+
+                synchronized (accumulators) {
+                    accumulators.add(accumulator);
+                }
+
+                return accumulator;
+            }
+
+        };
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+
+        try {
+            forkJoinPool.invoke(new IndexRangeTask(0, sourceIndexes.length, new IndexRangeTask.Body() {
+                @Override
+                public void run(int position) {
+                    threadAccumulators.get().accumulate(sourceIndexes[position]);
+                }
+
+            }));
+        } finally {
+            forkJoinPool.shutdown();
+        }
+
+        double[] vertexBetweenness = new double[compiledGraph.getVertexCount()];
+        double[] arcBetweenness = new double[compiledGraph.getArcCount()];
+
+        synchronized (accumulators) {
+            for (Accumulator accumulator : accumulators) {
+                for (int vertexIndex = 0; vertexIndex < vertexBetweenness.length; vertexIndex++) {
+                    vertexBetweenness[vertexIndex] += accumulator.vertexBetweenness[vertexIndex];
+                }
+
+                for (int arc = 0; arc < arcBetweenness.length; arc++) {
+                    arcBetweenness[arc] += accumulator.arcBetweenness[arc];
+                }
+            }
+        }
+
+        if (sourceIndexes.length < vertexBetweenness.length) {
+            double scale = vertexBetweenness.length / (double) sourceIndexes.length;
+
+            for (int vertexIndex = 0; vertexIndex < vertexBetweenness.length; vertexIndex++) {
+                vertexBetweenness[vertexIndex] *= scale;
+            }
+
+            for (int arc = 0; arc < arcBetweenness.length; arc++) {
+                arcBetweenness[arc] *= scale;
+            }
+        }
+
+        return new BetweennessCentrality(compiledGraph, vertexBetweenness, arcBetweenness, sourceIndexes.length);
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Per-thread search state and partial sums
+     */
+    private class Accumulator {
+
+        private final ShortestPathSearch search;
+        private final int[] positions;
+        private final double[] pathCounts;
+        private final double[] dependencies;
+        private final double[] vertexBetweenness;
+        private final double[] arcBetweenness;
+
+        Accumulator() {
+            int vertexCount = compiledGraph.getVertexCount();
+
+            search = new ShortestPathSearch(compiledGraph);
+            positions = new int[vertexCount];
+            pathCounts = new double[vertexCount];
+            dependencies = new double[vertexCount];
+            vertexBetweenness = new double[vertexCount];
+            arcBetweenness = new double[compiledGraph.getArcCount()];
+        }
+
+        void accumulate(int sourceIndex) {
+            search.searchForward(sourceIndex);
+
+            int settledVertexCount = search.getSettledVertexCount();
+
+            for (int position = 0; position < settledVertexCount; position++) {
+                int vertexIndex = search.getSettledVertex(position);
+
+                positions[vertexIndex] = position;
+                dependencies[vertexIndex] = 0;
+            }
+
+            //Counting the shortest paths in settlement order
+            for (int position = 0; position < settledVertexCount; position++) {
+                int vertexIndex = search.getSettledVertex(position);
+
+                if (position == 0) {
+                    pathCounts[vertexIndex] = 1;
+                    continue;
+                }
+
+                double pathCount = 0;
+
+                for (int entering = compiledGraph.getEnteringArcsStart(vertexIndex); entering < compiledGraph.getEnteringArcsEnd(vertexIndex); entering++) {
+                    int arc = compiledGraph.getEnteringArc(entering);
+
+                    if (isTight(arc, position)) {
+                        pathCount += pathCounts[compiledGraph.getArcHead(arc)];
+                    }
+                }
+
+                pathCounts[vertexIndex] = pathCount;
+            }
+
+            //Accumulating the dependencies in reverse order
+            for (int position = settledVertexCount - 1; position > 0; position--) {
+                int vertexIndex = search.getSettledVertex(position);
+                double vertexFactor = (1 + dependencies[vertexIndex]) / pathCounts[vertexIndex];
+
+                vertexBetweenness[vertexIndex] += dependencies[vertexIndex];
+
+                for (int entering = compiledGraph.getEnteringArcsStart(vertexIndex); entering < compiledGraph.getEnteringArcsEnd(vertexIndex); entering++) {
+                    int arc = compiledGraph.getEnteringArc(entering);
+
+                    if (isTight(arc, position)) {
+                        int headIndex = compiledGraph.getArcHead(arc);
+                        double arcDependency = pathCounts[headIndex] * vertexFactor;
+
+                        arcBetweenness[arc] += arcDependency;
+                        dependencies[headIndex] += arcDependency;
+                    }
+                }
+            }
+        }
+
+        /**
+         * The positions of the vertexes not reached by the current search are
+         * stale, but their infinite distance never makes their arcs tight
+         */
+        private boolean isTight(int arc, int tailPosition) {
+            int headIndex = compiledGraph.getArcHead(arc);
+
+            return search.getPathLength(headIndex) + compiledGraph.getArcWeight(arc) == search.getPathLength(compiledGraph.getArcTail(arc))
+                    && positions[headIndex] < tailPosition;
+        }
+
+    }
+
+}
@@ -0,0 +1,109 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.centrality;
+
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+
+/**
+ * Closeness and harmonic centrality of the vertexes of a compiled graph,
+ * computed from the distances to the vertexes that each vertex can reach.
+ * <p>
+ * Closeness follows Wasserman and Faust, so that it remains meaningful when
+ * not all the vertexes can be reached: (r / s) * (r / (V - 1)), where r is
+ * the number of other vertexes reachable from the vertex and s the sum of
+ * their distances; it is 0 when no other vertex can be reached. Harmonic
+ * centrality is the sum of the inverse distances to the other vertexes,
+ * the unreachable ones and the ones at distance 0 adding 0; closeness is
+ * infinite when all the reachable vertexes are at distance 0.
+ */
+public class ClosenessCentrality {
+
+    private final CompiledGraph compiledGraph;
+    private final int[] reachedVertexCounts;
+    private final double[] distanceSums;
+    private final double[] inverseDistanceSums;
+
+    /**
+     * @param reachedVertexCounts the number of other vertexes reachable from
+     *                            each vertex; the array is not copied
+     * @param distanceSums        the sum of the distances from each vertex;
+     *                            the array is not copied
+     * @param inverseDistanceSums the sum of the inverse distances from each
+     *                            vertex; the array is not copied
+     */
+    public ClosenessCentrality(CompiledGraph compiledGraph, int[] reachedVertexCounts, double[] distanceSums, double[] inverseDistanceSums) {
+        int vertexCount = compiledGraph.getVertexCount();
+
+        if (reachedVertexCounts.length != vertexCount || distanceSums.length != vertexCount || inverseDistanceSums.length != vertexCount) {
+            throw new IllegalArgumentException("The arrays do not match the vertexes of the graph");
+        }
+
+        this.compiledGraph = compiledGraph;
+        this.reachedVertexCounts = reachedVertexCounts;
+        this.distanceSums = distanceSums;
+        this.inverseDistanceSums = inverseDistanceSums;
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    public double getCloseness(Vertex vertex) {
+        return getCloseness(compiledGraph.getVertexIndex(vertex));
+    }
+
+    public double getCloseness(int vertexIndex) {
+        int reachedVertexCount = reachedVertexCounts[vertexIndex];
+
+        if (reachedVertexCount == 0) {
+            return 0;
+        }
+
+        return (reachedVertexCount / distanceSums[vertexIndex]) * (reachedVertexCount / (double) (compiledGraph.getVertexCount() - 1));
+    }
+
+    public double getHarmonicCentrality(Vertex vertex) {
+        return inverseDistanceSums[compiledGraph.getVertexIndex(vertex)];
+    }
+
+    public double getHarmonicCentrality(int vertexIndex) {
+        return inverseDistanceSums[vertexIndex];
+    }
+
+    /**
+     * @return the number of other vertexes reachable from the given vertex
+     */
+    public int getReachedVertexCount(Vertex vertex) {
+        return reachedVertexCounts[compiledGraph.getVertexIndex(vertex)];
+    }
+
+    /**
+     * @return the sum of the distances from the given vertex to the other
+     * vertexes it can reach
+     */
+    public double getDistanceSum(Vertex vertex) {
+        return distanceSums[compiledGraph.getVertexIndex(vertex)];
+    }
+
+}
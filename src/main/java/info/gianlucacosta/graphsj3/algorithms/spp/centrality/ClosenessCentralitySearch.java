@@ -0,0 +1,129 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.centrality;
+
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.IndexRangeTask;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.ShortestPathSearch;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Computes the closeness and the harmonic centrality of all the vertexes,
+ * running one Dijkstra search from each of them on a work-stealing pool.
+ * <p>
+ * All the searches share the same read-only CompiledGraph, while each worker
+ * thread reuses its own ShortestPathSearch; each search only writes the sums
+ * of its own source, so no distance matrix is kept and the memory is O(V)
+ * per thread. No metainfo is written.
+ * <p>
+ * Arc weights must not be negative. A vertex at distance 0 counts as
+ * reached and adds 0 to the sum of the distances, but, having no finite
+ * inverse, it is skipped by the sum of the inverse distances.
+ */
+public class ClosenessCentralitySearch {
+
+    private final CompiledGraph compiledGraph;
+    private final int parallelism;
+
+    public ClosenessCentralitySearch(CompiledGraph compiledGraph) {
+        this(compiledGraph, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ClosenessCentralitySearch(CompiledGraph compiledGraph, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be at least 1");
+        }
+
+        compiledGraph.requireNonNegativeArcWeights();
+
+        this.compiledGraph = compiledGraph;
+        this.parallelism = parallelism;
+    }
+
+    public ClosenessCentrality search() {
+        int vertexCount = compiledGraph.getVertexCount();
+
+        final int[] reachedVertexCounts = new int[vertexCount];
+        final double[] distanceSums = new double[vertexCount];
+        final double[] inverseDistanceSums = new double[vertexCount];
+
+        final ThreadLocal<ShortestPathSearch> searches = new ThreadLocal<ShortestPathSearch>() {
+            @Override
+            protected ShortestPathSearch initialValue() {
+                return new ShortestPathSearch(compiledGraph);
+            }
+
+        };
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+
+        try {
+            forkJoinPool.invoke(new IndexRangeTask(0, vertexCount, new IndexRangeTask.Body() {
+                @Override
+                public void run(int sourceIndex) {
+                    searchSource(searches.get(), sourceIndex, reachedVertexCounts, distanceSums, inverseDistanceSums);
+                }
+
+            }));
+        } finally {
+            forkJoinPool.shutdown();
+        }
+
+        return new ClosenessCentrality(compiledGraph, reachedVertexCounts, distanceSums, inverseDistanceSums);
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Stores the sums of the distances from the given source
+     */
+    private void searchSource(ShortestPathSearch search, int sourceIndex, int[] reachedVertexCounts, double[] distanceSums, double[] inverseDistanceSums) {
+        search.searchForward(sourceIndex);
+
+        double distanceSum = 0;
+        double inverseDistanceSum = 0;
+
+        //The source is the first settled vertex
+        for (int position = 1; position < search.getSettledVertexCount(); position++) {
+            double pathLength = search.getPathLength(search.getSettledVertex(position));
+
+            distanceSum += pathLength;
+
+            if (pathLength > 0) {
+                inverseDistanceSum += 1 / pathLength;
+            }
+        }
+
+        reachedVertexCounts[sourceIndex] = search.getSettledVertexCount() - 1;
+        distanceSums[sourceIndex] = distanceSum;
+        inverseDistanceSums[sourceIndex] = inverseDistanceSum;
+    }
+
+}
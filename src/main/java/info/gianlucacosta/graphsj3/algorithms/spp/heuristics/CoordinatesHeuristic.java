@@ -0,0 +1,60 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.heuristics;
+
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.CoordinatesInfo;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+
+/**
+ * Heuristic based on the CoordinatesInfo of the vertexes.
+ * <p>
+ * The distance between the coordinates is multiplied by the minimum cost per
+ * unit of distance; the heuristic is consistent as long as no arc costs less
+ * than the distance between its ends multiplied by such factor.
+ */
+public abstract class CoordinatesHeuristic implements SppHeuristic {
+
+    private final MetaInfoRepository metaInfoRepository;
+    private final double minCostPerUnit;
+
+    public CoordinatesHeuristic(MetaInfoRepository metaInfoRepository, double minCostPerUnit) {
+        if (minCostPerUnit < 0) {
+            throw new IllegalArgumentException("The minimum cost per unit cannot be negative");
+        }
+
+        this.metaInfoRepository = metaInfoRepository;
+        this.minCostPerUnit = minCostPerUnit;
+    }
+
+    @Override
+    public double getLowerBound(Vertex vertex, Vertex targetVertex) {
+        CoordinatesInfo vertexCoordinates = metaInfoRepository.getMetaInfo(vertex, CoordinatesInfo.class);
+        CoordinatesInfo targetCoordinates = metaInfoRepository.getMetaInfo(targetVertex, CoordinatesInfo.class);
+
+        return minCostPerUnit * getDistance(vertexCoordinates, targetCoordinates);
+    }
+
+    protected abstract double getDistance(CoordinatesInfo source, CoordinatesInfo target);
+
+}
@@ -0,0 +1,42 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.heuristics;
+
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.CoordinatesInfo;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+
+/**
+ * Heuristic based on the straight-line distance between the vertexes
+ */
+public class EuclideanHeuristic extends CoordinatesHeuristic {
+
+    public EuclideanHeuristic(MetaInfoRepository metaInfoRepository, double minCostPerUnit) {
+        super(metaInfoRepository, minCostPerUnit);
+    }
+
+    @Override
+    protected double getDistance(CoordinatesInfo source, CoordinatesInfo target) {
+        return Math.hypot(target.getX() - source.getX(), target.getY() - source.getY());
+    }
+
+}
@@ -0,0 +1,57 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.heuristics;
+
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.CoordinatesInfo;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+
+/**
+ * Heuristic based on the great-circle distance, in kilometers, between
+ * vertexes whose coordinates are longitude and latitude in degrees
+ */
+public class GeographicHeuristic extends CoordinatesHeuristic {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    public GeographicHeuristic(MetaInfoRepository metaInfoRepository, double minCostPerKm) {
+        super(metaInfoRepository, minCostPerKm);
+    }
+
+    @Override
+    protected double getDistance(CoordinatesInfo source, CoordinatesInfo target) {
+        double sourceLatitude = Math.toRadians(source.getY());
+        double targetLatitude = Math.toRadians(target.getY());
+
+        double latitudeDelta = targetLatitude - sourceLatitude;
+        double longitudeDelta = Math.toRadians(target.getX() - source.getX());
+
+        double sinHalfLatitudeDelta = Math.sin(latitudeDelta / 2);
+        double sinHalfLongitudeDelta = Math.sin(longitudeDelta / 2);
+
+        double haversine = sinHalfLatitudeDelta * sinHalfLatitudeDelta
+                + Math.cos(sourceLatitude) * Math.cos(targetLatitude) * sinHalfLongitudeDelta * sinHalfLongitudeDelta;
+
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(haversine)));
+    }
+
+}
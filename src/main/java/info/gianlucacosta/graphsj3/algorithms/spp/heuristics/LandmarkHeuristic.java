@@ -0,0 +1,57 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.heuristics;
+
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+
+/**
+ * Heuristic based on the triangle inequality over the distances stored in
+ * LandmarkTables
+ */
+public class LandmarkHeuristic implements SppHeuristic {
+
+    private final CompiledGraph compiledGraph;
+    private final LandmarkTables landmarkTables;
+
+    public LandmarkHeuristic(CompiledGraph compiledGraph, LandmarkTables landmarkTables) {
+        if (compiledGraph.getVertexCount() != landmarkTables.getVertexCount()) {
+            throw new IllegalArgumentException("The landmark tables were computed for a different graph");
+        }
+
+        this.compiledGraph = compiledGraph;
+        this.landmarkTables = landmarkTables;
+    }
+
+    @Override
+    public double getLowerBound(Vertex vertex, Vertex targetVertex) {
+        return landmarkTables.getLowerBound(
+                compiledGraph.getVertexIndex(vertex),
+                compiledGraph.getVertexIndex(targetVertex));
+    }
+
+    public LandmarkTables getLandmarkTables() {
+        return landmarkTables;
+    }
+
+}
@@ -0,0 +1,361 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.heuristics;
+
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.ShortestPathSearch;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Distances between a few landmark vertexes and every vertex of a
+ * CompiledGraph, for the ALT (A*, landmarks, triangle inequality) lower
+ * bounds.
+ * <p>
+ * The tables can be saved to a binary stream and reloaded for the same
+ * graph: vertexes are identified by their index in the CompiledGraph, so the
+ * graph must list its vertexes and links in the same order.
+ */
+public class LandmarkTables {
+
+    private static final int FILE_SIGNATURE = 0x414C5447;
+    private static final int FILE_VERSION = 1;
+    private static final long MAX_TABLE_SIZE = Integer.MAX_VALUE - 8;
+
+    private final int vertexCount;
+    private final int arcCount;
+    private final int[] landmarks;
+    private final double[] distancesFromLandmarks;
+    private final double[] distancesToLandmarks;
+
+    /**
+     * Chooses the landmarks and computes their distances.
+     *
+     * @param compiledGraph  the graph, whose weights must not be negative
+     * @param landmarkCount  how many landmarks should be chosen; it is reduced
+     *                       to the number of vertexes if greater
+     * @param selection      the landmark selection strategy
+     * @throws IllegalArgumentException if any arc has negative weight
+     */
+    public LandmarkTables(CompiledGraph compiledGraph, int landmarkCount, LandmarkSelection selection) {
+        compiledGraph.requireNonNegativeArcWeights();
+
+        if (landmarkCount <= 0) {
+            throw new IllegalArgumentException("At least one landmark is required");
+        }
+
+        vertexCount = compiledGraph.getVertexCount();
+        arcCount = compiledGraph.getArcCount();
+
+        int actualLandmarkCount = Math.min(landmarkCount, vertexCount);
+
+        long tableSize = (long) actualLandmarkCount * vertexCount;
+        if (tableSize > MAX_TABLE_SIZE) {
+            throw new IllegalArgumentException(String.format("%d landmark tables of %d vertexes are too large", actualLandmarkCount, vertexCount));
+        }
+
+        landmarks = new int[actualLandmarkCount];
+        distancesFromLandmarks = new double[(int) tableSize];
+        distancesToLandmarks = new double[(int) tableSize];
+
+        ShortestPathSearch search = new ShortestPathSearch(compiledGraph);
+        Random random = new Random(vertexCount);
+
+        for (int landmarkIndex = 0; landmarkIndex < actualLandmarkCount; landmarkIndex++) {
+            int landmark;
+
+            if (landmarkIndex == 0) {
+                landmark = findVertexFarthestFrom(search, random.nextInt(vertexCount));
+            } else if (selection == LandmarkSelection.FARTHEST) {
+                landmark = findFarthestVertex(landmarkIndex);
+            } else {
+                landmark = findAvoidVertex(compiledGraph, search, random.nextInt(vertexCount), landmarkIndex);
+            }
+
+            landmarks[landmarkIndex] = landmark;
+
+            search.searchForward(landmark);
+            search.copyPathLengths(distancesFromLandmarks, landmarkIndex * vertexCount);
+
+            search.searchBackward(landmark);
+            search.copyPathLengths(distancesToLandmarks, landmarkIndex * vertexCount);
+        }
+    }
+
+    private LandmarkTables(int vertexCount, int arcCount, int[] landmarks, double[] distancesFromLandmarks, double[] distancesToLandmarks) {
+        this.vertexCount = vertexCount;
+        this.arcCount = arcCount;
+        this.landmarks = landmarks;
+        this.distancesFromLandmarks = distancesFromLandmarks;
+        this.distancesToLandmarks = distancesToLandmarks;
+    }
+
+    private static int findVertexFarthestFrom(ShortestPathSearch search, int rootIndex) {
+        search.searchForward(rootIndex);
+
+        return search.getSettledVertex(search.getSettledVertexCount() - 1);
+    }
+
+    private int findFarthestVertex(int chosenLandmarkCount) {
+        int result = -1;
+        double maxDistance = -1;
+
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            double distance = Double.POSITIVE_INFINITY;
+
+            for (int landmarkIndex = 0; landmarkIndex < chosenLandmarkCount; landmarkIndex++) {
+                int position = landmarkIndex * vertexCount + vertexIndex;
+
+                distance = Math.min(distance, distancesFromLandmarks[position] + distancesToLandmarks[position]);
+            }
+
+            if (distance > maxDistance) {
+                maxDistance = distance;
+                result = vertexIndex;
+            }
+        }
+
+        return result;
+    }
+
+    private int findAvoidVertex(CompiledGraph compiledGraph, ShortestPathSearch search, int rootIndex, int chosenLandmarkCount) {
+        search.searchForward(rootIndex);
+
+        boolean[] landmarkVertexes = new boolean[vertexCount];
+        for (int landmarkIndex = 0; landmarkIndex < chosenLandmarkCount; landmarkIndex++) {
+            landmarkVertexes[landmarks[landmarkIndex]] = true;
+        }
+
+        //The size of a subtree sums how much the current bounds underestimate
+        //its distances from the root, unless it already contains a landmark
+        double[] sizes = new double[vertexCount];
+        boolean[] coveredSubtrees = new boolean[vertexCount];
+        int[] childCounts = new int[vertexCount];
+
+        for (int position = search.getSettledVertexCount() - 1; position >= 0; position--) {
+            int vertexIndex = search.getSettledVertex(position);
+
+            if (landmarkVertexes[vertexIndex]) {
+                coveredSubtrees[vertexIndex] = true;
+            }
+
+            if (coveredSubtrees[vertexIndex]) {
+                sizes[vertexIndex] = 0;
+            } else {
+                sizes[vertexIndex] += search.getPathLength(vertexIndex) - getLowerBound(rootIndex, vertexIndex, chosenLandmarkCount);
+            }
+
+            int previousArc = search.getPreviousArc(vertexIndex);
+            if (previousArc >= 0) {
+                int parentIndex = compiledGraph.getArcHead(previousArc);
+
+                sizes[parentIndex] += sizes[vertexIndex];
+                coveredSubtrees[parentIndex] |= coveredSubtrees[vertexIndex];
+                childCounts[parentIndex]++;
+            }
+        }
+
+        int bestVertex = rootIndex;
+        for (int position = 0; position < search.getSettledVertexCount(); position++) {
+            int vertexIndex = search.getSettledVertex(position);
+
+            if (sizes[vertexIndex] > sizes[bestVertex]) {
+                bestVertex = vertexIndex;
+            }
+        }
+
+        //Descending to a leaf, always through the largest child
+        while (childCounts[bestVertex] > 0) {
+            int largestChild = -1;
+
+            for (int arc = compiledGraph.getExitingArcsStart(bestVertex); arc < compiledGraph.getExitingArcsEnd(bestVertex); arc++) {
+                int tailIndex = compiledGraph.getArcTail(arc);
+
+                if (search.getPreviousArc(tailIndex) == arc && (largestChild < 0 || sizes[tailIndex] > sizes[largestChild])) {
+                    largestChild = tailIndex;
+                }
+            }
+
+            bestVertex = largestChild;
+        }
+
+        if (landmarkVertexes[bestVertex]) {
+            return findFarthestVertex(chosenLandmarkCount);
+        }
+
+        return bestVertex;
+    }
+
+    /**
+     * @return a lower bound of the distance from the given vertex to the
+     * target vertex, or positive infinity if the landmarks prove that the
+     * target cannot be reached
+     */
+    public double getLowerBound(int vertexIndex, int targetIndex) {
+        return getLowerBound(vertexIndex, targetIndex, landmarks.length);
+    }
+
+    private double getLowerBound(int vertexIndex, int targetIndex, int landmarkCount) {
+        double result = 0;
+
+        for (int landmarkIndex = 0; landmarkIndex < landmarkCount; landmarkIndex++) {
+            int offset = landmarkIndex * vertexCount;
+
+            //Undefined differences, between two infinite distances, are NaN and never selected
+            double forwardBound = distancesFromLandmarks[offset + targetIndex] - distancesFromLandmarks[offset + vertexIndex];
+            if (forwardBound > result) {
+                result = forwardBound;
+            }
+
+            double backwardBound = distancesToLandmarks[offset + vertexIndex] - distancesToLandmarks[offset + targetIndex];
+            if (backwardBound > result) {
+                result = backwardBound;
+            }
+        }
+
+        return result;
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public int getLandmarkCount() {
+        return landmarks.length;
+    }
+
+    public int getLandmark(int landmarkIndex) {
+        return landmarks[landmarkIndex];
+    }
+
+    public double getDistanceFromLandmark(int landmarkIndex, int vertexIndex) {
+        return distancesFromLandmarks[landmarkIndex * vertexCount + vertexIndex];
+    }
+
+    public double getDistanceToLandmark(int landmarkIndex, int vertexIndex) {
+        return distancesToLandmarks[landmarkIndex * vertexCount + vertexIndex];
+    }
+
+    public void save(OutputStream outputStream) throws IOException {
+        DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(outputStream));
+
+        dataOutputStream.writeInt(FILE_SIGNATURE);
+        dataOutputStream.writeInt(FILE_VERSION);
+        dataOutputStream.writeInt(vertexCount);
+        dataOutputStream.writeInt(arcCount);
+        dataOutputStream.writeInt(landmarks.length);
+
+        for (int landmark : landmarks) {
+            dataOutputStream.writeInt(landmark);
+        }
+
+        for (double distance : distancesFromLandmarks) {
+            dataOutputStream.writeDouble(distance);
+        }
+
+        for (double distance : distancesToLandmarks) {
+            dataOutputStream.writeDouble(distance);
+        }
+
+        dataOutputStream.flush();
+    }
+
+    public void save(File file) throws IOException {
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            save(outputStream);
+        }
+    }
+
+    /**
+     * Loads tables previously saved for the given graph.
+     *
+     * @throws IOException if the stream is not valid, or if it was saved for a
+     *                     graph having a different number of vertexes or arcs
+     */
+    public static LandmarkTables load(InputStream inputStream, CompiledGraph compiledGraph) throws IOException {
+        DataInputStream dataInputStream = new DataInputStream(new BufferedInputStream(inputStream));
+
+        if (dataInputStream.readInt() != FILE_SIGNATURE) {
+            throw new IOException("The stream does not contain landmark tables");
+        }
+
+        int version = dataInputStream.readInt();
+        if (version != FILE_VERSION) {
+            throw new IOException("Unsupported landmark tables version: " + version);
+        }
+
+        int vertexCount = dataInputStream.readInt();
+        int arcCount = dataInputStream.readInt();
+
+        if (vertexCount != compiledGraph.getVertexCount() || arcCount != compiledGraph.getArcCount()) {
+            throw new IOException("The landmark tables were computed for a different graph");
+        }
+
+        int landmarkCount = dataInputStream.readInt();
+        if (landmarkCount <= 0 || landmarkCount > vertexCount) {
+            throw new IOException("Invalid landmark count: " + landmarkCount);
+        }
+
+        long tableSize = (long) landmarkCount * vertexCount;
+        if (tableSize > MAX_TABLE_SIZE) {
+            throw new IOException(String.format("%d landmark tables of %d vertexes are too large", landmarkCount, vertexCount));
+        }
+
+        int[] landmarks = new int[landmarkCount];
+        for (int landmarkIndex = 0; landmarkIndex < landmarkCount; landmarkIndex++) {
+            int landmark = dataInputStream.readInt();
+
+            if (landmark < 0 || landmark >= vertexCount) {
+                throw new IOException("Invalid landmark vertex index: " + landmark);
+            }
+
+            landmarks[landmarkIndex] = landmark;
+        }
+
+        double[] distancesFromLandmarks = new double[(int) tableSize];
+        for (int position = 0; position < distancesFromLandmarks.length; position++) {
+            distancesFromLandmarks[position] = dataInputStream.readDouble();
+        }
+
+        double[] distancesToLandmarks = new double[(int) tableSize];
+        for (int position = 0; position < distancesToLandmarks.length; position++) {
+            distancesToLandmarks[position] = dataInputStream.readDouble();
+        }
+
+        return new LandmarkTables(vertexCount, arcCount, landmarks, distancesFromLandmarks, distancesToLandmarks);
+    }
+
+    public static LandmarkTables load(File file, CompiledGraph compiledGraph) throws IOException {
+        try (InputStream inputStream = new FileInputStream(file)) {
+            return load(inputStream, compiledGraph);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LandmarkTables(%d landmarks: %s)", landmarks.length, Arrays.toString(landmarks));
+    }
+
+}
@@ -0,0 +1,39 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.heuristics;
+
+import info.gianlucacosta.arcontes.graphs.Vertex;
+
+/**
+ * Estimates the distance between a vertex and the target of a goal-directed
+ * SPP search.
+ * <p>
+ * The estimate must never exceed the actual distance, and it must be
+ * consistent: for every arc (u, v) having weight w, the estimate for u must
+ * not exceed w plus the estimate for v.
+ */
+public interface SppHeuristic {
+
+    double getLowerBound(Vertex vertex, Vertex targetVertex);
+
+}
@@ -0,0 +1,193 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.hierarchies;
+
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+
+import java.util.Arrays;
+
+/**
+ * Contraction hierarchy built over a CompiledGraph, whose weights must not be
+ * negative.
+ * <p>
+ * The vertexes are contracted in order of edge difference, and each
+ * contraction adds the shortcut edges required to preserve the distances
+ * among the remaining vertexes. Queries then only follow edges leading to
+ * higher-ranked vertexes, both from the start vertex and, backward, from the
+ * target vertex.
+ * <p>
+ * Edges having index lower than the arc count of the compiled graph are its
+ * arcs; every other edge is a shortcut, made of two child edges.
+ * <p>
+ * The hierarchy is immutable and can be shared by concurrent searches; it
+ * must be rebuilt whenever the graph changes.
+ */
+public class ContractionHierarchy {
+
+    private final CompiledGraph compiledGraph;
+    private final int[] ranks;
+    private final int[] edgeHeads;
+    private final int[] edgeTails;
+    private final double[] edgeWeights;
+    private final int[] edgeFirstChildren;
+    private final int[] edgeSecondChildren;
+    private final int[] upwardEdgeOffsets;
+    private final int[] upwardEdges;
+    private final int[] downwardEdgeOffsets;
+    private final int[] downwardEdges;
+
+    public ContractionHierarchy(CompiledGraph compiledGraph) {
+        this(compiledGraph, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism the number of threads performing the witness searches
+     * @throws IllegalArgumentException if any arc has negative weight
+     */
+    public ContractionHierarchy(CompiledGraph compiledGraph, int parallelism) {
+        compiledGraph.requireNonNegativeArcWeights();
+
+        this.compiledGraph = compiledGraph;
+
+        ContractionHierarchyBuilder builder = new ContractionHierarchyBuilder(compiledGraph, parallelism);
+        builder.build();
+
+        ranks = builder.getRanks();
+        edgeHeads = builder.getEdgeHeads();
+        edgeTails = builder.getEdgeTails();
+        edgeWeights = builder.getEdgeWeights();
+        edgeFirstChildren = builder.getEdgeFirstChildren();
+        edgeSecondChildren = builder.getEdgeSecondChildren();
+
+        int vertexCount = compiledGraph.getVertexCount();
+        int edgeCount = builder.getEdgeCount();
+
+        //Upward edges are indexed by head, downward edges by tail
+        upwardEdgeOffsets = new int[vertexCount + 1];
+        downwardEdgeOffsets = new int[vertexCount + 1];
+
+        for (int edge = 0; edge < edgeCount; edge++) {
+            if (isUpward(edge)) {
+                upwardEdgeOffsets[edgeHeads[edge] + 1]++;
+            } else {
+                downwardEdgeOffsets[edgeTails[edge] + 1]++;
+            }
+        }
+
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            upwardEdgeOffsets[vertexIndex + 1] += upwardEdgeOffsets[vertexIndex];
+            downwardEdgeOffsets[vertexIndex + 1] += downwardEdgeOffsets[vertexIndex];
+        }
+
+        upwardEdges = new int[upwardEdgeOffsets[vertexCount]];
+        downwardEdges = new int[downwardEdgeOffsets[vertexCount]];
+
+        int[] upwardPositions = Arrays.copyOf(upwardEdgeOffsets, vertexCount);
+        int[] downwardPositions = Arrays.copyOf(downwardEdgeOffsets, vertexCount);
+
+        for (int edge = 0; edge < edgeCount; edge++) {
+            if (isUpward(edge)) {
+                upwardEdges[upwardPositions[edgeHeads[edge]]++] = edge;
+            } else {
+                downwardEdges[downwardPositions[edgeTails[edge]]++] = edge;
+            }
+        }
+    }
+
+    private boolean isUpward(int edge) {
+        return ranks[edgeHeads[edge]] < ranks[edgeTails[edge]];
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    public int getRank(int vertexIndex) {
+        return ranks[vertexIndex];
+    }
+
+    public int getEdgeCount() {
+        return edgeHeads.length;
+    }
+
+    public int getShortcutCount() {
+        return edgeHeads.length - compiledGraph.getArcCount();
+    }
+
+    public int getEdgeHead(int edge) {
+        return edgeHeads[edge];
+    }
+
+    public int getEdgeTail(int edge) {
+        return edgeTails[edge];
+    }
+
+    public double getEdgeWeight(int edge) {
+        return edgeWeights[edge];
+    }
+
+    public boolean isShortcut(int edge) {
+        return edgeFirstChildren[edge] >= 0;
+    }
+
+    public int getEdgeFirstChild(int edge) {
+        return edgeFirstChildren[edge];
+    }
+
+    public int getEdgeSecondChild(int edge) {
+        return edgeSecondChildren[edge];
+    }
+
+    /**
+     * @return the first position, in the upward edges index, of the edges
+     * exiting from the given vertex towards higher-ranked vertexes
+     */
+    public int getUpwardEdgesStart(int vertexIndex) {
+        return upwardEdgeOffsets[vertexIndex];
+    }
+
+    public int getUpwardEdgesEnd(int vertexIndex) {
+        return upwardEdgeOffsets[vertexIndex + 1];
+    }
+
+    public int getUpwardEdge(int position) {
+        return upwardEdges[position];
+    }
+
+    /**
+     * @return the first position, in the downward edges index, of the edges
+     * entering the given vertex from higher-ranked vertexes
+     */
+    public int getDownwardEdgesStart(int vertexIndex) {
+        return downwardEdgeOffsets[vertexIndex];
+    }
+
+    public int getDownwardEdgesEnd(int vertexIndex) {
+        return downwardEdgeOffsets[vertexIndex + 1];
+    }
+
+    public int getDownwardEdge(int position) {
+        return downwardEdges[position];
+    }
+
+}
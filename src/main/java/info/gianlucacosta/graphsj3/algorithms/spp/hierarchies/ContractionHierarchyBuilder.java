@@ -0,0 +1,496 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.hierarchies;
+
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.IndexedMinPriorityQueue;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Contracts the vertexes of a CompiledGraph one by one, in order of edge
+ * difference, adding the shortcut edges needed to preserve distances.
+ * <p>
+ * Edges 0 to (arcCount - 1) are the arcs of the compiled graph; shortcuts
+ * are appended after them. The priorities of the vertexes, which require a
+ * witness search from every neighbour, are computed in parallel: initially
+ * for all the vertexes, then for the neighbours of each contracted vertex.
+ */
+class ContractionHierarchyBuilder {
+
+    private static final int WITNESS_SETTLED_VERTEX_LIMIT = 500;
+    private static final int PARALLEL_THRESHOLD = 16;
+
+    private final int vertexCount;
+    private final ForkJoinPool forkJoinPool;
+    private final ThreadLocal<WitnessSearch> witnessSearches;
+
+    private final int[][] exitingEdges;
+    private final int[] exitingEdgeCounts;
+    private final int[][] enteringEdges;
+    private final int[] enteringEdgeCounts;
+
+    private int[] edgeHeads;
+    private int[] edgeTails;
+    private double[] edgeWeights;
+    private int[] edgeFirstChildren;
+    private int[] edgeSecondChildren;
+    private int edgeCount;
+
+    private final boolean[] contracted;
+    private final int[] contractedNeighbourCounts;
+    private final int[] ranks;
+    private final double[] priorities;
+    private final int[] neighbourMarks;
+
+    ContractionHierarchyBuilder(CompiledGraph compiledGraph, int parallelism) {
+        vertexCount = compiledGraph.getVertexCount();
+
+        int arcCount = compiledGraph.getArcCount();
+        int initialCapacity = Math.max(16, arcCount * 2);
+
+        edgeHeads = new int[initialCapacity];
+        edgeTails = new int[initialCapacity];
+        edgeWeights = new double[initialCapacity];
+        edgeFirstChildren = new int[initialCapacity];
+        edgeSecondChildren = new int[initialCapacity];
+
+        exitingEdges = new int[vertexCount][];
+        exitingEdgeCounts = new int[vertexCount];
+        enteringEdges = new int[vertexCount][];
+        enteringEdgeCounts = new int[vertexCount];
+
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            exitingEdges[vertexIndex] = new int[4];
+            enteringEdges[vertexIndex] = new int[4];
+        }
+
+        for (int arc = 0; arc < arcCount; arc++) {
+            addEdge(compiledGraph.getArcHead(arc), compiledGraph.getArcTail(arc), compiledGraph.getArcWeight(arc), -1, -1);
+        }
+
+        contracted = new boolean[vertexCount];
+        contractedNeighbourCounts = new int[vertexCount];
+        ranks = new int[vertexCount];
+        priorities = new double[vertexCount];
+        neighbourMarks = new int[vertexCount];
+        Arrays.fill(neighbourMarks, -1);
+
+        forkJoinPool = new ForkJoinPool(parallelism);
+        witnessSearches = new ThreadLocal<WitnessSearch>() {
+            @Override
+            protected WitnessSearch initialValue() {
+                return new WitnessSearch();
+            }
+
+        };
+    }
+
+    void build() {
+        try {
+            int[] allVertexes = new int[vertexCount];
+            for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+                allVertexes[vertexIndex] = vertexIndex;
+            }
+
+            updatePriorities(allVertexes, vertexCount);
+
+            IndexedMinPriorityQueue queue = new IndexedMinPriorityQueue(vertexCount);
+            for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+                queue.insert(vertexIndex, priorities[vertexIndex]);
+            }
+
+            WitnessSearch witnessSearch = witnessSearches.get();
+            int[] neighbours = new int[16];
+            int rank = 0;
+
+            while (!queue.isEmpty()) {
+                int vertexIndex = queue.poll();
+
+                //Lazy update: the priority might have grown since it was computed
+                double priority = computePriority(witnessSearch, vertexIndex);
+                if (!queue.isEmpty() && priority > queue.peekKey()) {
+                    queue.insert(vertexIndex, priority);
+                    continue;
+                }
+
+                contract(witnessSearch, vertexIndex);
+                ranks[vertexIndex] = rank;
+
+                int neighbourCount = 0;
+                for (int side = 0; side < 2; side++) {
+                    int[] edges = (side == 0) ? exitingEdges[vertexIndex] : enteringEdges[vertexIndex];
+                    int count = (side == 0) ? exitingEdgeCounts[vertexIndex] : enteringEdgeCounts[vertexIndex];
+
+                    for (int position = 0; position < count; position++) {
+                        int edge = edges[position];
+                        int neighbour = (side == 0) ? edgeTails[edge] : edgeHeads[edge];
+
+                        if (!contracted[neighbour] && neighbourMarks[neighbour] != rank) {
+                            neighbourMarks[neighbour] = rank;
+
+                            if (neighbourCount == neighbours.length) {
+                                neighbours = Arrays.copyOf(neighbours, neighbourCount * 2);
+                            }
+
+                            contractedNeighbourCounts[neighbour]++;
+                            neighbours[neighbourCount++] = neighbour;
+                        }
+                    }
+                }
+
+                rank++;
+
+                updatePriorities(neighbours, neighbourCount);
+
+                for (int position = 0; position < neighbourCount; position++) {
+                    int neighbour = neighbours[position];
+                    queue.updateKey(neighbour, priorities[neighbour]);
+                }
+            }
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    private void updatePriorities(final int[] vertexes, int count) {
+        if (count < PARALLEL_THRESHOLD) {
+            WitnessSearch witnessSearch = witnessSearches.get();
+
+            for (int position = 0; position < count; position++) {
+                priorities[vertexes[position]] = computePriority(witnessSearch, vertexes[position]);
+            }
+        } else {
+            forkJoinPool.invoke(new PriorityTask(vertexes, 0, count));
+        }
+    }
+
+    /**
+     * Edge difference of the vertex, plus the number of its neighbours
+     * already contracted, to spread the contraction uniformly
+     */
+    private double computePriority(WitnessSearch witnessSearch, int vertexIndex) {
+        int shortcutCount = processShortcuts(witnessSearch, vertexIndex, false);
+
+        int removedEdgeCount = 0;
+
+        for (int position = 0; position < exitingEdgeCounts[vertexIndex]; position++) {
+            if (!contracted[edgeTails[exitingEdges[vertexIndex][position]]]) {
+                removedEdgeCount++;
+            }
+        }
+
+        for (int position = 0; position < enteringEdgeCounts[vertexIndex]; position++) {
+            if (!contracted[edgeHeads[enteringEdges[vertexIndex][position]]]) {
+                removedEdgeCount++;
+            }
+        }
+
+        return shortcutCount - removedEdgeCount + contractedNeighbourCounts[vertexIndex];
+    }
+
+    private void contract(WitnessSearch witnessSearch, int vertexIndex) {
+        processShortcuts(witnessSearch, vertexIndex, true);
+
+        contracted[vertexIndex] = true;
+    }
+
+    /**
+     * Finds the shortcuts required by the contraction of the given vertex,
+     * adding them to the graph if requested.
+     *
+     * @return the number of shortcuts
+     */
+    private int processShortcuts(WitnessSearch witnessSearch, int vertexIndex, boolean addShortcuts) {
+        int[] inEdges = witnessSearch.collectMinEdges(enteringEdges[vertexIndex], enteringEdgeCounts[vertexIndex], false);
+        int inEdgeCount = witnessSearch.collectedEdgeCount;
+
+        int[] outEdges = witnessSearch.collectMinEdges(exitingEdges[vertexIndex], exitingEdgeCounts[vertexIndex], true);
+        int outEdgeCount = witnessSearch.collectedEdgeCount;
+
+        int result = 0;
+
+        for (int inPosition = 0; inPosition < inEdgeCount; inPosition++) {
+            int inEdge = inEdges[inPosition];
+            int sourceIndex = edgeHeads[inEdge];
+            double inWeight = edgeWeights[inEdge];
+
+            double maxPathLength = 0;
+            for (int outPosition = 0; outPosition < outEdgeCount; outPosition++) {
+                maxPathLength = Math.max(maxPathLength, inWeight + edgeWeights[outEdges[outPosition]]);
+            }
+
+            witnessSearch.search(sourceIndex, vertexIndex, maxPathLength);
+
+            for (int outPosition = 0; outPosition < outEdgeCount; outPosition++) {
+                int outEdge = outEdges[outPosition];
+                int targetIndex = edgeTails[outEdge];
+
+                if (targetIndex == sourceIndex) {
+                    continue;
+                }
+
+                double shortcutWeight = inWeight + edgeWeights[outEdge];
+
+                if (witnessSearch.getPathLength(targetIndex) > shortcutWeight) {
+                    result++;
+
+                    if (addShortcuts && !hasEdgeNotHeavierThan(sourceIndex, targetIndex, shortcutWeight)) {
+                        addEdge(sourceIndex, targetIndex, shortcutWeight, inEdge, outEdge);
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private boolean hasEdgeNotHeavierThan(int headIndex, int tailIndex, double weight) {
+        int[] edges = exitingEdges[headIndex];
+
+        for (int position = 0; position < exitingEdgeCounts[headIndex]; position++) {
+            int edge = edges[position];
+
+            if (edgeTails[edge] == tailIndex && edgeWeights[edge] <= weight) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void addEdge(int headIndex, int tailIndex, double weight, int firstChild, int secondChild) {
+        if (edgeCount == edgeHeads.length) {
+            int capacity = edgeCount * 2;
+
+            edgeHeads = Arrays.copyOf(edgeHeads, capacity);
+            edgeTails = Arrays.copyOf(edgeTails, capacity);
+            edgeWeights = Arrays.copyOf(edgeWeights, capacity);
+            edgeFirstChildren = Arrays.copyOf(edgeFirstChildren, capacity);
+            edgeSecondChildren = Arrays.copyOf(edgeSecondChildren, capacity);
+        }
+
+        int edge = edgeCount++;
+
+        edgeHeads[edge] = headIndex;
+        edgeTails[edge] = tailIndex;
+        edgeWeights[edge] = weight;
+        edgeFirstChildren[edge] = firstChild;
+        edgeSecondChildren[edge] = secondChild;
+
+        if (exitingEdgeCounts[headIndex] == exitingEdges[headIndex].length) {
+            exitingEdges[headIndex] = Arrays.copyOf(exitingEdges[headIndex], exitingEdgeCounts[headIndex] * 2);
+        }
+        exitingEdges[headIndex][exitingEdgeCounts[headIndex]++] = edge;
+
+        if (enteringEdgeCounts[tailIndex] == enteringEdges[tailIndex].length) {
+            enteringEdges[tailIndex] = Arrays.copyOf(enteringEdges[tailIndex], enteringEdgeCounts[tailIndex] * 2);
+        }
+        enteringEdges[tailIndex][enteringEdgeCounts[tailIndex]++] = edge;
+    }
+
+    int getEdgeCount() {
+        return edgeCount;
+    }
+
+    int[] getEdgeHeads() {
+        return Arrays.copyOf(edgeHeads, edgeCount);
+    }
+
+    int[] getEdgeTails() {
+        return Arrays.copyOf(edgeTails, edgeCount);
+    }
+
+    double[] getEdgeWeights() {
+        return Arrays.copyOf(edgeWeights, edgeCount);
+    }
+
+    int[] getEdgeFirstChildren() {
+        return Arrays.copyOf(edgeFirstChildren, edgeCount);
+    }
+
+    int[] getEdgeSecondChildren() {
+        return Arrays.copyOf(edgeSecondChildren, edgeCount);
+    }
+
+    int[] getRanks() {
+        return ranks;
+    }
+
+    private class PriorityTask extends RecursiveAction {
+
+        private final int[] vertexes;
+        private final int start;
+        private final int end;
+
+        PriorityTask(int[] vertexes, int start, int end) {
+            this.vertexes = vertexes;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= PARALLEL_THRESHOLD) {
+                WitnessSearch witnessSearch = witnessSearches.get();
+
+                for (int position = start; position < end; position++) {
+                    priorities[vertexes[position]] = computePriority(witnessSearch, vertexes[position]);
+                }
+            } else {
+                int middle = (start + end) >>> 1;
+
+                invokeAll(new PriorityTask(vertexes, start, middle), new PriorityTask(vertexes, middle, end));
+            }
+        }
+
+    }
+
+    /**
+     * Bounded Dijkstra search among the vertexes not yet contracted, skipping
+     * the vertex being contracted; the distances are reset sparsely.
+     */
+    private class WitnessSearch {
+
+        private final double[] pathLengths;
+        private final int[] touchedVertexes;
+        private int touchedVertexCount;
+        private final IndexedMinPriorityQueue queue;
+
+        private final int[] minEdgeSlots;
+        private int[] collectedEdges;
+        private int[] otherCollectedEdges;
+        private int collectedEdgeCount;
+
+        WitnessSearch() {
+            pathLengths = new double[vertexCount];
+            Arrays.fill(pathLengths, Double.POSITIVE_INFINITY);
+
+            touchedVertexes = new int[vertexCount];
+            queue = new IndexedMinPriorityQueue(vertexCount);
+
+            minEdgeSlots = new int[vertexCount];
+            Arrays.fill(minEdgeSlots, -1);
+
+            collectedEdges = new int[16];
+            otherCollectedEdges = new int[16];
+        }
+
+        /**
+         * Keeps, for each neighbour not yet contracted, only the lightest edge;
+         * the result is valid until the second next call.
+         */
+        int[] collectMinEdges(int[] edges, int edgeCount, boolean exiting) {
+            int[] result = otherCollectedEdges;
+            otherCollectedEdges = collectedEdges;
+
+            if (result.length < edgeCount) {
+                result = new int[edgeCount];
+            }
+
+            int count = 0;
+
+            for (int position = 0; position < edgeCount; position++) {
+                int edge = edges[position];
+                int neighbour = exiting ? edgeTails[edge] : edgeHeads[edge];
+
+                if (contracted[neighbour]) {
+                    continue;
+                }
+
+                int slot = minEdgeSlots[neighbour];
+
+                if (slot < 0) {
+                    minEdgeSlots[neighbour] = count;
+                    result[count++] = edge;
+                } else if (edgeWeights[edge] < edgeWeights[result[slot]]) {
+                    result[slot] = edge;
+                }
+            }
+
+            for (int position = 0; position < count; position++) {
+                int edge = result[position];
+                minEdgeSlots[exiting ? edgeTails[edge] : edgeHeads[edge]] = -1;
+            }
+
+            collectedEdges = result;
+            collectedEdgeCount = count;
+
+            return result;
+        }
+
+        void search(int sourceIndex, int excludedIndex, double maxPathLength) {
+            for (int position = 0; position < touchedVertexCount; position++) {
+                pathLengths[touchedVertexes[position]] = Double.POSITIVE_INFINITY;
+            }
+            touchedVertexCount = 0;
+            queue.clear();
+
+            pathLengths[sourceIndex] = 0;
+            touchedVertexes[touchedVertexCount++] = sourceIndex;
+            queue.insert(sourceIndex, 0);
+
+            int settledVertexCount = 0;
+
+            while (!queue.isEmpty() && settledVertexCount < WITNESS_SETTLED_VERTEX_LIMIT) {
+                if (queue.peekKey() > maxPathLength) {
+                    break;
+                }
+
+                int vertexIndex = queue.poll();
+                settledVertexCount++;
+
+                double vertexPathLength = pathLengths[vertexIndex];
+                int[] edges = exitingEdges[vertexIndex];
+
+                for (int position = 0; position < exitingEdgeCounts[vertexIndex]; position++) {
+                    int edge = edges[position];
+                    int tailIndex = edgeTails[edge];
+
+                    if (tailIndex == excludedIndex || contracted[tailIndex]) {
+                        continue;
+                    }
+
+                    double tailPathLength = vertexPathLength + edgeWeights[edge];
+
+                    if (tailPathLength < pathLengths[tailIndex]) {
+                        if (pathLengths[tailIndex] == Double.POSITIVE_INFINITY) {
+                            touchedVertexes[touchedVertexCount++] = tailIndex;
+                        }
+
+                        pathLengths[tailIndex] = tailPathLength;
+                        queue.insertOrDecrease(tailIndex, tailPathLength);
+                    }
+                }
+            }
+        }
+
+        double getPathLength(int vertexIndex) {
+            return pathLengths[vertexIndex];
+        }
+
+    }
+
+}
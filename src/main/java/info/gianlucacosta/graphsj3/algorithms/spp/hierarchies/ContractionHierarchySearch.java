@@ -0,0 +1,288 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.hierarchies;
+
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.IndexedMinPriorityQueue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Bidirectional upward search over a ContractionHierarchy.
+ * <p>
+ * The forward search from the start vertex and the backward search from the
+ * target vertex only follow edges towards higher-ranked vertexes; each of
+ * them stops once its minimum key is not lower than the best path found
+ * where they meet. Shortcuts are unpacked into the arcs of the compiled
+ * graph.
+ * <p>
+ * An instance can run any number of queries, resetting only the vertexes
+ * touched by the previous one; it is not thread-safe, but several instances
+ * can share the same hierarchy.
+ */
+public class ContractionHierarchySearch {
+
+    private final ContractionHierarchy hierarchy;
+    private final double[] forwardPathLengths;
+    private final double[] backwardPathLengths;
+    private final int[] forwardPreviousEdges;
+    private final int[] backwardNextEdges;
+    private final int[] touchedVertexes;
+    private final boolean[] touched;
+    private final IndexedMinPriorityQueue forwardQueue;
+    private final IndexedMinPriorityQueue backwardQueue;
+    private int touchedVertexCount;
+    private double bestPathLength;
+    private int meetingIndex;
+    private int settledVertexCount;
+
+    public ContractionHierarchySearch(ContractionHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+
+        int vertexCount = hierarchy.getCompiledGraph().getVertexCount();
+
+        forwardPathLengths = new double[vertexCount];
+        backwardPathLengths = new double[vertexCount];
+        forwardPreviousEdges = new int[vertexCount];
+        backwardNextEdges = new int[vertexCount];
+
+        Arrays.fill(forwardPathLengths, Double.POSITIVE_INFINITY);
+        Arrays.fill(backwardPathLengths, Double.POSITIVE_INFINITY);
+        Arrays.fill(forwardPreviousEdges, -1);
+        Arrays.fill(backwardNextEdges, -1);
+
+        touchedVertexes = new int[vertexCount];
+        touched = new boolean[vertexCount];
+
+        forwardQueue = new IndexedMinPriorityQueue(vertexCount);
+        backwardQueue = new IndexedMinPriorityQueue(vertexCount);
+    }
+
+    /**
+     * Prepares a new query, discarding the results of the previous one.
+     */
+    public void init(int startIndex, int targetIndex) {
+        for (int position = 0; position < touchedVertexCount; position++) {
+            int vertexIndex = touchedVertexes[position];
+
+            forwardPathLengths[vertexIndex] = Double.POSITIVE_INFINITY;
+            backwardPathLengths[vertexIndex] = Double.POSITIVE_INFINITY;
+            forwardPreviousEdges[vertexIndex] = -1;
+            backwardNextEdges[vertexIndex] = -1;
+            touched[vertexIndex] = false;
+        }
+
+        touchedVertexCount = 0;
+        forwardQueue.clear();
+        backwardQueue.clear();
+
+        bestPathLength = Double.POSITIVE_INFINITY;
+        meetingIndex = -1;
+        settledVertexCount = 0;
+
+        touch(startIndex);
+        forwardPathLengths[startIndex] = 0;
+        forwardQueue.insert(startIndex, 0);
+
+        touch(targetIndex);
+        backwardPathLengths[targetIndex] = 0;
+        backwardQueue.insert(targetIndex, 0);
+
+        updateBestPath(startIndex);
+    }
+
+    /**
+     * Runs a whole query.
+     *
+     * @return the distance from the start vertex to the target vertex, or
+     * positive infinity if the target cannot be reached
+     */
+    public double search(int startIndex, int targetIndex) {
+        init(startIndex, targetIndex);
+
+        while (!isFinished()) {
+            step();
+        }
+
+        return bestPathLength;
+    }
+
+    private boolean isForwardActive() {
+        return !forwardQueue.isEmpty() && forwardQueue.peekKey() < bestPathLength;
+    }
+
+    private boolean isBackwardActive() {
+        return !backwardQueue.isEmpty() && backwardQueue.peekKey() < bestPathLength;
+    }
+
+    public boolean isFinished() {
+        return !isForwardActive() && !isBackwardActive();
+    }
+
+    /**
+     * Settles one vertex, in the search having the lower minimum key.
+     *
+     * @return the settled vertex
+     */
+    public int step() {
+        boolean forwardActive = isForwardActive();
+        boolean backwardActive = isBackwardActive();
+
+        if (!forwardActive && !backwardActive) {
+            throw new IllegalStateException("The search is finished");
+        }
+
+        settledVertexCount++;
+
+        if (forwardActive && (!backwardActive || forwardQueue.peekKey() <= backwardQueue.peekKey())) {
+            int vertexIndex = forwardQueue.poll();
+            double vertexPathLength = forwardPathLengths[vertexIndex];
+
+            for (int position = hierarchy.getUpwardEdgesStart(vertexIndex); position < hierarchy.getUpwardEdgesEnd(vertexIndex); position++) {
+                int edge = hierarchy.getUpwardEdge(position);
+                int tailIndex = hierarchy.getEdgeTail(edge);
+                double tailPathLength = vertexPathLength + hierarchy.getEdgeWeight(edge);
+
+                if (tailPathLength < forwardPathLengths[tailIndex]) {
+                    touch(tailIndex);
+                    forwardPathLengths[tailIndex] = tailPathLength;
+                    forwardPreviousEdges[tailIndex] = edge;
+                    forwardQueue.insertOrDecrease(tailIndex, tailPathLength);
+
+                    updateBestPath(tailIndex);
+                }
+            }
+
+            return vertexIndex;
+        } else {
+            int vertexIndex = backwardQueue.poll();
+            double vertexPathLength = backwardPathLengths[vertexIndex];
+
+            for (int position = hierarchy.getDownwardEdgesStart(vertexIndex); position < hierarchy.getDownwardEdgesEnd(vertexIndex); position++) {
+                int edge = hierarchy.getDownwardEdge(position);
+                int headIndex = hierarchy.getEdgeHead(edge);
+                double headPathLength = vertexPathLength + hierarchy.getEdgeWeight(edge);
+
+                if (headPathLength < backwardPathLengths[headIndex]) {
+                    touch(headIndex);
+                    backwardPathLengths[headIndex] = headPathLength;
+                    backwardNextEdges[headIndex] = edge;
+                    backwardQueue.insertOrDecrease(headIndex, headPathLength);
+
+                    updateBestPath(headIndex);
+                }
+            }
+
+            return vertexIndex;
+        }
+    }
+
+    private void touch(int vertexIndex) {
+        if (!touched[vertexIndex]) {
+            touched[vertexIndex] = true;
+            touchedVertexes[touchedVertexCount++] = vertexIndex;
+        }
+    }
+
+    private void updateBestPath(int vertexIndex) {
+        double pathLength = forwardPathLengths[vertexIndex] + backwardPathLengths[vertexIndex];
+
+        if (pathLength < bestPathLength) {
+            bestPathLength = pathLength;
+            meetingIndex = vertexIndex;
+        }
+    }
+
+    /**
+     * @return the best path length found so far, which is the distance
+     * between the two vertexes once the search is finished
+     */
+    public double getPathLength() {
+        return bestPathLength;
+    }
+
+    public int getSettledVertexCount() {
+        return settledVertexCount;
+    }
+
+    /**
+     * @return the arcs of the compiled graph along the best path found so
+     * far, from the start vertex to the target vertex; empty if no path has
+     * been found
+     */
+    public List<Integer> getPathArcs() {
+        List<Integer> result = new ArrayList<>();
+
+        if (meetingIndex < 0) {
+            return result;
+        }
+
+        Deque<Integer> upwardEdges = new ArrayDeque<>();
+
+        int vertexIndex = meetingIndex;
+        while (forwardPreviousEdges[vertexIndex] >= 0) {
+            int edge = forwardPreviousEdges[vertexIndex];
+
+            upwardEdges.addFirst(edge);
+            vertexIndex = hierarchy.getEdgeHead(edge);
+        }
+
+        for (int edge : upwardEdges) {
+            unpackEdge(edge, result);
+        }
+
+        vertexIndex = meetingIndex;
+        while (backwardNextEdges[vertexIndex] >= 0) {
+            int edge = backwardNextEdges[vertexIndex];
+
+            unpackEdge(edge, result);
+            vertexIndex = hierarchy.getEdgeTail(edge);
+        }
+
+        return result;
+    }
+
+    private void unpackEdge(int edge, List<Integer> arcs) {
+        Deque<Integer> pendingEdges = new ArrayDeque<>();
+        pendingEdges.push(edge);
+
+        while (!pendingEdges.isEmpty()) {
+            int currentEdge = pendingEdges.pop();
+
+            if (hierarchy.isShortcut(currentEdge)) {
+                pendingEdges.push(hierarchy.getEdgeSecondChild(currentEdge));
+                pendingEdges.push(hierarchy.getEdgeFirstChild(currentEdge));
+            } else {
+                arcs.add(currentEdge);
+            }
+        }
+    }
+
+    public ContractionHierarchy getHierarchy() {
+        return hierarchy;
+    }
+
+}
@@ -0,0 +1,40 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.metainfo;
+
+import info.gianlucacosta.helios.metainfo.MetaInfo;
+
+/**
+ * Coordinates of a vertex, employed by the heuristics of goal-directed
+ * searches.
+ * <p>
+ * For geographic graphs, X is the longitude and Y is the latitude, both
+ * expressed in degrees.
+ */
+public interface CoordinatesInfo extends MetaInfo {
+
+    double getX();
+
+    double getY();
+
+}
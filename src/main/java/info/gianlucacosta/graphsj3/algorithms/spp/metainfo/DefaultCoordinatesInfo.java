@@ -0,0 +1,62 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.metainfo;
+
+public class DefaultCoordinatesInfo implements CoordinatesInfo {
+
+    private final double x;
+    private final double y;
+
+    public DefaultCoordinatesInfo(double x, double y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    @Override
+    public double getX() {
+        return x;
+    }
+
+    @Override
+    public double getY() {
+        return y;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof CoordinatesInfo)) {
+            return false;
+        }
+
+        CoordinatesInfo other = (CoordinatesInfo) obj;
+
+        return (x == other.getX())
+                && (y == other.getY());
+    }
+
+    @Override
+    public int hashCode() {
+        return Double.valueOf(x).hashCode() ^ Double.valueOf(y).hashCode();
+    }
+
+}
@@ -0,0 +1,71 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.paths;
+
+import info.gianlucacosta.arcontes.graphs.Link;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Alternative paths between two vertexes, in non-decreasing order of
+ * length.
+ */
+public class KShortestPaths {
+
+    private final List<List<Link>> paths;
+    private final double[] pathLengths;
+
+    /**
+     * @param paths       the links of each path, in path order
+     * @param pathLengths the length of each path; the array is not copied
+     */
+    public KShortestPaths(List<List<Link>> paths, double[] pathLengths) {
+        if (paths.size() != pathLengths.length) {
+            throw new IllegalArgumentException("There must be exactly one length for each path");
+        }
+
+        this.paths = Collections.unmodifiableList(paths);
+        this.pathLengths = pathLengths;
+    }
+
+    public int getPathCount() {
+        return paths.size();
+    }
+
+    /**
+     * @return the links of all the paths, shortest first
+     */
+    public List<List<Link>> getPaths() {
+        return paths;
+    }
+
+    public List<Link> getPath(int rank) {
+        return paths.get(rank);
+    }
+
+    public double getPathLength(int rank) {
+        return pathLengths[rank];
+    }
+
+}
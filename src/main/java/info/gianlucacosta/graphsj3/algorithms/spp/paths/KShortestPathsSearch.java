@@ -0,0 +1,311 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.paths;
+
+import info.gianlucacosta.arcontes.graphs.Link;
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.IndexRangeTask;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.IndexedMinPriorityQueue;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Yen's algorithm for the k shortest loopless paths between two vertexes.
+ * <p>
+ * Each new path is derived from the previous one: for every vertex along
+ * it, a spur search looks for the shortest path to the target that shares
+ * the same root prefix but avoids both the vertexes of the root and the
+ * arcs already taken, after that root, by the accepted paths. The spur
+ * searches of a path run concurrently over the same read-only
+ * CompiledGraph; each worker thread hides vertexes and arcs by stamping its
+ * own exclusion masks, so that the graph is never copied.
+ * <p>
+ * As in the CompiledGraph, parallel links are reduced to the cheapest one;
+ * ties between paths having the same length are broken by arc count, then by
+ * arc order, so that the results are deterministic.
+ */
+public class KShortestPathsSearch {
+
+    private final CompiledGraph compiledGraph;
+    private final int parallelism;
+
+    public KShortestPathsSearch(CompiledGraph compiledGraph) {
+        this(compiledGraph, Runtime.getRuntime().availableProcessors());
+    }
+
+    public KShortestPathsSearch(CompiledGraph compiledGraph, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be at least 1");
+        }
+
+        compiledGraph.requireNonNegativeArcWeights();
+
+        this.compiledGraph = compiledGraph;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return at most the given number of loopless paths from the start vertex
+     * to the target vertex, shortest first
+     */
+    public KShortestPaths search(Vertex startVertex, Vertex targetVertex, int pathCount) {
+        if (pathCount < 1) {
+            throw new IllegalArgumentException("The number of paths must be at least 1");
+        }
+
+        final int startIndex = compiledGraph.getVertexIndex(startVertex);
+        final int targetIndex = compiledGraph.getVertexIndex(targetVertex);
+
+        final ThreadLocal<SpurSearch> searches = new ThreadLocal<SpurSearch>() {
+            @Override
+            protected SpurSearch initialValue() {
+                return new SpurSearch();
+            }
+
+        };
+
+        final List<List<Integer>> acceptedPaths = new ArrayList<>();
+        List<Double> acceptedLengths = new ArrayList<>();
+
+        PriorityQueue<CandidatePath> candidates = new PriorityQueue<>();
+        Set<List<Integer>> knownPaths = new HashSet<>();
+
+        List<Integer> shortestPath = searches.get().search(startIndex, targetIndex, Collections.<Integer>emptyList(), acceptedPaths);
+
+        if (shortestPath != null) {
+            candidates.add(new CandidatePath(shortestPath, getPathLength(shortestPath)));
+            knownPaths.add(shortestPath);
+        }
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+
+        try {
+            while (!candidates.isEmpty()) {
+                CandidatePath bestCandidate = candidates.poll();
+
+                acceptedPaths.add(bestCandidate.arcs);
+                acceptedLengths.add(bestCandidate.length);
+
+                if (acceptedPaths.size() == pathCount) {
+                    break;
+                }
+
+                final List<Integer> lastPath = bestCandidate.arcs;
+                final List<List<Integer>> spurPaths = new ArrayList<>(Collections.<List<Integer>>nCopies(lastPath.size(), null));
+
+                forkJoinPool.invoke(new IndexRangeTask(0, lastPath.size(), new IndexRangeTask.Body() {
+                    @Override
+                    public void run(int spurPosition) {
+                        spurPaths.set(spurPosition, searches.get().search(startIndex, targetIndex, lastPath.subList(0, spurPosition), acceptedPaths));
+                    }
+
+                }));
+
+                for (List<Integer> spurPath : spurPaths) {
+                    if (spurPath != null && knownPaths.add(spurPath)) {
+                        candidates.add(new CandidatePath(spurPath, getPathLength(spurPath)));
+                    }
+                }
+            }
+        } finally {
+            forkJoinPool.shutdown();
+        }
+
+        List<List<Link>> paths = new ArrayList<>();
+        double[] pathLengths = new double[acceptedPaths.size()];
+
+        for (int rank = 0; rank < pathLengths.length; rank++) {
+            List<Link> pathLinks = new ArrayList<>();
+
+            for (int arc : acceptedPaths.get(rank)) {
+                pathLinks.add(compiledGraph.getArcLink(arc));
+            }
+
+            paths.add(Collections.unmodifiableList(pathLinks));
+            pathLengths[rank] = acceptedLengths.get(rank);
+        }
+
+        return new KShortestPaths(paths, pathLengths);
+    }
+
+    private double getPathLength(List<Integer> pathArcs) {
+        double result = 0;
+
+        for (int arc : pathArcs) {
+            result += compiledGraph.getArcWeight(arc);
+        }
+
+        return result;
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    private static class CandidatePath implements Comparable<CandidatePath> {
+
+        private final List<Integer> arcs;
+        private final double length;
+
+        CandidatePath(List<Integer> arcs, double length) {
+            this.arcs = arcs;
+            this.length = length;
+        }
+
+        @Override
+        public int compareTo(CandidatePath other) {
+            int result = Double.compare(length, other.length);
+
+            if (result == 0) {
+                result = Integer.compare(arcs.size(), other.arcs.size());
+            }
+
+            for (int position = 0; result == 0 && position < arcs.size(); position++) {
+                result = Integer.compare(arcs.get(position), other.arcs.get(position));
+            }
+
+            return result;
+        }
+
+    }
+
+    /**
+     * Dijkstra search towards the target, skipping the vertexes and the arcs
+     * stamped by the current query
+     */
+    private class SpurSearch {
+
+        private final double[] pathLengths;
+        private final int[] previousArcs;
+        private final int[] touchedVertexes;
+        private final int[] vertexExclusions;
+        private final int[] arcExclusions;
+        private final IndexedMinPriorityQueue queue;
+        private int touchedVertexCount;
+        private int exclusionStamp;
+
+        SpurSearch() {
+            int vertexCount = compiledGraph.getVertexCount();
+
+            pathLengths = new double[vertexCount];
+            previousArcs = new int[vertexCount];
+            touchedVertexes = new int[vertexCount];
+            vertexExclusions = new int[vertexCount];
+            arcExclusions = new int[compiledGraph.getArcCount()];
+            queue = new IndexedMinPriorityQueue(vertexCount);
+
+            Arrays.fill(pathLengths, Double.POSITIVE_INFINITY);
+            Arrays.fill(previousArcs, -1);
+        }
+
+        /**
+         * @return the root arcs followed by the shortest spur path from the
+         * end of the root to the target, or null if the target cannot be
+         * reached
+         */
+        List<Integer> search(int startIndex, int targetIndex, List<Integer> rootArcs, List<List<Integer>> acceptedPaths) {
+            exclusionStamp++;
+
+            int spurIndex = startIndex;
+
+            for (int rootArc : rootArcs) {
+                vertexExclusions[spurIndex] = exclusionStamp;
+                spurIndex = compiledGraph.getArcTail(rootArc);
+            }
+
+            int rootLength = rootArcs.size();
+
+            for (List<Integer> acceptedPath : acceptedPaths) {
+                if (acceptedPath.size() > rootLength && acceptedPath.subList(0, rootLength).equals(rootArcs)) {
+                    arcExclusions[acceptedPath.get(rootLength)] = exclusionStamp;
+                }
+            }
+
+            for (int position = 0; position < touchedVertexCount; position++) {
+                int vertexIndex = touchedVertexes[position];
+
+                pathLengths[vertexIndex] = Double.POSITIVE_INFINITY;
+                previousArcs[vertexIndex] = -1;
+            }
+
+            touchedVertexCount = 0;
+            queue.clear();
+
+            touchedVertexes[touchedVertexCount++] = spurIndex;
+            pathLengths[spurIndex] = 0;
+            queue.insert(spurIndex, 0);
+
+            while (!queue.isEmpty()) {
+                int vertexIndex = queue.poll();
+
+                if (vertexIndex == targetIndex) {
+                    LinkedList<Integer> spurArcs = new LinkedList<>();
+
+                    while (vertexIndex != spurIndex) {
+                        int previousArc = previousArcs[vertexIndex];
+
+                        spurArcs.addFirst(previousArc);
+                        vertexIndex = compiledGraph.getArcHead(previousArc);
+                    }
+
+                    List<Integer> result = new ArrayList<>(rootArcs);
+                    result.addAll(spurArcs);
+
+                    return result;
+                }
+
+                double vertexPathLength = pathLengths[vertexIndex];
+
+                for (int arc = compiledGraph.getExitingArcsStart(vertexIndex); arc < compiledGraph.getExitingArcsEnd(vertexIndex); arc++) {
+                    int tailIndex = compiledGraph.getArcTail(arc);
+
+                    if (arcExclusions[arc] == exclusionStamp || vertexExclusions[tailIndex] == exclusionStamp) {
+                        continue;
+                    }
+
+                    double tailPathLength = vertexPathLength + compiledGraph.getArcWeight(arc);
+
+                    if (tailPathLength < pathLengths[tailIndex]) {
+                        if (Double.isInfinite(pathLengths[tailIndex])) {
+                            touchedVertexes[touchedVertexCount++] = tailIndex;
+                        }
+
+                        pathLengths[tailIndex] = tailPathLength;
+                        previousArcs[tailIndex] = arc;
+                        queue.insertOrDecrease(tailIndex, tailPathLength);
+                    }
+                }
+            }
+
+            return null;
+        }
+
+    }
+
+}
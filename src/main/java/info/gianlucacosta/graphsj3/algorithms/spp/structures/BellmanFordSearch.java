@@ -0,0 +1,371 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.structures;
+
+import info.gianlucacosta.arcontes.graphs.Link;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Queue-based Bellman-Ford search over a CompiledGraph, supporting negative
+ * arc weights.
+ * <p>
+ * Vertexes whose distance decreases are put into a work queue, using the
+ * Small Label First rule - a vertex goes to the front when its distance is
+ * lower than the one of the front vertex - and the Large Label Last rule -
+ * the front vertex is moved to the back while its distance is greater than
+ * the average distance in the queue.
+ * <p>
+ * Negative cycles are detected by looking for cycles among the previous
+ * arcs, which only appear when a negative cycle is reachable; the check
+ * costs O(V) and runs once every V relaxations, so its cost is amortized.
+ * <p>
+ * Each search overwrites the results of the previous one. Instances are not
+ * thread-safe, but several instances can share the same CompiledGraph.
+ */
+public class BellmanFordSearch {
+
+    private final CompiledGraph compiledGraph;
+    private final int vertexCount;
+    private final double[] pathLengths;
+    private final int[] previousArcs;
+    private final int[] queue;
+    private final boolean[] queued;
+    private final int[] walkMarks;
+    private int queueHead;
+    private int queueSize;
+    private double queuedPathLengthSum;
+    private long relaxationCount;
+    private long nextCycleCheck;
+    private int scannedVertexCount;
+    private int lastScannedVertex;
+    private List<Link> negativeCycleLinks;
+    private double negativeCycleWeight;
+    private boolean finished;
+
+    public BellmanFordSearch(CompiledGraph compiledGraph) {
+        this.compiledGraph = compiledGraph;
+
+        vertexCount = compiledGraph.getVertexCount();
+
+        pathLengths = new double[vertexCount];
+        previousArcs = new int[vertexCount];
+        queue = new int[vertexCount];
+        queued = new boolean[vertexCount];
+        walkMarks = new int[vertexCount];
+    }
+
+    /**
+     * Prepares a new search from the given source vertex.
+     */
+    public void init(int sourceIndex) {
+        reset();
+
+        Arrays.fill(pathLengths, Double.POSITIVE_INFINITY);
+
+        pathLengths[sourceIndex] = 0;
+        enqueue(sourceIndex);
+    }
+
+    /**
+     * Prepares a new search from a virtual vertex connected to every vertex
+     * by a zero-weight arc: all the vertexes start at distance 0, without a
+     * previous arc. The resulting distances are feasible potentials.
+     */
+    public void initFromAllVertexes() {
+        reset();
+
+        Arrays.fill(pathLengths, 0);
+
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            enqueue(vertexIndex);
+        }
+    }
+
+    private void reset() {
+        Arrays.fill(previousArcs, -1);
+        Arrays.fill(queued, false);
+        Arrays.fill(walkMarks, -1);
+
+        queueHead = 0;
+        queueSize = 0;
+        queuedPathLengthSum = 0;
+        relaxationCount = 0;
+        nextCycleCheck = vertexCount;
+        scannedVertexCount = 0;
+        lastScannedVertex = -1;
+        negativeCycleLinks = null;
+        negativeCycleWeight = 0;
+        finished = false;
+    }
+
+    /**
+     * Runs a whole search from the given source vertex.
+     *
+     * @return false if a negative cycle is reachable from the source
+     */
+    public boolean search(int sourceIndex) {
+        init(sourceIndex);
+
+        return run();
+    }
+
+    /**
+     * Runs a whole search from the virtual vertex connected to every vertex.
+     *
+     * @return false if the graph contains a negative cycle
+     */
+    public boolean searchFromAllVertexes() {
+        initFromAllVertexes();
+
+        return run();
+    }
+
+    private boolean run() {
+        while (!finished) {
+            step();
+        }
+
+        return negativeCycleLinks == null;
+    }
+
+    /**
+     * Scans the arcs exiting from the next vertex in the queue.
+     *
+     * @return false if the search is complete, either because the queue is
+     * empty or because a negative cycle was found
+     */
+    public boolean step() {
+        if (finished) {
+            return false;
+        }
+
+        if (queueSize == 0) {
+            finished = true;
+            checkNegativeLoops();
+            return false;
+        }
+
+        int vertexIndex = dequeue();
+        lastScannedVertex = vertexIndex;
+        scannedVertexCount++;
+
+        double vertexPathLength = pathLengths[vertexIndex];
+
+        for (int arc = compiledGraph.getExitingArcsStart(vertexIndex); arc < compiledGraph.getExitingArcsEnd(vertexIndex); arc++) {
+            int tailIndex = compiledGraph.getArcTail(arc);
+            double tailPathLength = vertexPathLength + compiledGraph.getArcWeight(arc);
+
+            if (tailPathLength < pathLengths[tailIndex]) {
+                if (queued[tailIndex]) {
+                    queuedPathLengthSum -= pathLengths[tailIndex] - tailPathLength;
+                }
+
+                pathLengths[tailIndex] = tailPathLength;
+                previousArcs[tailIndex] = arc;
+                relaxationCount++;
+
+                if (!queued[tailIndex]) {
+                    enqueue(tailIndex);
+                }
+            }
+        }
+
+        if (relaxationCount >= nextCycleCheck) {
+            nextCycleCheck = relaxationCount + vertexCount;
+
+            if (findNegativeCycle()) {
+                finished = true;
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Small Label First: the vertex goes to the front if its distance is lower
+     * than the one of the current front vertex
+     */
+    private void enqueue(int vertexIndex) {
+        double pathLength = pathLengths[vertexIndex];
+
+        if (queueSize > 0 && pathLength < pathLengths[queue[queueHead]]) {
+            queueHead = (queueHead + vertexCount - 1) % vertexCount;
+            queue[queueHead] = vertexIndex;
+        } else {
+            queue[(queueHead + queueSize) % vertexCount] = vertexIndex;
+        }
+
+        queueSize++;
+        queued[vertexIndex] = true;
+        queuedPathLengthSum += pathLength;
+    }
+
+    /**
+     * Large Label Last: front vertexes above the average distance are moved to
+     * the back; at least one vertex is not above the average, so the loop ends
+     */
+    private int dequeue() {
+        double averagePathLength = queuedPathLengthSum / queueSize;
+
+        for (int rotation = 1; rotation < queueSize; rotation++) {
+            int frontVertex = queue[queueHead];
+
+            if (pathLengths[frontVertex] <= averagePathLength) {
+                break;
+            }
+
+            queueHead = (queueHead + 1) % vertexCount;
+            queue[(queueHead + queueSize - 1) % vertexCount] = frontVertex;
+        }
+
+        int result = queue[queueHead];
+
+        queueHead = (queueHead + 1) % vertexCount;
+        queueSize--;
+        queued[result] = false;
+        queuedPathLengthSum -= pathLengths[result];
+
+        if (queueSize == 0) {
+            queuedPathLengthSum = 0;
+        }
+
+        return result;
+    }
+
+    /**
+     * Walks the previous arcs from every vertex, marking each walk with its
+     * starting vertex: reaching a vertex marked by the same walk closes a
+     * cycle, which is necessarily negative.
+     */
+    private boolean findNegativeCycle() {
+        Arrays.fill(walkMarks, -1);
+
+        for (int startIndex = 0; startIndex < vertexCount; startIndex++) {
+            int vertexIndex = startIndex;
+
+            while (vertexIndex >= 0 && walkMarks[vertexIndex] < 0) {
+                walkMarks[vertexIndex] = startIndex;
+
+                int previousArc = previousArcs[vertexIndex];
+                vertexIndex = (previousArc >= 0) ? compiledGraph.getArcHead(previousArc) : -1;
+            }
+
+            if (vertexIndex >= 0 && walkMarks[vertexIndex] == startIndex) {
+                LinkedList<Link> cycleLinks = new LinkedList<>();
+                double cycleWeight = 0;
+
+                int cycleVertex = vertexIndex;
+                do {
+                    int previousArc = previousArcs[cycleVertex];
+
+                    cycleLinks.addFirst(compiledGraph.getArcLink(previousArc));
+                    cycleWeight += compiledGraph.getArcWeight(previousArc);
+
+                    cycleVertex = compiledGraph.getArcHead(previousArc);
+                } while (cycleVertex != vertexIndex);
+
+                negativeCycleLinks = Collections.unmodifiableList(cycleLinks);
+                negativeCycleWeight = cycleWeight;
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Loops are not arcs of the compiled graph, so a reached negative loop is
+     * checked apart
+     */
+    private void checkNegativeLoops() {
+        List<Link> negativeLoopLinks = compiledGraph.getNegativeLoopLinks();
+
+        for (int position = 0; position < negativeLoopLinks.size(); position++) {
+            Link loopLink = negativeLoopLinks.get(position);
+
+            if (!Double.isInfinite(pathLengths[compiledGraph.getVertexIndex(loopLink.getVertex1())])) {
+                negativeCycleLinks = Collections.singletonList(loopLink);
+                negativeCycleWeight = compiledGraph.getNegativeLoopWeight(position);
+                return;
+            }
+        }
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * @return the links of the negative cycle found, in path order, or null if
+     * no negative cycle was found
+     */
+    public List<Link> getNegativeCycleLinks() {
+        return negativeCycleLinks;
+    }
+
+    public double getNegativeCycleWeight() {
+        return negativeCycleWeight;
+    }
+
+    /**
+     * @return the current distance of the vertex, which is final once the
+     * search completes without negative cycles; positive infinity if the
+     * vertex was not reached
+     */
+    public double getPathLength(int vertexIndex) {
+        return pathLengths[vertexIndex];
+    }
+
+    /**
+     * @return the last arc of the current path to the vertex, or -1 for the
+     * source and for the vertexes not reached
+     */
+    public int getPreviousArc(int vertexIndex) {
+        return previousArcs[vertexIndex];
+    }
+
+    /**
+     * @return the vertex scanned by the last step, or -1
+     */
+    public int getLastScannedVertex() {
+        return lastScannedVertex;
+    }
+
+    public int getScannedVertexCount() {
+        return scannedVertexCount;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+}
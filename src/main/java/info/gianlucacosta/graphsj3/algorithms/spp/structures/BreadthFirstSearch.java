@@ -0,0 +1,342 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.structures;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Parallel direction-optimizing breadth-first search over a CompiledGraph,
+ * whose frontiers are bitsets of 64-vertex words.
+ * <p>
+ * Each level is expanded either top-down - the frontier vertexes visit
+ * their exiting arcs - or bottom-up - the unvisited vertexes look for an
+ * entering arc from the frontier, stopping at the first one. The search
+ * switches to bottom-up when the arcs exiting from the frontier exceed
+ * 1/{@value #TOP_DOWN_ARC_FACTOR} of the arcs exiting from the unvisited
+ * vertexes, and back to top-down when the frontier shrinks below
+ * 1/{@value #BOTTOM_UP_VERTEX_FACTOR} of the vertexes.
+ * <p>
+ * Both directions give each vertex the first entering arc - in the order
+ * of the compiled graph, hence from the lowest head index - coming from the
+ * previous level, so the result does not depend on the scheduling of the
+ * threads. The reached vertexes are listed by level and, within each level,
+ * by index: the order in which {@link info.gianlucacosta.graphsj3.algorithms.spp.Spp}
+ * settles them when all the arcs have the same positive weight.
+ * <p>
+ * Instances are not thread-safe, but several instances can share the same
+ * CompiledGraph and pool.
+ */
+public class BreadthFirstSearch {
+
+    private static final int TOP_DOWN_ARC_FACTOR = 14;
+    private static final int BOTTOM_UP_VERTEX_FACTOR = 24;
+    private static final int PARALLEL_THRESHOLD = 16;
+
+    /**
+     * @return true if all the arcs of the given graph have the same positive,
+     * finite weight, so that the shortest paths are the paths having the
+     * fewest arcs
+     */
+    public static boolean hasUniformWeights(CompiledGraph compiledGraph) {
+        if (compiledGraph.getArcCount() == 0) {
+            return false;
+        }
+
+        double weight = compiledGraph.getArcWeight(0);
+
+        if (!(weight > 0) || Double.isInfinite(weight * compiledGraph.getVertexCount())) {
+            return false;
+        }
+
+        for (int arc = 1; arc < compiledGraph.getArcCount(); arc++) {
+            if (compiledGraph.getArcWeight(arc) != weight) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private final CompiledGraph compiledGraph;
+    private final ForkJoinPool forkJoinPool;
+    private final int vertexCount;
+    private final int wordCount;
+
+    private final long[] visited;
+    private final long[] frontier;
+    private final AtomicLongArray nextFrontier;
+    private final AtomicIntegerArray previousArcs;
+    private final int[] levels;
+    private final int[] reachedVertexes;
+    private int reachedVertexCount;
+    private int bottomUpLevelCount;
+
+    /**
+     * @param forkJoinPool the pool running the expansion of large frontiers,
+     *                     or null to run the search in the calling thread
+     */
+    public BreadthFirstSearch(CompiledGraph compiledGraph, ForkJoinPool forkJoinPool) {
+        this.compiledGraph = compiledGraph;
+        this.forkJoinPool = forkJoinPool;
+
+        vertexCount = compiledGraph.getVertexCount();
+        wordCount = (vertexCount + 63) >>> 6;
+
+        visited = new long[wordCount];
+        frontier = new long[wordCount];
+        nextFrontier = new AtomicLongArray(wordCount);
+        previousArcs = new AtomicIntegerArray(vertexCount);
+        levels = new int[vertexCount];
+        reachedVertexes = new int[vertexCount];
+    }
+
+    /**
+     * Runs a whole search from the given source vertex, discarding the
+     * results of the previous one.
+     */
+    public void search(int sourceIndex) {
+        Arrays.fill(visited, 0);
+        Arrays.fill(frontier, 0);
+        Arrays.fill(levels, -1);
+
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            previousArcs.set(vertexIndex, -1);
+        }
+
+        reachedVertexCount = 0;
+        bottomUpLevelCount = 0;
+
+        visited[sourceIndex >>> 6] |= 1L << sourceIndex;
+        frontier[sourceIndex >>> 6] |= 1L << sourceIndex;
+        levels[sourceIndex] = 0;
+        reachedVertexes[reachedVertexCount++] = sourceIndex;
+
+        long frontierArcCount = getOutDegree(sourceIndex);
+        long unvisitedArcCount = compiledGraph.getArcCount() - frontierArcCount;
+        int frontierSize = 1;
+        boolean bottomUp = false;
+
+        for (int level = 1; frontierSize > 0; level++) {
+            if (bottomUp) {
+                bottomUp = frontierSize >= vertexCount / BOTTOM_UP_VERTEX_FACTOR;
+            } else {
+                bottomUp = frontierArcCount > unvisitedArcCount / TOP_DOWN_ARC_FACTOR;
+            }
+
+            if (bottomUp) {
+                bottomUpLevelCount++;
+            }
+
+            expand(bottomUp);
+
+            //Collecting the new level in index order, which also becomes the next frontier
+            frontierSize = 0;
+            frontierArcCount = 0;
+
+            for (int word = 0; word < wordCount; word++) {
+                long bits = nextFrontier.get(word);
+                nextFrontier.set(word, 0);
+
+                frontier[word] = bits;
+                visited[word] |= bits;
+
+                while (bits != 0) {
+                    int vertexIndex = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+
+                    levels[vertexIndex] = level;
+                    reachedVertexes[reachedVertexCount++] = vertexIndex;
+
+                    frontierSize++;
+                    frontierArcCount += getOutDegree(vertexIndex);
+                }
+            }
+
+            unvisitedArcCount -= frontierArcCount;
+        }
+    }
+
+    private int getOutDegree(int vertexIndex) {
+        return compiledGraph.getExitingArcsEnd(vertexIndex) - compiledGraph.getExitingArcsStart(vertexIndex);
+    }
+
+    private void expand(boolean bottomUp) {
+        if (forkJoinPool == null || wordCount < PARALLEL_THRESHOLD) {
+            expandRange(0, wordCount, bottomUp);
+        } else {
+            forkJoinPool.invoke(new ExpansionTask(0, wordCount, bottomUp));
+        }
+    }
+
+    private void expandRange(int startWord, int endWord, boolean bottomUp) {
+        if (bottomUp) {
+            expandBottomUp(startWord, endWord);
+        } else {
+            expandTopDown(startWord, endWord);
+        }
+    }
+
+    private void expandTopDown(int startWord, int endWord) {
+        for (int word = startWord; word < endWord; word++) {
+            long bits = frontier[word];
+
+            while (bits != 0) {
+                int vertexIndex = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+
+                for (int arc = compiledGraph.getExitingArcsStart(vertexIndex); arc < compiledGraph.getExitingArcsEnd(vertexIndex); arc++) {
+                    int tailIndex = compiledGraph.getArcTail(arc);
+
+                    if ((visited[tailIndex >>> 6] & (1L << tailIndex)) != 0) {
+                        continue;
+                    }
+
+                    //Keeping the lowest arc, whatever thread reaches the tail first
+                    while (true) {
+                        int currentArc = previousArcs.get(tailIndex);
+
+                        if ((currentArc >= 0 && currentArc <= arc) || previousArcs.compareAndSet(tailIndex, currentArc, arc)) {
+                            break;
+                        }
+                    }
+
+                    setNextFrontierBit(tailIndex);
+                }
+            }
+        }
+    }
+
+    private void setNextFrontierBit(int vertexIndex) {
+        int word = vertexIndex >>> 6;
+        long bit = 1L << vertexIndex;
+
+        while (true) {
+            long currentBits = nextFrontier.get(word);
+
+            if ((currentBits & bit) != 0 || nextFrontier.compareAndSet(word, currentBits, currentBits | bit)) {
+                return;
+            }
+        }
+    }
+
+    private void expandBottomUp(int startWord, int endWord) {
+        for (int word = startWord; word < endWord; word++) {
+            long unvisitedBits = ~visited[word];
+
+            if (word == wordCount - 1 && (vertexCount & 63) != 0) {
+                unvisitedBits &= (1L << vertexCount) - 1;
+            }
+
+            long foundBits = 0;
+
+            while (unvisitedBits != 0) {
+                int vertexIndex = (word << 6) + Long.numberOfTrailingZeros(unvisitedBits);
+                unvisitedBits &= unvisitedBits - 1;
+
+                //The entering arcs are sorted by head, so the first one found is the lowest
+                for (int position = compiledGraph.getEnteringArcsStart(vertexIndex); position < compiledGraph.getEnteringArcsEnd(vertexIndex); position++) {
+                    int arc = compiledGraph.getEnteringArc(position);
+                    int headIndex = compiledGraph.getArcHead(arc);
+
+                    if ((frontier[headIndex >>> 6] & (1L << headIndex)) != 0) {
+                        previousArcs.set(vertexIndex, arc);
+                        foundBits |= 1L << vertexIndex;
+                        break;
+                    }
+                }
+            }
+
+            //Each word of the next frontier is only written by the task owning it
+            nextFrontier.set(word, foundBits);
+        }
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    /**
+     * @return the number of arcs in the shortest path from the source to the
+     * given vertex, or -1 if the vertex cannot be reached
+     */
+    public int getLevel(int vertexIndex) {
+        return levels[vertexIndex];
+    }
+
+    /**
+     * @return the arc preceding the given vertex along its shortest path, or
+     * -1 for the source and for the vertexes that cannot be reached
+     */
+    public int getPreviousArc(int vertexIndex) {
+        return previousArcs.get(vertexIndex);
+    }
+
+    public int getReachedVertexCount() {
+        return reachedVertexCount;
+    }
+
+    /**
+     * @return the vertex at the given position of the reached vertexes,
+     * sorted by level and then by index
+     */
+    public int getReachedVertex(int position) {
+        return reachedVertexes[position];
+    }
+
+    /**
+     * @return the number of levels of the last search expanded bottom-up
+     */
+    public int getBottomUpLevelCount() {
+        return bottomUpLevelCount;
+    }
+
+    private class ExpansionTask extends RecursiveAction {
+
+        private final int startWord;
+        private final int endWord;
+        private final boolean bottomUp;
+
+        public ExpansionTask(int startWord, int endWord, boolean bottomUp) {
+            this.startWord = startWord;
+            this.endWord = endWord;
+            this.bottomUp = bottomUp;
+        }
+
+        @Override
+        protected void compute() {
+            if (endWord - startWord <= PARALLEL_THRESHOLD) {
+                expandRange(startWord, endWord, bottomUp);
+            } else {
+                int middleWord = (startWord + endWord) >>> 1;
+
+                invokeAll(new ExpansionTask(startWord, middleWord, bottomUp), new ExpansionTask(middleWord, endWord, bottomUp));
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,370 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.structures;
+
+import info.gianlucacosta.arcontes.graphs.Graph;
+import info.gianlucacosta.arcontes.graphs.GraphContext;
+import info.gianlucacosta.arcontes.graphs.Link;
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.arcontes.graphs.analysis.DefaultOrientedGraphAnalyzer;
+import info.gianlucacosta.arcontes.graphs.analysis.OrientedGraphAnalyzer;
+import info.gianlucacosta.arcontes.graphs.metainfo.WeightInfo;
+import info.gianlucacosta.helios.metainfo.MetaInfoException;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+
+import java.util.*;
+
+/**
+ * Immutable compressed-sparse-row snapshot of the arcs of an oriented graph.
+ * <p>
+ * Vertexes are identified by dense indexes following the order of
+ * {@link Graph#getVertexes()}; the arcs exiting from each vertex are stored
+ * contiguously, in the order of {@link Graph#getLinks()}, and a second index
+ * lists the arcs entering each vertex. Parallel arcs are
+ * reduced to the first one having minimum weight, and loops are discarded,
+ * as they can never belong to a shortest path; the loops having negative
+ * weight, which are negative cycles by themselves, are only listed apart.
+ * <p>
+ * Later changes to the graph or to its weights are not reflected by the
+ * snapshot.
+ */
+public class CompiledGraph {
+
+    private final List<Vertex> vertexes;
+    private final Map<Vertex, Integer> vertexIndexes;
+    private final int[] exitingArcOffsets;
+    private final int[] arcHeads;
+    private final int[] arcTails;
+    private final double[] arcWeights;
+    private final double minArcWeight;
+    private final Link[] arcLinks;
+    private final int[] enteringArcOffsets;
+    private final int[] enteringArcs;
+    private final List<Link> negativeLoopLinks;
+    private final double[] negativeLoopWeights;
+
+    public CompiledGraph(GraphContext graphContext) {
+        Graph graph = graphContext.getGraph();
+        MetaInfoRepository metaInfoRepository = graphContext.getMetaInfoRepository();
+        OrientedGraphAnalyzer graphAnalyzer = new DefaultOrientedGraphAnalyzer(graphContext);
+
+        vertexes = Collections.unmodifiableList(new ArrayList<>(graph.getVertexes()));
+
+        int vertexCount = vertexes.size();
+
+        vertexIndexes = new HashMap<>(vertexCount * 2);
+        for (int index = 0; index < vertexCount; index++) {
+            vertexIndexes.put(vertexes.get(index), index);
+        }
+
+        List<Link> links = new ArrayList<>(graph.getLinks());
+        int linkCount = links.size();
+
+        int[] linkHeads = new int[linkCount];
+        int[] linkTails = new int[linkCount];
+        double[] linkWeights = new double[linkCount];
+        int[] linkOffsets = new int[vertexCount + 1];
+        List<Link> loopLinks = new ArrayList<>();
+        List<Double> loopWeights = new ArrayList<>();
+
+        for (int linkIndex = 0; linkIndex < linkCount; linkIndex++) {
+            Link link = links.get(linkIndex);
+
+            int head = getVertexIndex(graphAnalyzer.getHead(link));
+            int tail = getVertexIndex(graphAnalyzer.getTail(link));
+
+            if (head == tail) {
+                //Loops without weight are ignored, as they can never be negative cycles
+                WeightInfo<Double> loopWeightInfo;
+                try {
+                    loopWeightInfo = metaInfoRepository.getMetaInfo(link, WeightInfo.class);
+                } catch (MetaInfoException ex) {
+                    loopWeightInfo = null;
+                }
+
+                if (loopWeightInfo != null && loopWeightInfo.getWeight() < 0) {
+                    loopLinks.add(link);
+                    loopWeights.add(loopWeightInfo.getWeight());
+                }
+
+                linkHeads[linkIndex] = -1;
+                continue;
+            }
+
+            WeightInfo<Double> linkWeightInfo = metaInfoRepository.getMetaInfo(link, WeightInfo.class);
+
+            linkHeads[linkIndex] = head;
+            linkTails[linkIndex] = tail;
+            linkWeights[linkIndex] = linkWeightInfo.getWeight();
+            linkOffsets[head + 1]++;
+        }
+
+        negativeLoopLinks = Collections.unmodifiableList(loopLinks);
+        negativeLoopWeights = new double[loopWeights.size()];
+        for (int position = 0; position < negativeLoopWeights.length; position++) {
+            negativeLoopWeights[position] = loopWeights.get(position);
+        }
+
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            linkOffsets[vertexIndex + 1] += linkOffsets[vertexIndex];
+        }
+
+        //Bucketing the links by head, preserving their relative order
+        int[] sortedLinks = new int[linkOffsets[vertexCount]];
+        int[] insertionPositions = Arrays.copyOf(linkOffsets, vertexCount);
+
+        for (int linkIndex = 0; linkIndex < linkCount; linkIndex++) {
+            int head = linkHeads[linkIndex];
+
+            if (head >= 0) {
+                sortedLinks[insertionPositions[head]++] = linkIndex;
+            }
+        }
+
+        //Reducing the parallel arcs to the first one having minimum weight
+        exitingArcOffsets = new int[vertexCount + 1];
+        int[] tails = new int[sortedLinks.length];
+        double[] weights = new double[sortedLinks.length];
+        Link[] arcs = new Link[sortedLinks.length];
+
+        int[] tailArcs = new int[vertexCount];
+        Arrays.fill(tailArcs, -1);
+
+        int arcCount = 0;
+
+        for (int head = 0; head < vertexCount; head++) {
+            exitingArcOffsets[head] = arcCount;
+
+            for (int position = linkOffsets[head]; position < linkOffsets[head + 1]; position++) {
+                int linkIndex = sortedLinks[position];
+                int tail = linkTails[linkIndex];
+                double weight = linkWeights[linkIndex];
+
+                int arc = tailArcs[tail];
+
+                if (arc < 0) {
+                    tailArcs[tail] = arcCount;
+
+                    tails[arcCount] = tail;
+                    weights[arcCount] = weight;
+                    arcs[arcCount] = links.get(linkIndex);
+                    arcCount++;
+                } else if (weight < weights[arc]) {
+                    weights[arc] = weight;
+                    arcs[arc] = links.get(linkIndex);
+                }
+            }
+
+            for (int arc = exitingArcOffsets[head]; arc < arcCount; arc++) {
+                tailArcs[tails[arc]] = -1;
+            }
+        }
+
+        exitingArcOffsets[vertexCount] = arcCount;
+
+        arcHeads = new int[arcCount];
+        for (int head = 0; head < vertexCount; head++) {
+            Arrays.fill(arcHeads, exitingArcOffsets[head], exitingArcOffsets[head + 1], head);
+        }
+
+        arcTails = Arrays.copyOf(tails, arcCount);
+        arcWeights = Arrays.copyOf(weights, arcCount);
+        arcLinks = Arrays.copyOf(arcs, arcCount);
+
+        double minWeight = Double.POSITIVE_INFINITY;
+        for (double weight : arcWeights) {
+            minWeight = Math.min(minWeight, weight);
+        }
+        minArcWeight = minWeight;
+
+        //Indexing the arcs by tail, for searches running backward
+        enteringArcOffsets = new int[vertexCount + 1];
+        for (int arc = 0; arc < arcCount; arc++) {
+            enteringArcOffsets[arcTails[arc] + 1]++;
+        }
+
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            enteringArcOffsets[vertexIndex + 1] += enteringArcOffsets[vertexIndex];
+        }
+
+        enteringArcs = new int[arcCount];
+        insertionPositions = Arrays.copyOf(enteringArcOffsets, vertexCount);
+
+        for (int arc = 0; arc < arcCount; arc++) {
+            enteringArcs[insertionPositions[arcTails[arc]]++] = arc;
+        }
+    }
+
+    /**
+     * @return the loops having negative weight, in graph order
+     */
+    public List<Link> getNegativeLoopLinks() {
+        return negativeLoopLinks;
+    }
+
+    /**
+     * @return the weight of the negative loop at the given position of
+     * {@link #getNegativeLoopLinks()}
+     */
+    public double getNegativeLoopWeight(int position) {
+        return negativeLoopWeights[position];
+    }
+
+    public int getVertexCount() {
+        return vertexes.size();
+    }
+
+    public int getArcCount() {
+        return arcTails.length;
+    }
+
+    public List<Vertex> getVertexes() {
+        return vertexes;
+    }
+
+    public Vertex getVertex(int vertexIndex) {
+        return vertexes.get(vertexIndex);
+    }
+
+    public int getVertexIndex(Vertex vertex) {
+        Integer result = vertexIndexes.get(vertex);
+
+        if (result == null) {
+            throw new IllegalArgumentException("The vertex does not belong to the compiled graph");
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the first arc exiting from the given vertex
+     */
+    public int getExitingArcsStart(int vertexIndex) {
+        return exitingArcOffsets[vertexIndex];
+    }
+
+    /**
+     * @return the arc following the last one exiting from the given vertex
+     */
+    public int getExitingArcsEnd(int vertexIndex) {
+        return exitingArcOffsets[vertexIndex + 1];
+    }
+
+    /**
+     * @return the first position, in the entering arcs index, of the arcs
+     * entering the given vertex
+     */
+    public int getEnteringArcsStart(int vertexIndex) {
+        return enteringArcOffsets[vertexIndex];
+    }
+
+    /**
+     * @return the position following the last one, in the entering arcs
+     * index, of the arcs entering the given vertex
+     */
+    public int getEnteringArcsEnd(int vertexIndex) {
+        return enteringArcOffsets[vertexIndex + 1];
+    }
+
+    /**
+     * @return the arc stored at the given position of the entering arcs index
+     */
+    public int getEnteringArc(int position) {
+        return enteringArcs[position];
+    }
+
+    public int getArcHead(int arc) {
+        return arcHeads[arc];
+    }
+
+    public int getArcTail(int arc) {
+        return arcTails[arc];
+    }
+
+    public double getArcWeight(int arc) {
+        return arcWeights[arc];
+    }
+
+    public Link getArcLink(int arc) {
+        return arcLinks[arc];
+    }
+
+    /**
+     * @return the minimum weight of the arcs, or positive infinity if there
+     * are no arcs
+     */
+    public double getMinArcWeight() {
+        return minArcWeight;
+    }
+
+    /**
+     * @throws IllegalArgumentException if any arc has negative weight
+     */
+    public void requireNonNegativeArcWeights() {
+        if (minArcWeight < 0) {
+            throw new IllegalArgumentException("Arc weights cannot be negative");
+        }
+    }
+
+    /**
+     * Walks the given previous arcs back from the given vertex, without
+     * querying the graph.
+     *
+     * @param previousArcs the arc preceding each vertex along its shortest
+     *                     path, -1 for the roots of the paths
+     * @return the links of the path ending at the given vertex, from its root
+     */
+    public List<Link> getPathLinks(int[] previousArcs, int vertexIndex) {
+        int pathLength = 0;
+        for (int currentIndex = vertexIndex; previousArcs[currentIndex] >= 0; currentIndex = arcHeads[previousArcs[currentIndex]]) {
+            pathLength++;
+        }
+
+        Link[] result = new Link[pathLength];
+
+        int currentIndex = vertexIndex;
+        for (int position = pathLength - 1; position >= 0; position--) {
+            int previousArc = previousArcs[currentIndex];
+
+            result[position] = arcLinks[previousArc];
+            currentIndex = arcHeads[previousArc];
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(result));
+    }
+
+    /**
+     * @return the arc going from the given head to the given tail, or -1 if
+     * there is no such arc
+     */
+    public int findArc(int headIndex, int tailIndex) {
+        for (int arc = exitingArcOffsets[headIndex]; arc < exitingArcOffsets[headIndex + 1]; arc++) {
+            if (arcTails[arc] == tailIndex) {
+                return arc;
+            }
+        }
+
+        return -1;
+    }
+
+}
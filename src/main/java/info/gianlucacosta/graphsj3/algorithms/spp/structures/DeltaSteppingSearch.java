@@ -0,0 +1,525 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.structures;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Parallel delta-stepping search over a CompiledGraph.
+ * <p>
+ * Vertexes are kept in buckets of width delta according to their tentative
+ * distance. Buckets are processed in increasing order: the light arcs
+ * (weight not greater than delta) of the vertexes in the current bucket are
+ * relaxed until the bucket stays empty, then the heavy arcs of all the
+ * vertexes removed from it are relaxed once. Each relaxation phase runs on a
+ * fork-join pool, and distances are lowered with a lock-free compare-and-set
+ * on their bits: for non-negative doubles, the ordering of the bits is the
+ * ordering of the values.
+ * <p>
+ * Once the search is complete, the previous arc of each vertex is the first
+ * entering arc - in the order of the compiled graph - lying on a shortest
+ * path, so it does not depend on the scheduling of the threads.
+ * <p>
+ * Arc weights must not be negative. Instances are not thread-safe, but
+ * several instances can share the same CompiledGraph and pool. Without a
+ * pool, all the relaxations run in the calling thread.
+ */
+public class DeltaSteppingSearch {
+
+    private static final int PARALLEL_THRESHOLD = 64;
+    private static final long MAX_BUCKET_SLOT_COUNT = 1 << 24;
+
+    private final CompiledGraph compiledGraph;
+    private final ForkJoinPool forkJoinPool;
+    private final double delta;
+    private final int vertexCount;
+
+    private final AtomicLongArray pathLengthBits;
+    private final int[] previousArcs;
+
+    private final AtomicIntegerArray improvedMarks;
+    private final int[] improvedVertexes;
+    private final AtomicInteger improvedVertexCount;
+    private int phase;
+
+    private final int[][] bucketSlots;
+    private final int[] bucketSlotSizes;
+    private long currentBucket;
+    private boolean finished;
+
+    private final int[] frontier;
+    private final int[] frontierMarks;
+    private final int[] removedVertexes;
+    private final int[] removedMarks;
+    private int sourceIndex;
+    private int removedVertexCount;
+    private int processedBucketCount;
+
+    /**
+     * Creates a search whose delta is the maximum arc weight divided by the
+     * average out-degree.
+     */
+    public DeltaSteppingSearch(CompiledGraph compiledGraph, ForkJoinPool forkJoinPool) {
+        this(compiledGraph, forkJoinPool, getDefaultDelta(compiledGraph));
+    }
+
+    public DeltaSteppingSearch(CompiledGraph compiledGraph, ForkJoinPool forkJoinPool, double delta) {
+        if (!(delta > 0) || Double.isInfinite(delta)) {
+            throw new IllegalArgumentException("Delta must be a positive number");
+        }
+
+        double maxArcWeight = getMaxArcWeight(compiledGraph);
+
+        double bucketSlotCount = Math.floor(maxArcWeight / delta) + 2;
+        if (bucketSlotCount > MAX_BUCKET_SLOT_COUNT) {
+            throw new IllegalArgumentException("Delta is too small for the arc weights");
+        }
+
+        this.compiledGraph = compiledGraph;
+        this.forkJoinPool = forkJoinPool;
+        this.delta = delta;
+
+        vertexCount = compiledGraph.getVertexCount();
+
+        pathLengthBits = new AtomicLongArray(vertexCount);
+        previousArcs = new int[vertexCount];
+
+        improvedMarks = new AtomicIntegerArray(vertexCount);
+        improvedVertexes = new int[vertexCount];
+        improvedVertexCount = new AtomicInteger();
+
+        bucketSlots = new int[(int) bucketSlotCount][];
+        bucketSlotSizes = new int[bucketSlots.length];
+        for (int slot = 0; slot < bucketSlots.length; slot++) {
+            bucketSlots[slot] = new int[4];
+        }
+
+        frontier = new int[vertexCount];
+        frontierMarks = new int[vertexCount];
+        removedVertexes = new int[vertexCount];
+        removedMarks = new int[vertexCount];
+    }
+
+    private static double getMaxArcWeight(CompiledGraph compiledGraph) {
+        compiledGraph.requireNonNegativeArcWeights();
+
+        double result = 0;
+
+        for (int arc = 0; arc < compiledGraph.getArcCount(); arc++) {
+            result = Math.max(result, compiledGraph.getArcWeight(arc));
+        }
+
+        return result;
+    }
+
+    private static double getDefaultDelta(CompiledGraph compiledGraph) {
+        double maxArcWeight = getMaxArcWeight(compiledGraph);
+
+        if (maxArcWeight == 0) {
+            return 1;
+        }
+
+        double averageOutDegree = Math.max(1.0, compiledGraph.getArcCount() / (double) Math.max(1, compiledGraph.getVertexCount()));
+
+        return maxArcWeight / averageOutDegree;
+    }
+
+    /**
+     * Prepares a new search from the given source vertex, discarding the
+     * results of the previous one.
+     */
+    public void init(int sourceIndex) {
+        long infinityBits = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            pathLengthBits.set(vertexIndex, infinityBits);
+            improvedMarks.set(vertexIndex, 0);
+        }
+
+        Arrays.fill(previousArcs, -1);
+        Arrays.fill(frontierMarks, 0);
+        Arrays.fill(removedMarks, 0);
+        Arrays.fill(bucketSlotSizes, 0);
+
+        this.sourceIndex = sourceIndex;
+        phase = 0;
+        processedBucketCount = 0;
+
+        pathLengthBits.set(sourceIndex, Double.doubleToRawLongBits(0.0));
+        addToBucket(sourceIndex);
+
+        currentBucket = 0;
+        finished = false;
+    }
+
+    /**
+     * Runs a whole search from the given source vertex.
+     */
+    public void search(int sourceIndex) {
+        init(sourceIndex);
+
+        while (!finished) {
+            processNextBucket();
+        }
+    }
+
+    /**
+     * Settles all the vertexes of the current bucket.
+     *
+     * @return true if other buckets still have to be processed; otherwise,
+     * the search is complete and the previous arcs are available
+     */
+    public boolean processNextBucket() {
+        if (finished) {
+            return false;
+        }
+
+        processedBucketCount++;
+        removedVertexCount = 0;
+
+        int bucketSlot = (int) (currentBucket % bucketSlots.length);
+
+        while (true) {
+            int frontierSize = 0;
+            phase++;
+
+            for (int position = 0; position < bucketSlotSizes[bucketSlot]; position++) {
+                int vertexIndex = bucketSlots[bucketSlot][position];
+
+                if (getBucket(vertexIndex) == currentBucket && frontierMarks[vertexIndex] != phase) {
+                    frontierMarks[vertexIndex] = phase;
+                    frontier[frontierSize++] = vertexIndex;
+
+                    if (removedMarks[vertexIndex] != processedBucketCount) {
+                        removedMarks[vertexIndex] = processedBucketCount;
+                        removedVertexes[removedVertexCount++] = vertexIndex;
+                    }
+                }
+            }
+
+            bucketSlotSizes[bucketSlot] = 0;
+
+            if (frontierSize == 0) {
+                break;
+            }
+
+            relax(frontier, frontierSize, true);
+        }
+
+        phase++;
+        relax(removedVertexes, removedVertexCount, false);
+
+        if (!moveToNextBucket()) {
+            finished = true;
+            computePreviousArcs();
+            return false;
+        }
+
+        return true;
+    }
+
+    private long getBucket(int vertexIndex) {
+        return (long) (getPathLength(vertexIndex) / delta);
+    }
+
+    private void addToBucket(int vertexIndex) {
+        int slot = (int) (getBucket(vertexIndex) % bucketSlots.length);
+
+        if (bucketSlotSizes[slot] == bucketSlots[slot].length) {
+            bucketSlots[slot] = Arrays.copyOf(bucketSlots[slot], bucketSlotSizes[slot] * 2);
+        }
+
+        bucketSlots[slot][bucketSlotSizes[slot]++] = vertexIndex;
+    }
+
+    /**
+     * All the pending tentative distances lie within the slot count from the
+     * current bucket, so each slot can only contain vertexes of one pending
+     * bucket; the others are stale and can be dropped.
+     */
+    private boolean moveToNextBucket() {
+        for (int offset = 1; offset < bucketSlots.length; offset++) {
+            long bucket = currentBucket + offset;
+            int slot = (int) (bucket % bucketSlots.length);
+
+            int validSize = 0;
+            for (int position = 0; position < bucketSlotSizes[slot]; position++) {
+                int vertexIndex = bucketSlots[slot][position];
+
+                if (getBucket(vertexIndex) == bucket) {
+                    bucketSlots[slot][validSize++] = vertexIndex;
+                }
+            }
+
+            bucketSlotSizes[slot] = validSize;
+
+            if (validSize > 0) {
+                currentBucket = bucket;
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void relax(int[] vertexes, int count, boolean lightArcs) {
+        improvedVertexCount.set(0);
+
+        if (forkJoinPool == null || count < PARALLEL_THRESHOLD) {
+            relaxRange(vertexes, 0, count, lightArcs);
+        } else {
+            forkJoinPool.invoke(new RelaxationTask(vertexes, 0, count, lightArcs));
+        }
+
+        int improvedCount = improvedVertexCount.get();
+        for (int position = 0; position < improvedCount; position++) {
+            addToBucket(improvedVertexes[position]);
+        }
+    }
+
+    private void relaxRange(int[] vertexes, int start, int end, boolean lightArcs) {
+        for (int position = start; position < end; position++) {
+            int vertexIndex = vertexes[position];
+            double vertexPathLength = getPathLength(vertexIndex);
+
+            for (int arc = compiledGraph.getExitingArcsStart(vertexIndex); arc < compiledGraph.getExitingArcsEnd(vertexIndex); arc++) {
+                double arcWeight = compiledGraph.getArcWeight(arc);
+
+                if ((arcWeight <= delta) == lightArcs) {
+                    relaxArc(compiledGraph.getArcTail(arc), vertexPathLength + arcWeight);
+                }
+            }
+        }
+    }
+
+    private void relaxArc(int tailIndex, double tailPathLength) {
+        long newBits = Double.doubleToRawLongBits(tailPathLength);
+
+        while (true) {
+            long currentBits = pathLengthBits.get(tailIndex);
+
+            if (newBits >= currentBits) {
+                return;
+            }
+
+            if (pathLengthBits.compareAndSet(tailIndex, currentBits, newBits)) {
+                break;
+            }
+        }
+
+        if (improvedMarks.get(tailIndex) != phase && improvedMarks.getAndSet(tailIndex, phase) != phase) {
+            improvedVertexes[improvedVertexCount.getAndIncrement()] = tailIndex;
+        }
+    }
+
+    /**
+     * A vertex takes its first tight entering arc from a closer vertex; the
+     * vertexes reached only through zero-weight tight arcs - which could form
+     * cycles - are then connected by a visit starting from the others.
+     */
+    private void computePreviousArcs() {
+        if (forkJoinPool == null || vertexCount < PARALLEL_THRESHOLD) {
+            computeCloserPreviousArcs(0, vertexCount);
+        } else {
+            forkJoinPool.invoke(new PreviousArcsTask(0, vertexCount));
+        }
+
+        int[] pendingVertexes = new int[vertexCount];
+        int pendingVertexCount = 0;
+        boolean missingPreviousArcs = false;
+
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            double pathLength = getPathLength(vertexIndex);
+
+            if (previousArcs[vertexIndex] >= 0 || vertexIndex == sourceIndex) {
+                pendingVertexes[pendingVertexCount++] = vertexIndex;
+            } else if (!Double.isInfinite(pathLength)) {
+                missingPreviousArcs = true;
+            }
+        }
+
+        if (!missingPreviousArcs) {
+            return;
+        }
+
+        boolean[] connected = new boolean[vertexCount];
+        for (int position = 0; position < pendingVertexCount; position++) {
+            connected[pendingVertexes[position]] = true;
+        }
+
+        while (pendingVertexCount > 0) {
+            int vertexIndex = pendingVertexes[--pendingVertexCount];
+            double vertexPathLength = getPathLength(vertexIndex);
+
+            for (int arc = compiledGraph.getExitingArcsStart(vertexIndex); arc < compiledGraph.getExitingArcsEnd(vertexIndex); arc++) {
+                int tailIndex = compiledGraph.getArcTail(arc);
+
+                if (!connected[tailIndex] && compiledGraph.getArcWeight(arc) == 0 && getPathLength(tailIndex) == vertexPathLength) {
+                    connected[tailIndex] = true;
+                    previousArcs[tailIndex] = arc;
+                    pendingVertexes[pendingVertexCount++] = tailIndex;
+                }
+            }
+        }
+    }
+
+    private void computeCloserPreviousArcs(int start, int end) {
+        for (int vertexIndex = start; vertexIndex < end; vertexIndex++) {
+            double pathLength = getPathLength(vertexIndex);
+
+            if (Double.isInfinite(pathLength)) {
+                continue;
+            }
+
+            for (int position = compiledGraph.getEnteringArcsStart(vertexIndex); position < compiledGraph.getEnteringArcsEnd(vertexIndex); position++) {
+                int arc = compiledGraph.getEnteringArc(position);
+                double headPathLength = getPathLength(compiledGraph.getArcHead(arc));
+
+                if (headPathLength < pathLength && headPathLength + compiledGraph.getArcWeight(arc) == pathLength) {
+                    previousArcs[vertexIndex] = arc;
+                    break;
+                }
+            }
+        }
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    public ForkJoinPool getForkJoinPool() {
+        return forkJoinPool;
+    }
+
+    public double getDelta() {
+        return delta;
+    }
+
+    /**
+     * @return the tentative distance of the vertex, which is final once the
+     * search is complete; positive infinity if the vertex was not reached
+     */
+    public double getPathLength(int vertexIndex) {
+        return Double.longBitsToDouble(pathLengthBits.get(vertexIndex));
+    }
+
+    /**
+     * @return the arc through which a shortest path reaches the vertex, or -1
+     * for the source, for the vertexes not reached and while the search is not
+     * complete
+     */
+    public int getPreviousArc(int vertexIndex) {
+        return previousArcs[vertexIndex];
+    }
+
+    /**
+     * @return the index of the bucket to be processed next, or of the last one
+     * processed if the search is complete
+     */
+    public long getCurrentBucket() {
+        return currentBucket;
+    }
+
+    /**
+     * @return how many vertexes were settled in the last processed bucket
+     */
+    public int getSettledVertexCount() {
+        return removedVertexCount;
+    }
+
+    public int getProcessedBucketCount() {
+        return processedBucketCount;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Copies the distances computed by the last search into the given array,
+     * starting from the given offset.
+     */
+    public void copyPathLengths(double[] destination, int offset) {
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            destination[offset + vertexIndex] = getPathLength(vertexIndex);
+        }
+    }
+
+    private class RelaxationTask extends RecursiveAction {
+
+        private final int[] vertexes;
+        private final int start;
+        private final int end;
+        private final boolean lightArcs;
+
+        RelaxationTask(int[] vertexes, int start, int end, boolean lightArcs) {
+            this.vertexes = vertexes;
+            this.start = start;
+            this.end = end;
+            this.lightArcs = lightArcs;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= PARALLEL_THRESHOLD) {
+                relaxRange(vertexes, start, end, lightArcs);
+                return;
+            }
+
+            int middle = (start + end) >>> 1;
+
+            invokeAll(new RelaxationTask(vertexes, start, middle, lightArcs), new RelaxationTask(vertexes, middle, end, lightArcs));
+        }
+
+    }
+
+    private class PreviousArcsTask extends RecursiveAction {
+
+        private final int start;
+        private final int end;
+
+        PreviousArcsTask(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= PARALLEL_THRESHOLD * 16) {
+                computeCloserPreviousArcs(start, end);
+                return;
+            }
+
+            int middle = (start + end) >>> 1;
+
+            invokeAll(new PreviousArcsTask(start, middle), new PreviousArcsTask(middle, end));
+        }
+
+    }
+
+}
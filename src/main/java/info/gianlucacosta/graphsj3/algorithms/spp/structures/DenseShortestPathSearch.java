@@ -0,0 +1,164 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.structures;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra search for dense graphs, over a flat adjacency matrix of arc
+ * weights.
+ * <p>
+ * As in {@link info.gianlucacosta.graphsj3.algorithms.spp.Spp}, each step
+ * settles the unsettled vertex having minimum distance, the first one in
+ * graph order in case of ties, and relaxes the arcs exiting from it; here,
+ * the relaxation of its matrix row and the search for the next vertex to
+ * settle are fused into a single sequential pass over primitive arrays,
+ * with no per-arc indirection, so that each step costs O(V).
+ * <p>
+ * The matrix takes 8 * V * V bytes. Arc weights must not be negative.
+ */
+public class DenseShortestPathSearch {
+
+    private final CompiledGraph compiledGraph;
+    private final int vertexCount;
+    private final double[] weightMatrix;
+    private final double[] keys;
+    private final double[] pathLengths;
+    private final int[] previousVertexes;
+    private int nextIndex;
+    private int settledVertexCount;
+
+    public DenseShortestPathSearch(CompiledGraph compiledGraph) {
+        compiledGraph.requireNonNegativeArcWeights();
+
+        vertexCount = compiledGraph.getVertexCount();
+
+        long matrixSize = (long) vertexCount * vertexCount;
+
+        if (matrixSize > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(String.format("A %d x %d matrix is too large", vertexCount, vertexCount));
+        }
+
+        this.compiledGraph = compiledGraph;
+
+        weightMatrix = new double[(int) matrixSize];
+        Arrays.fill(weightMatrix, Double.POSITIVE_INFINITY);
+
+        for (int arc = 0; arc < compiledGraph.getArcCount(); arc++) {
+            weightMatrix[compiledGraph.getArcHead(arc) * vertexCount + compiledGraph.getArcTail(arc)] = compiledGraph.getArcWeight(arc);
+        }
+
+        keys = new double[vertexCount];
+        pathLengths = new double[vertexCount];
+        previousVertexes = new int[vertexCount];
+    }
+
+    /**
+     * Prepares a new search, settling the source vertex.
+     */
+    public void init(int sourceIndex) {
+        Arrays.fill(keys, Double.POSITIVE_INFINITY);
+        Arrays.fill(pathLengths, Double.POSITIVE_INFINITY);
+        Arrays.fill(previousVertexes, -1);
+        settledVertexCount = 0;
+
+        keys[sourceIndex] = 0;
+        settle(sourceIndex);
+    }
+
+    public boolean isFinished() {
+        return nextIndex < 0;
+    }
+
+    /**
+     * Settles the next vertex.
+     *
+     * @return the settled vertex
+     */
+    public int step() {
+        if (nextIndex < 0) {
+            throw new IllegalStateException("The search is finished");
+        }
+
+        int result = nextIndex;
+        settle(result);
+
+        return result;
+    }
+
+    private void settle(int vertexIndex) {
+        double vertexPathLength = keys[vertexIndex];
+
+        pathLengths[vertexIndex] = vertexPathLength;
+        settledVertexCount++;
+
+        //NaN keys never compare lower, so settled vertexes are neither relaxed nor chosen again
+        keys[vertexIndex] = Double.NaN;
+
+        int rowOffset = vertexIndex * vertexCount;
+
+        double minKey = Double.POSITIVE_INFINITY;
+        int minIndex = -1;
+
+        for (int tailIndex = 0; tailIndex < vertexCount; tailIndex++) {
+            double tailPathLength = vertexPathLength + weightMatrix[rowOffset + tailIndex];
+
+            if (tailPathLength < keys[tailIndex]) {
+                keys[tailIndex] = tailPathLength;
+                previousVertexes[tailIndex] = vertexIndex;
+            }
+
+            if (keys[tailIndex] < minKey) {
+                minKey = keys[tailIndex];
+                minIndex = tailIndex;
+            }
+        }
+
+        nextIndex = minIndex;
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    /**
+     * @return the distance of the given settled vertex, or positive infinity
+     * if it has not been settled yet
+     */
+    public double getPathLength(int vertexIndex) {
+        return pathLengths[vertexIndex];
+    }
+
+    /**
+     * @return the vertex preceding the given one along its current shortest
+     * path, or -1 for the source and for the vertexes not reached yet
+     */
+    public int getPreviousVertex(int vertexIndex) {
+        return previousVertexes[vertexIndex];
+    }
+
+    public int getSettledVertexCount() {
+        return settledVertexCount;
+    }
+
+}
@@ -0,0 +1,162 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.structures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Dial's bucket queue: a circular array of maxKeySpan + 1 buckets, where
+ * the bucket of each index is its key modulo the number of buckets.
+ * <p>
+ * In a Dijkstra search whose arc weights do not exceed maxKeySpan, all the
+ * keys in the queue lie within maxKeySpan of the last extracted one, so
+ * they never share a bucket with different keys. Each bucket is an
+ * intrusive doubly linked list, so that decreasing a key costs O(1);
+ * extracting costs O(1) plus the empty buckets skipped by the cursor.
+ */
+public class DialBucketQueue implements MonotoneIntegerQueue {
+
+    private final long bucketCount;
+    private final int[] bucketHeads;
+    private final int[] nextIndexes;
+    private final int[] previousIndexes;
+    private final long[] keys;
+    private final boolean[] queued;
+    private long lastKey;
+    private int size;
+
+    public DialBucketQueue(int capacity, int maxKeySpan) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity cannot be negative");
+        }
+
+        if (maxKeySpan < 0 || maxKeySpan == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid key span: " + maxKeySpan);
+        }
+
+        bucketCount = maxKeySpan + 1;
+        bucketHeads = new int[maxKeySpan + 1];
+        nextIndexes = new int[capacity];
+        previousIndexes = new int[capacity];
+        keys = new long[capacity];
+        queued = new boolean[capacity];
+
+        Arrays.fill(bucketHeads, -1);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(int index) {
+        return queued[index];
+    }
+
+    @Override
+    public boolean insertOrDecrease(int index, long key) {
+        if (key < lastKey || key - lastKey >= bucketCount) {
+            throw new IllegalArgumentException("Key out of the span of the queue: " + key);
+        }
+
+        if (queued[index]) {
+            if (key >= keys[index]) {
+                return false;
+            }
+
+            unlink(index);
+        } else {
+            queued[index] = true;
+            size++;
+        }
+
+        keys[index] = key;
+
+        int bucket = (int) (key % bucketCount);
+
+        previousIndexes[index] = -1;
+        nextIndexes[index] = bucketHeads[bucket];
+        if (bucketHeads[bucket] >= 0) {
+            previousIndexes[bucketHeads[bucket]] = index;
+        }
+        bucketHeads[bucket] = index;
+
+        return true;
+    }
+
+    private void unlink(int index) {
+        int bucket = (int) (keys[index] % bucketCount);
+
+        if (previousIndexes[index] >= 0) {
+            nextIndexes[previousIndexes[index]] = nextIndexes[index];
+        } else {
+            bucketHeads[bucket] = nextIndexes[index];
+        }
+
+        if (nextIndexes[index] >= 0) {
+            previousIndexes[nextIndexes[index]] = previousIndexes[index];
+        }
+    }
+
+    @Override
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException("The queue is empty");
+        }
+
+        int bucket = (int) (lastKey % bucketCount);
+
+        while (bucketHeads[bucket] < 0) {
+            lastKey++;
+
+            bucket++;
+            if (bucket == bucketCount) {
+                bucket = 0;
+            }
+        }
+
+        int result = bucketHeads[bucket];
+
+        unlink(result);
+        queued[result] = false;
+        size--;
+
+        return result;
+    }
+
+    @Override
+    public long getLastKey() {
+        return lastKey;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(bucketHeads, -1);
+        Arrays.fill(queued, false);
+        lastKey = 0;
+        size = 0;
+    }
+
+}
@@ -0,0 +1,63 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.structures;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs a body once for each index in [start, end), splitting the range down
+ * to single indexes so that idle workers can steal the remaining ones.
+ */
+public class IndexRangeTask extends RecursiveAction {
+
+    /**
+     * The work performed for a single index
+     */
+    public interface Body {
+
+        void run(int index);
+
+    }
+
+    private final int start;
+    private final int end;
+    private final Body body;
+
+    public IndexRangeTask(int start, int end, Body body) {
+        this.start = start;
+        this.end = end;
+        this.body = body;
+    }
+
+    @Override
+    protected void compute() {
+        if (end - start == 1) {
+            body.run(start);
+        } else if (end > start) {
+            int middle = (start + end) >>> 1;
+
+            invokeAll(new IndexRangeTask(start, middle, body), new IndexRangeTask(middle, end, body));
+        }
+    }
+
+}
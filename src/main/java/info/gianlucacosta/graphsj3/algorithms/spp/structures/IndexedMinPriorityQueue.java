@@ -0,0 +1,236 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.structures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary min-heap of integer indexes in the range [0, capacity), each
+ * associated with a double key.
+ * <p>
+ * Every index has a known position in the heap, so decreasing its key costs
+ * O(log n). Indexes having the same key are extracted in ascending order.
+ */
+public class IndexedMinPriorityQueue {
+
+    private final int[] heap;
+    private final int[] positions;
+    private final double[] keys;
+    private int size;
+
+    public IndexedMinPriorityQueue(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity cannot be negative");
+        }
+
+        heap = new int[capacity];
+        positions = new int[capacity];
+        keys = new double[capacity];
+
+        Arrays.fill(positions, -1);
+    }
+
+    public int getCapacity() {
+        return heap.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int index) {
+        return positions[index] >= 0;
+    }
+
+    public double getKey(int index) {
+        if (!contains(index)) {
+            throw new NoSuchElementException("Index not in the queue: " + index);
+        }
+
+        return keys[index];
+    }
+
+    public void insert(int index, double key) {
+        if (contains(index)) {
+            throw new IllegalArgumentException("Index already in the queue: " + index);
+        }
+
+        keys[index] = key;
+        heap[size] = index;
+        positions[index] = size;
+        size++;
+
+        siftUp(size - 1);
+    }
+
+    public void decreaseKey(int index, double key) {
+        if (!contains(index)) {
+            throw new NoSuchElementException("Index not in the queue: " + index);
+        }
+
+        if (key > keys[index]) {
+            throw new IllegalArgumentException("The new key cannot be greater than the current one");
+        }
+
+        keys[index] = key;
+        siftUp(positions[index]);
+    }
+
+    /**
+     * Changes the key of a queued index, in either direction.
+     */
+    public void updateKey(int index, double key) {
+        if (!contains(index)) {
+            throw new NoSuchElementException("Index not in the queue: " + index);
+        }
+
+        double previousKey = keys[index];
+        keys[index] = key;
+
+        if (key < previousKey) {
+            siftUp(positions[index]);
+        } else {
+            siftDown(positions[index]);
+        }
+    }
+
+    /**
+     * Inserts the index, or decreases its key if it is already queued and the
+     * given key is lower.
+     *
+     * @return true if the queue was changed
+     */
+    public boolean insertOrDecrease(int index, double key) {
+        if (!contains(index)) {
+            insert(index, key);
+            return true;
+        }
+
+        if (key < keys[index]) {
+            decreaseKey(index, key);
+            return true;
+        }
+
+        return false;
+    }
+
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("The queue is empty");
+        }
+
+        return heap[0];
+    }
+
+    public double peekKey() {
+        return keys[peek()];
+    }
+
+    public int poll() {
+        int result = peek();
+
+        size--;
+        if (size > 0) {
+            move(heap[size], 0);
+            siftDown(0);
+        }
+
+        positions[result] = -1;
+
+        return result;
+    }
+
+    public void clear() {
+        for (int position = 0; position < size; position++) {
+            positions[heap[position]] = -1;
+        }
+
+        size = 0;
+    }
+
+    private boolean precedes(int firstIndex, int secondIndex) {
+        double firstKey = keys[firstIndex];
+        double secondKey = keys[secondIndex];
+
+        if (firstKey != secondKey) {
+            return firstKey < secondKey;
+        }
+
+        return firstIndex < secondIndex;
+    }
+
+    private void siftUp(int position) {
+        int index = heap[position];
+
+        while (position > 0) {
+            int parentPosition = (position - 1) >>> 1;
+            int parentIndex = heap[parentPosition];
+
+            if (!precedes(index, parentIndex)) {
+                break;
+            }
+
+            move(parentIndex, position);
+            position = parentPosition;
+        }
+
+        move(index, position);
+    }
+
+    private void siftDown(int position) {
+        int index = heap[position];
+
+        while (true) {
+            int childPosition = 2 * position + 1;
+            if (childPosition >= size) {
+                break;
+            }
+
+            int rightPosition = childPosition + 1;
+            if (rightPosition < size && precedes(heap[rightPosition], heap[childPosition])) {
+                childPosition = rightPosition;
+            }
+
+            int childIndex = heap[childPosition];
+            if (!precedes(childIndex, index)) {
+                break;
+            }
+
+            move(childIndex, position);
+            position = childPosition;
+        }
+
+        move(index, position);
+    }
+
+    private void move(int index, int position) {
+        heap[position] = index;
+        positions[index] = position;
+    }
+
+}
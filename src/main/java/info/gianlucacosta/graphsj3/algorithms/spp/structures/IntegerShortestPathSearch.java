@@ -0,0 +1,210 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.structures;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra search for graphs whose arc weights are non-negative integers,
+ * running on a monotone integer queue instead of a binary heap.
+ * <p>
+ * When the maximum arc weight C does not exceed the given threshold, the
+ * search uses a {@link DialBucketQueue} of C + 1 buckets, costing O(E + V * C)
+ * at most; otherwise, it uses a {@link RadixHeap}, costing
+ * O(E + V * log C). Distances are exact 64-bit integers.
+ * <p>
+ * Ties among equal distances can be broken differently from
+ * {@link ShortestPathSearch}, so the previous arcs may describe another
+ * shortest path tree.
+ */
+public class IntegerShortestPathSearch {
+
+    public static final int DEFAULT_MAX_DIAL_WEIGHT = 1024;
+
+    /**
+     * @return true if all the arc weights of the given graph are
+     * non-negative integers not greater than {@link Integer#MAX_VALUE}
+     */
+    public static boolean hasIntegralWeights(CompiledGraph compiledGraph) {
+        for (int arc = 0; arc < compiledGraph.getArcCount(); arc++) {
+            double weight = compiledGraph.getArcWeight(arc);
+
+            if (!(weight >= 0 && weight <= Integer.MAX_VALUE && weight == Math.rint(weight))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private final CompiledGraph compiledGraph;
+    private final int[] arcWeights;
+    private final long[] pathLengths;
+    private final int[] previousArcs;
+    private final boolean[] settled;
+    private final MonotoneIntegerQueue queue;
+    private final boolean usingDialBuckets;
+    private int settledVertexCount;
+
+    public IntegerShortestPathSearch(CompiledGraph compiledGraph) {
+        this(compiledGraph, DEFAULT_MAX_DIAL_WEIGHT);
+    }
+
+    /**
+     * @param maxDialWeight the maximum arc weight for which Dial's buckets
+     *                      are used instead of a radix heap
+     */
+    public IntegerShortestPathSearch(CompiledGraph compiledGraph, int maxDialWeight) {
+        if (!hasIntegralWeights(compiledGraph)) {
+            throw new IllegalArgumentException("Arc weights must be non-negative integers");
+        }
+
+        this.compiledGraph = compiledGraph;
+
+        int vertexCount = compiledGraph.getVertexCount();
+
+        arcWeights = new int[compiledGraph.getArcCount()];
+
+        int maxWeight = 0;
+
+        for (int arc = 0; arc < arcWeights.length; arc++) {
+            arcWeights[arc] = (int) compiledGraph.getArcWeight(arc);
+            maxWeight = Math.max(maxWeight, arcWeights[arc]);
+        }
+
+        pathLengths = new long[vertexCount];
+        previousArcs = new int[vertexCount];
+        settled = new boolean[vertexCount];
+
+        usingDialBuckets = maxWeight <= maxDialWeight;
+
+        if (usingDialBuckets) {
+            queue = new DialBucketQueue(vertexCount, maxWeight);
+        } else {
+            queue = new RadixHeap(vertexCount);
+        }
+    }
+
+    /**
+     * Prepares a new search, queueing the source vertex.
+     */
+    public void init(int sourceIndex) {
+        Arrays.fill(pathLengths, Long.MAX_VALUE);
+        Arrays.fill(previousArcs, -1);
+        Arrays.fill(settled, false);
+        queue.clear();
+        settledVertexCount = 0;
+
+        pathLengths[sourceIndex] = 0;
+        queue.insertOrDecrease(sourceIndex, 0);
+    }
+
+    public boolean isFinished() {
+        return queue.isEmpty();
+    }
+
+    /**
+     * Settles the next vertex and relaxes the arcs exiting from it.
+     *
+     * @return the settled vertex
+     */
+    public int step() {
+        if (queue.isEmpty()) {
+            throw new IllegalStateException("The search is finished");
+        }
+
+        int vertexIndex = queue.poll();
+        long vertexPathLength = pathLengths[vertexIndex];
+
+        settled[vertexIndex] = true;
+        settledVertexCount++;
+
+        for (int arc = compiledGraph.getExitingArcsStart(vertexIndex); arc < compiledGraph.getExitingArcsEnd(vertexIndex); arc++) {
+            int tailIndex = compiledGraph.getArcTail(arc);
+
+            if (settled[tailIndex]) {
+                continue;
+            }
+
+            long tailPathLength = vertexPathLength + arcWeights[arc];
+
+            if (tailPathLength < pathLengths[tailIndex]) {
+                pathLengths[tailIndex] = tailPathLength;
+                previousArcs[tailIndex] = arc;
+                queue.insertOrDecrease(tailIndex, tailPathLength);
+            }
+        }
+
+        return vertexIndex;
+    }
+
+    /**
+     * Runs a whole search from the given source.
+     */
+    public void search(int sourceIndex) {
+        init(sourceIndex);
+
+        while (!queue.isEmpty()) {
+            step();
+        }
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    /**
+     * @return true if the search runs on Dial's buckets, false if it runs
+     * on a radix heap
+     */
+    public boolean isUsingDialBuckets() {
+        return usingDialBuckets;
+    }
+
+    /**
+     * @return the current distance of the given vertex, or positive infinity
+     * if it has not been reached yet
+     */
+    public double getPathLength(int vertexIndex) {
+        long result = pathLengths[vertexIndex];
+
+        return (result == Long.MAX_VALUE) ? Double.POSITIVE_INFINITY : result;
+    }
+
+    /**
+     * @return the arc preceding the given vertex along its current shortest
+     * path, or -1 for the source and for the vertexes not reached yet
+     */
+    public int getPreviousArc(int vertexIndex) {
+        return previousArcs[vertexIndex];
+    }
+
+    public boolean isSettled(int vertexIndex) {
+        return settled[vertexIndex];
+    }
+
+    public int getSettledVertexCount() {
+        return settledVertexCount;
+    }
+
+}
@@ -0,0 +1,59 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.structures;
+
+/**
+ * Monotone min-priority queue of integer indexes in the range
+ * [0, capacity), each associated with a non-negative integer key.
+ * <p>
+ * Monotone means that no key can be lower than the last extracted one, as
+ * it happens in Dijkstra searches with non-negative weights.
+ */
+public interface MonotoneIntegerQueue {
+
+    boolean isEmpty();
+
+    boolean contains(int index);
+
+    /**
+     * Inserts the index, or lowers its key if it is already in the queue and
+     * the new key is lower.
+     *
+     * @return true if the queue changed
+     */
+    boolean insertOrDecrease(int index, long key);
+
+    /**
+     * Removes an index having minimum key.
+     */
+    int poll();
+
+    /**
+     * @return the key of the last extracted index, or 0 if none was
+     * extracted since the last clear
+     */
+    long getLastKey();
+
+    void clear();
+
+}
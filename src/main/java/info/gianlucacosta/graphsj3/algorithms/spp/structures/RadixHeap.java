@@ -0,0 +1,182 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.structures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Radix heap: the keys are spread among 65 buckets according to the
+ * highest bit in which they differ from the last extracted key, bucket 0
+ * holding the keys equal to it.
+ * <p>
+ * When bucket 0 is empty, the first non-empty bucket is redistributed
+ * around its minimum key; each index can only move to lower buckets, so an
+ * extraction costs O(log C) amortized, C being the maximum arc weight.
+ * Buckets are intrusive doubly linked lists, so that decreasing a key
+ * costs O(1).
+ */
+public class RadixHeap implements MonotoneIntegerQueue {
+
+    private static final int BUCKET_COUNT = 65;
+
+    private final int[] bucketHeads;
+    private final int[] bucketIndexes;
+    private final int[] nextIndexes;
+    private final int[] previousIndexes;
+    private final long[] keys;
+    private long lastKey;
+    private int size;
+
+    public RadixHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity cannot be negative");
+        }
+
+        bucketHeads = new int[BUCKET_COUNT];
+        bucketIndexes = new int[capacity];
+        nextIndexes = new int[capacity];
+        previousIndexes = new int[capacity];
+        keys = new long[capacity];
+
+        Arrays.fill(bucketHeads, -1);
+        Arrays.fill(bucketIndexes, -1);
+    }
+
+    private int getBucket(long key) {
+        return (key == lastKey) ? 0 : 64 - Long.numberOfLeadingZeros(key ^ lastKey);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(int index) {
+        return bucketIndexes[index] >= 0;
+    }
+
+    @Override
+    public boolean insertOrDecrease(int index, long key) {
+        if (key < lastKey) {
+            throw new IllegalArgumentException("Key lower than the last extracted one: " + key);
+        }
+
+        if (bucketIndexes[index] >= 0) {
+            if (key >= keys[index]) {
+                return false;
+            }
+
+            unlink(index);
+        } else {
+            size++;
+        }
+
+        keys[index] = key;
+        link(index, getBucket(key));
+
+        return true;
+    }
+
+    private void link(int index, int bucket) {
+        bucketIndexes[index] = bucket;
+        previousIndexes[index] = -1;
+        nextIndexes[index] = bucketHeads[bucket];
+
+        if (bucketHeads[bucket] >= 0) {
+            previousIndexes[bucketHeads[bucket]] = index;
+        }
+
+        bucketHeads[bucket] = index;
+    }
+
+    private void unlink(int index) {
+        int bucket = bucketIndexes[index];
+
+        if (previousIndexes[index] >= 0) {
+            nextIndexes[previousIndexes[index]] = nextIndexes[index];
+        } else {
+            bucketHeads[bucket] = nextIndexes[index];
+        }
+
+        if (nextIndexes[index] >= 0) {
+            previousIndexes[nextIndexes[index]] = previousIndexes[index];
+        }
+
+        bucketIndexes[index] = -1;
+    }
+
+    @Override
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException("The queue is empty");
+        }
+
+        if (bucketHeads[0] < 0) {
+            int bucket = 1;
+            while (bucketHeads[bucket] < 0) {
+                bucket++;
+            }
+
+            long minKey = Long.MAX_VALUE;
+            for (int index = bucketHeads[bucket]; index >= 0; index = nextIndexes[index]) {
+                minKey = Math.min(minKey, keys[index]);
+            }
+
+            lastKey = minKey;
+
+            //Redistributing the bucket around the new last key
+            int index = bucketHeads[bucket];
+            bucketHeads[bucket] = -1;
+
+            while (index >= 0) {
+                int nextIndex = nextIndexes[index];
+
+                link(index, getBucket(keys[index]));
+                index = nextIndex;
+            }
+        }
+
+        int result = bucketHeads[0];
+
+        unlink(result);
+        size--;
+
+        return result;
+    }
+
+    @Override
+    public long getLastKey() {
+        return lastKey;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(bucketHeads, -1);
+        Arrays.fill(bucketIndexes, -1);
+        lastKey = 0;
+        size = 0;
+    }
+
+}
@@ -0,0 +1,158 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.structures;
+
+import java.util.Arrays;
+
+/**
+ * The labels of a search running in one direction over a CompiledGraph: for
+ * each vertex, its path length from the source, the arc linking it to its
+ * predecessor along the path, whether it is settled and, for goal-directed
+ * searches, its lower bound of the distance to the goal, together with the
+ * queue of the search.
+ * <p>
+ * The same instance can serve any number of queries, one at a time:
+ * {@link #reset()} only clears the vertexes touched since the previous reset,
+ * so that the cost of each query depends on the vertexes it reaches, not on
+ * the size of the graph. Instances are not thread-safe, but several of them
+ * can share the same CompiledGraph.
+ */
+public class SearchSpace {
+
+    private final CompiledGraph compiledGraph;
+    private final double[] pathLengths;
+    private final int[] arcs;
+    private final boolean[] settled;
+    private final double[] lowerBounds;
+    private final boolean[] touched;
+    private final int[] touchedVertexes;
+    private final IndexedMinPriorityQueue queue;
+    private int touchedVertexCount;
+
+    public SearchSpace(CompiledGraph compiledGraph) {
+        this.compiledGraph = compiledGraph;
+
+        int vertexCount = compiledGraph.getVertexCount();
+
+        pathLengths = new double[vertexCount];
+        arcs = new int[vertexCount];
+        settled = new boolean[vertexCount];
+        lowerBounds = new double[vertexCount];
+        touched = new boolean[vertexCount];
+        touchedVertexes = new int[vertexCount];
+        queue = new IndexedMinPriorityQueue(vertexCount);
+
+        Arrays.fill(pathLengths, Double.POSITIVE_INFINITY);
+        Arrays.fill(arcs, -1);
+        Arrays.fill(lowerBounds, Double.NaN);
+    }
+
+    /**
+     * Clears the labels of the vertexes touched since the previous reset,
+     * and empties the queue.
+     */
+    public void reset() {
+        for (int position = 0; position < touchedVertexCount; position++) {
+            int vertexIndex = touchedVertexes[position];
+
+            pathLengths[vertexIndex] = Double.POSITIVE_INFINITY;
+            arcs[vertexIndex] = -1;
+            settled[vertexIndex] = false;
+            lowerBounds[vertexIndex] = Double.NaN;
+            touched[vertexIndex] = false;
+        }
+
+        touchedVertexCount = 0;
+        queue.clear();
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    public IndexedMinPriorityQueue getQueue() {
+        return queue;
+    }
+
+    /**
+     * @return the path length of the given vertex, positive infinity if it has
+     * not been reached
+     */
+    public double getPathLength(int vertexIndex) {
+        return pathLengths[vertexIndex];
+    }
+
+    /**
+     * @return the arc linking the given vertex to its predecessor along its
+     * path, -1 for the source and for the vertexes not reached
+     */
+    public int getArc(int vertexIndex) {
+        return arcs[vertexIndex];
+    }
+
+    public void setLabel(int vertexIndex, double pathLength, int arc) {
+        touch(vertexIndex);
+
+        pathLengths[vertexIndex] = pathLength;
+        arcs[vertexIndex] = arc;
+    }
+
+    public boolean isSettled(int vertexIndex) {
+        return settled[vertexIndex];
+    }
+
+    public void settle(int vertexIndex) {
+        touch(vertexIndex);
+
+        settled[vertexIndex] = true;
+    }
+
+    /**
+     * @return the lower bound stored for the given vertex, NaN if none was
+     * stored since the previous reset
+     */
+    public double getLowerBound(int vertexIndex) {
+        return lowerBounds[vertexIndex];
+    }
+
+    public void setLowerBound(int vertexIndex, double lowerBound) {
+        touch(vertexIndex);
+
+        lowerBounds[vertexIndex] = lowerBound;
+    }
+
+    /**
+     * @return the number of vertexes touched since the previous reset
+     */
+    public int getTouchedVertexCount() {
+        return touchedVertexCount;
+    }
+
+    private void touch(int vertexIndex) {
+        if (!touched[vertexIndex]) {
+            touched[vertexIndex] = true;
+            touchedVertexes[touchedVertexCount++] = vertexIndex;
+        }
+    }
+
+}
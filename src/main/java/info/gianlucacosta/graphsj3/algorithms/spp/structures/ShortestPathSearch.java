@@ -0,0 +1,204 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.structures;
+
+import java.util.Arrays;
+
+/**
+ * Reusable Dijkstra search over a CompiledGraph, keeping its results in
+ * primitive arrays indexed by vertex.
+ * <p>
+ * Arc weights must not be negative; a search can also run on weights
+ * other than those of the graph, such as reduced costs.
+ * <p>
+ * Each search overwrites the results of the previous one. Instances are not
+ * thread-safe, but several instances can share the same CompiledGraph.
+ */
+public class ShortestPathSearch {
+
+    private final CompiledGraph compiledGraph;
+    private final double[] arcWeights;
+    private final double[] pathLengths;
+    private final int[] previousArcs;
+    private final int[] settledVertexes;
+    private final IndexedMinPriorityQueue queue;
+    private int settledVertexCount;
+
+    public ShortestPathSearch(CompiledGraph compiledGraph) {
+        this(compiledGraph, null);
+    }
+
+    /**
+     * @param arcWeights the weights to use, indexed by arc, or null to use
+     *                   the weights of the compiled graph
+     */
+    public ShortestPathSearch(CompiledGraph compiledGraph, double[] arcWeights) {
+        if (arcWeights != null && arcWeights.length != compiledGraph.getArcCount()) {
+            throw new IllegalArgumentException("There must be exactly one weight for each arc");
+        }
+
+        this.compiledGraph = compiledGraph;
+        this.arcWeights = arcWeights;
+
+        int vertexCount = compiledGraph.getVertexCount();
+
+        pathLengths = new double[vertexCount];
+        previousArcs = new int[vertexCount];
+        settledVertexes = new int[vertexCount];
+        queue = new IndexedMinPriorityQueue(vertexCount);
+    }
+
+    /**
+     * Computes the distances from the given source vertex, following the
+     * exiting arcs.
+     */
+    public void searchForward(int sourceIndex) {
+        reset(sourceIndex);
+        runForward();
+    }
+
+    /**
+     * Computes the distances from the nearest of the given source vertexes,
+     * all starting at distance 0; each search tree is rooted in a source.
+     */
+    public void searchForward(int[] sourceIndexes) {
+        reset(-1);
+
+        for (int sourceIndex : sourceIndexes) {
+            if (!queue.contains(sourceIndex)) {
+                pathLengths[sourceIndex] = 0;
+                queue.insert(sourceIndex, 0);
+            }
+        }
+
+        runForward();
+    }
+
+    private void runForward() {
+        while (!queue.isEmpty()) {
+            int vertexIndex = queue.poll();
+            settledVertexes[settledVertexCount++] = vertexIndex;
+
+            double vertexPathLength = pathLengths[vertexIndex];
+
+            for (int arc = compiledGraph.getExitingArcsStart(vertexIndex); arc < compiledGraph.getExitingArcsEnd(vertexIndex); arc++) {
+                int tailIndex = compiledGraph.getArcTail(arc);
+                double tailPathLength = vertexPathLength + getArcWeight(arc);
+
+                if (tailPathLength < pathLengths[tailIndex]) {
+                    pathLengths[tailIndex] = tailPathLength;
+                    previousArcs[tailIndex] = arc;
+                    queue.insertOrDecrease(tailIndex, tailPathLength);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the distances to the given target vertex, following the
+     * entering arcs; the previous arc of each vertex is then the first arc of
+     * its shortest path to the target.
+     */
+    public void searchBackward(int targetIndex) {
+        reset(targetIndex);
+
+        while (!queue.isEmpty()) {
+            int vertexIndex = queue.poll();
+            settledVertexes[settledVertexCount++] = vertexIndex;
+
+            double vertexPathLength = pathLengths[vertexIndex];
+
+            for (int position = compiledGraph.getEnteringArcsStart(vertexIndex); position < compiledGraph.getEnteringArcsEnd(vertexIndex); position++) {
+                int arc = compiledGraph.getEnteringArc(position);
+                int headIndex = compiledGraph.getArcHead(arc);
+                double headPathLength = vertexPathLength + getArcWeight(arc);
+
+                if (headPathLength < pathLengths[headIndex]) {
+                    pathLengths[headIndex] = headPathLength;
+                    previousArcs[headIndex] = arc;
+                    queue.insertOrDecrease(headIndex, headPathLength);
+                }
+            }
+        }
+    }
+
+    private double getArcWeight(int arc) {
+        return (arcWeights != null) ? arcWeights[arc] : compiledGraph.getArcWeight(arc);
+    }
+
+    private void reset(int sourceIndex) {
+        Arrays.fill(pathLengths, Double.POSITIVE_INFINITY);
+        Arrays.fill(previousArcs, -1);
+        queue.clear();
+        settledVertexCount = 0;
+
+        if (sourceIndex >= 0) {
+            pathLengths[sourceIndex] = 0;
+            queue.insert(sourceIndex, 0);
+        }
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    /**
+     * @return the distance computed by the last search, or positive infinity
+     * if the vertex was not reached
+     */
+    public double getPathLength(int vertexIndex) {
+        return pathLengths[vertexIndex];
+    }
+
+    /**
+     * @return the arc through which the last search reached the vertex, or -1
+     * for the source and for the vertexes not reached
+     */
+    public int getPreviousArc(int vertexIndex) {
+        return previousArcs[vertexIndex];
+    }
+
+    /**
+     * @return how many vertexes were settled by the last search
+     */
+    public int getSettledVertexCount() {
+        return settledVertexCount;
+    }
+
+    /**
+     * @return the vertex settled at the given position by the last search;
+     * vertexes are settled in non-decreasing order of distance
+     */
+    public int getSettledVertex(int position) {
+        return settledVertexes[position];
+    }
+
+    /**
+     * Copies the distances computed by the last search into the given array,
+     * starting from the given offset.
+     */
+    public void copyPathLengths(double[] destination, int offset) {
+        System.arraycopy(pathLengths, 0, destination, offset, pathLengths.length);
+    }
+
+}
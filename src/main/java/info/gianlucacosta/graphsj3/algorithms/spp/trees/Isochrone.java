@@ -0,0 +1,144 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.trees;
+
+import info.gianlucacosta.arcontes.graphs.Link;
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.SppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+
+import java.util.*;
+
+/**
+ * The vertexes within a radius from a start vertex, in non-decreasing order
+ * of distance, with the boundary arcs that leave the region.
+ */
+public class Isochrone {
+
+    private final CompiledGraph compiledGraph;
+    private final double radius;
+    private final int[] vertexIndexes;
+    private final double[] pathLengths;
+    private final int[] previousArcs;
+    private final int[] boundaryArcs;
+    private final Map<Vertex, Integer> positions;
+
+    /**
+     * @param vertexIndexes the vertexes of the region, in the order they were
+     *                      settled; this and the other arrays are not copied
+     * @param pathLengths   the distance of each vertex of the region
+     * @param previousArcs  the previous arc of each vertex of the region, -1
+     *                      for the start vertex
+     * @param boundaryArcs  the arcs going from the region to the vertexes
+     *                      outside it
+     */
+    public Isochrone(CompiledGraph compiledGraph, double radius, int[] vertexIndexes, double[] pathLengths, int[] previousArcs, int[] boundaryArcs) {
+        if (pathLengths.length != vertexIndexes.length || previousArcs.length != vertexIndexes.length) {
+            throw new IllegalArgumentException("The arrays do not match the vertexes of the region");
+        }
+
+        this.compiledGraph = compiledGraph;
+        this.radius = radius;
+        this.vertexIndexes = vertexIndexes;
+        this.pathLengths = pathLengths;
+        this.previousArcs = previousArcs;
+        this.boundaryArcs = boundaryArcs;
+
+        positions = new HashMap<>(vertexIndexes.length * 2);
+        for (int position = 0; position < vertexIndexes.length; position++) {
+            positions.put(compiledGraph.getVertex(vertexIndexes[position]), position);
+        }
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    public double getRadius() {
+        return radius;
+    }
+
+    public int getVertexCount() {
+        return vertexIndexes.length;
+    }
+
+    /**
+     * @return the vertexes of the region, in non-decreasing order of distance
+     */
+    public List<Vertex> getVertexes() {
+        List<Vertex> result = new ArrayList<>(vertexIndexes.length);
+
+        for (int vertexIndex : vertexIndexes) {
+            result.add(compiledGraph.getVertex(vertexIndex));
+        }
+
+        return result;
+    }
+
+    public boolean contains(Vertex vertex) {
+        return positions.containsKey(vertex);
+    }
+
+    /**
+     * @return the distance of the given vertex, or positive infinity if it is
+     * outside the region
+     */
+    public double getPathLength(Vertex vertex) {
+        Integer position = positions.get(vertex);
+
+        return (position != null) ? pathLengths[position] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @return the label that Spp would assign to the given vertex of the
+     * region
+     */
+    public SppVertexInfo getSppVertexInfo(Vertex vertex) {
+        Integer position = positions.get(vertex);
+
+        if (position == null) {
+            throw new IllegalArgumentException("The vertex is outside the region");
+        }
+
+        int previousArc = previousArcs[position];
+        Vertex previousVertex = (previousArc >= 0) ? compiledGraph.getVertex(compiledGraph.getArcHead(previousArc)) : null;
+
+        return new DefaultSppVertexInfo(previousVertex, pathLengths[position]);
+    }
+
+    /**
+     * @return the links of the arcs going from the region to the vertexes
+     * outside it, grouped by the region vertex they leave
+     */
+    public List<Link> getBoundaryLinks() {
+        List<Link> result = new ArrayList<>(boundaryArcs.length);
+
+        for (int arc : boundaryArcs) {
+            result.add(compiledGraph.getArcLink(arc));
+        }
+
+        return result;
+    }
+
+}
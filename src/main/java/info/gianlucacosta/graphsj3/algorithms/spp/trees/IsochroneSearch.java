@@ -0,0 +1,161 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.trees;
+
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.IndexedMinPriorityQueue;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra search bounded by a radius: it stops as soon as the minimum key
+ * in its queue exceeds the radius, returning the region of the vertexes
+ * whose distance from the start vertex does not exceed it.
+ * <p>
+ * Only the vertexes touched by the previous query are reset, so that the
+ * cost of each query depends on the size of its region and of its
+ * frontier, not on the size of the graph. Instances are not thread-safe,
+ * but several instances can share the same CompiledGraph.
+ */
+public class IsochroneSearch {
+
+    private final CompiledGraph compiledGraph;
+    private final double[] pathLengths;
+    private final int[] previousArcs;
+    private final boolean[] settled;
+    private final int[] touchedVertexes;
+    private final int[] settledVertexes;
+    private final IndexedMinPriorityQueue queue;
+    private int touchedVertexCount;
+
+    public IsochroneSearch(CompiledGraph compiledGraph) {
+        compiledGraph.requireNonNegativeArcWeights();
+
+        this.compiledGraph = compiledGraph;
+
+        int vertexCount = compiledGraph.getVertexCount();
+
+        pathLengths = new double[vertexCount];
+        previousArcs = new int[vertexCount];
+        settled = new boolean[vertexCount];
+        touchedVertexes = new int[vertexCount];
+        settledVertexes = new int[vertexCount];
+        queue = new IndexedMinPriorityQueue(vertexCount);
+
+        Arrays.fill(pathLengths, Double.POSITIVE_INFINITY);
+        Arrays.fill(previousArcs, -1);
+    }
+
+    /**
+     * @return the vertexes whose distance from the start vertex is at most the
+     * given radius, with the arcs leaving them
+     */
+    public Isochrone search(Vertex startVertex, double radius) {
+        if (!(radius >= 0)) {
+            throw new IllegalArgumentException("The radius cannot be negative");
+        }
+
+        int startIndex = compiledGraph.getVertexIndex(startVertex);
+
+        for (int position = 0; position < touchedVertexCount; position++) {
+            int vertexIndex = touchedVertexes[position];
+
+            pathLengths[vertexIndex] = Double.POSITIVE_INFINITY;
+            previousArcs[vertexIndex] = -1;
+            settled[vertexIndex] = false;
+        }
+
+        touchedVertexCount = 0;
+        queue.clear();
+
+        touchedVertexes[touchedVertexCount++] = startIndex;
+        pathLengths[startIndex] = 0;
+        queue.insert(startIndex, 0);
+
+        int settledVertexCount = 0;
+
+        while (!queue.isEmpty() && queue.peekKey() <= radius) {
+            int vertexIndex = queue.poll();
+
+            settled[vertexIndex] = true;
+            settledVertexes[settledVertexCount++] = vertexIndex;
+
+            double vertexPathLength = pathLengths[vertexIndex];
+
+            for (int arc = compiledGraph.getExitingArcsStart(vertexIndex); arc < compiledGraph.getExitingArcsEnd(vertexIndex); arc++) {
+                int tailIndex = compiledGraph.getArcTail(arc);
+                double tailPathLength = vertexPathLength + compiledGraph.getArcWeight(arc);
+
+                if (tailPathLength < pathLengths[tailIndex]) {
+                    if (Double.isInfinite(pathLengths[tailIndex])) {
+                        touchedVertexes[touchedVertexCount++] = tailIndex;
+                    }
+
+                    pathLengths[tailIndex] = tailPathLength;
+                    previousArcs[tailIndex] = arc;
+                    queue.insertOrDecrease(tailIndex, tailPathLength);
+                }
+            }
+        }
+
+        int[] regionVertexes = Arrays.copyOf(settledVertexes, settledVertexCount);
+        double[] regionPathLengths = new double[settledVertexCount];
+        int[] regionPreviousArcs = new int[settledVertexCount];
+
+        int boundaryArcCount = 0;
+
+        for (int position = 0; position < settledVertexCount; position++) {
+            int vertexIndex = regionVertexes[position];
+
+            regionPathLengths[position] = pathLengths[vertexIndex];
+            regionPreviousArcs[position] = previousArcs[vertexIndex];
+
+            for (int arc = compiledGraph.getExitingArcsStart(vertexIndex); arc < compiledGraph.getExitingArcsEnd(vertexIndex); arc++) {
+                if (!settled[compiledGraph.getArcTail(arc)]) {
+                    boundaryArcCount++;
+                }
+            }
+        }
+
+        int[] boundaryArcs = new int[boundaryArcCount];
+        boundaryArcCount = 0;
+
+        for (int position = 0; position < settledVertexCount; position++) {
+            int vertexIndex = regionVertexes[position];
+
+            for (int arc = compiledGraph.getExitingArcsStart(vertexIndex); arc < compiledGraph.getExitingArcsEnd(vertexIndex); arc++) {
+                if (!settled[compiledGraph.getArcTail(arc)]) {
+                    boundaryArcs[boundaryArcCount++] = arc;
+                }
+            }
+        }
+
+        return new Isochrone(compiledGraph, radius, regionVertexes, regionPathLengths, regionPreviousArcs, boundaryArcs);
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+}
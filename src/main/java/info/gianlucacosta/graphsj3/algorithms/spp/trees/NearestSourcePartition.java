@@ -0,0 +1,132 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.trees;
+
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.SppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shortest path forest from many source vertexes, recording for each vertex
+ * its distance from the nearest source and the source owning it.
+ */
+public class NearestSourcePartition {
+
+    private final CompiledGraph compiledGraph;
+    private final double[] pathLengths;
+    private final int[] previousArcs;
+    private final int[] ownerIndexes;
+
+    /**
+     * @param pathLengths  the distances from the nearest source, indexed by
+     *                     vertex; the array is not copied
+     * @param previousArcs the previous arcs, indexed by vertex, -1 for the
+     *                     sources and for the unreachable vertexes; the array
+     *                     is not copied
+     * @param ownerIndexes the nearest source of each vertex, -1 for the
+     *                     unreachable vertexes; the array is not copied
+     */
+    public NearestSourcePartition(CompiledGraph compiledGraph, double[] pathLengths, int[] previousArcs, int[] ownerIndexes) {
+        int vertexCount = compiledGraph.getVertexCount();
+
+        if (pathLengths.length != vertexCount || previousArcs.length != vertexCount || ownerIndexes.length != vertexCount) {
+            throw new IllegalArgumentException("The arrays do not match the vertexes of the graph");
+        }
+
+        this.compiledGraph = compiledGraph;
+        this.pathLengths = pathLengths;
+        this.previousArcs = previousArcs;
+        this.ownerIndexes = ownerIndexes;
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    /**
+     * @return the distance from the nearest source, or positive infinity if
+     * no source can reach the vertex
+     */
+    public double getPathLength(Vertex vertex) {
+        return pathLengths[compiledGraph.getVertexIndex(vertex)];
+    }
+
+    /**
+     * @return the nearest source, or null if no source can reach the vertex
+     */
+    public Vertex getOwner(Vertex vertex) {
+        int ownerIndex = ownerIndexes[compiledGraph.getVertexIndex(vertex)];
+
+        return (ownerIndex >= 0) ? compiledGraph.getVertex(ownerIndex) : null;
+    }
+
+    public int getOwnerIndex(int vertexIndex) {
+        return ownerIndexes[vertexIndex];
+    }
+
+    /**
+     * @return the vertexes owned by the given source, in graph order
+     */
+    public List<Vertex> getOwnedVertexes(Vertex sourceVertex) {
+        int sourceIndex = compiledGraph.getVertexIndex(sourceVertex);
+
+        List<Vertex> result = new ArrayList<>();
+
+        for (int vertexIndex = 0; vertexIndex < ownerIndexes.length; vertexIndex++) {
+            if (ownerIndexes[vertexIndex] == sourceIndex) {
+                result.add(compiledGraph.getVertex(vertexIndex));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the label that Spp would assign to the given vertex if started
+     * from its owner; an unreachable vertex, having no owner, gets a null
+     * previous vertex and infinite distance
+     */
+    public SppVertexInfo getSppVertexInfo(Vertex vertex) {
+        int vertexIndex = compiledGraph.getVertexIndex(vertex);
+        int previousArc = previousArcs[vertexIndex];
+
+        Vertex previousVertex = (previousArc >= 0) ? compiledGraph.getVertex(compiledGraph.getArcHead(previousArc)) : null;
+
+        return new DefaultSppVertexInfo(previousVertex, pathLengths[vertexIndex]);
+    }
+
+    /**
+     * Writes the label of every vertex into the given repository.
+     */
+    public void writeLabels(MetaInfoRepository metaInfoRepository) {
+        for (Vertex vertex : compiledGraph.getVertexes()) {
+            metaInfoRepository.putMetaInfo(vertex, getSppVertexInfo(vertex));
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.trees;
+
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.ShortestPathSearch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Assigns each vertex to its nearest source vertex with a single Dijkstra
+ * search, seeded with all the sources at distance 0.
+ * <p>
+ * The resulting shortest path forest has a tree rooted in each source, and
+ * the vertexes of each tree form its cell in the graph Voronoi partition.
+ * The owner of a vertex is derived from its previous arc, visiting the
+ * vertexes in the order they were settled, so that the search itself does
+ * no extra work.
+ */
+public class NearestSourceSearch {
+
+    private final CompiledGraph compiledGraph;
+    private final ShortestPathSearch search;
+
+    public NearestSourceSearch(CompiledGraph compiledGraph) {
+        compiledGraph.requireNonNegativeArcWeights();
+
+        this.compiledGraph = compiledGraph;
+
+        search = new ShortestPathSearch(compiledGraph);
+    }
+
+    public NearestSourcePartition search(Collection<Vertex> sourceVertexes) {
+        if (sourceVertexes.isEmpty()) {
+            throw new IllegalArgumentException("There must be at least one source vertex");
+        }
+
+        int vertexCount = compiledGraph.getVertexCount();
+
+        List<Vertex> sources = new ArrayList<>(sourceVertexes);
+        int[] sourceIndexes = new int[sources.size()];
+
+        for (int position = 0; position < sourceIndexes.length; position++) {
+            sourceIndexes[position] = compiledGraph.getVertexIndex(sources.get(position));
+        }
+
+        search.searchForward(sourceIndexes);
+
+        double[] pathLengths = new double[vertexCount];
+        search.copyPathLengths(pathLengths, 0);
+
+        int[] previousArcs = new int[vertexCount];
+        int[] ownerIndexes = new int[vertexCount];
+
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            previousArcs[vertexIndex] = search.getPreviousArc(vertexIndex);
+            ownerIndexes[vertexIndex] = -1;
+        }
+
+        //Each vertex is settled after the head of its previous arc
+        for (int position = 0; position < search.getSettledVertexCount(); position++) {
+            int vertexIndex = search.getSettledVertex(position);
+            int previousArc = previousArcs[vertexIndex];
+
+            ownerIndexes[vertexIndex] = (previousArc >= 0) ? ownerIndexes[compiledGraph.getArcHead(previousArc)] : vertexIndex;
+        }
+
+        return new NearestSourcePartition(compiledGraph, pathLengths, previousArcs, ownerIndexes);
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+}
@@ -0,0 +1,134 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.trees;
+
+import info.gianlucacosta.arcontes.graphs.Link;
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.SppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+
+/**
+ * Immutable shortest path tree from a start vertex of a CompiledGraph,
+ * stored as a distance and a previous arc for each vertex.
+ */
+public class ShortestPathTree {
+
+    private final CompiledGraph compiledGraph;
+    private final int startIndex;
+    private final double[] pathLengths;
+    private final int[] previousArcs;
+
+    /**
+     * @param pathLengths  the distances indexed by vertex, positive infinity
+     *                     for the unreachable vertexes; the array is not
+     *                     copied
+     * @param previousArcs the previous arcs indexed by vertex, -1 for the
+     *                     start vertex and for the unreachable vertexes; the
+     *                     array is not copied
+     */
+    public ShortestPathTree(CompiledGraph compiledGraph, int startIndex, double[] pathLengths, int[] previousArcs) {
+        int vertexCount = compiledGraph.getVertexCount();
+
+        if (pathLengths.length != vertexCount || previousArcs.length != vertexCount) {
+            throw new IllegalArgumentException("The arrays do not match the vertexes of the graph");
+        }
+
+        this.compiledGraph = compiledGraph;
+        this.startIndex = startIndex;
+        this.pathLengths = pathLengths;
+        this.previousArcs = previousArcs;
+    }
+
+    public CompiledGraph getCompiledGraph() {
+        return compiledGraph;
+    }
+
+    public Vertex getStartVertex() {
+        return compiledGraph.getVertex(startIndex);
+    }
+
+    public int getStartIndex() {
+        return startIndex;
+    }
+
+    public double getPathLength(int vertexIndex) {
+        return pathLengths[vertexIndex];
+    }
+
+    public double getPathLength(Vertex vertex) {
+        return pathLengths[compiledGraph.getVertexIndex(vertex)];
+    }
+
+    /**
+     * @return the last arc of the shortest path to the given vertex, or -1 for
+     * the start vertex and for the unreachable vertexes
+     */
+    public int getPreviousArc(int vertexIndex) {
+        return previousArcs[vertexIndex];
+    }
+
+    /**
+     * @return the last link of the shortest path to the given vertex, or null
+     * for the start vertex and for the unreachable vertexes
+     */
+    public Link getPreviousLink(Vertex vertex) {
+        int previousArc = previousArcs[compiledGraph.getVertexIndex(vertex)];
+
+        return (previousArc >= 0) ? compiledGraph.getArcLink(previousArc) : null;
+    }
+
+    /**
+     * @return the label that Spp would assign to the given vertex; the previous
+     * vertex is null for the unreachable vertexes, whereas Spp points them to
+     * the start vertex
+     */
+    public SppVertexInfo getSppVertexInfo(Vertex vertex) {
+        int vertexIndex = compiledGraph.getVertexIndex(vertex);
+        int previousArc = previousArcs[vertexIndex];
+
+        Vertex previousVertex = (previousArc >= 0) ? compiledGraph.getVertex(compiledGraph.getArcHead(previousArc)) : null;
+
+        return new DefaultSppVertexInfo(previousVertex, pathLengths[vertexIndex]);
+    }
+
+    /**
+     * Writes the label of every vertex into the given repository.
+     */
+    public void writeLabels(MetaInfoRepository metaInfoRepository) {
+        for (Vertex vertex : compiledGraph.getVertexes()) {
+            metaInfoRepository.putMetaInfo(vertex, getSppVertexInfo(vertex));
+        }
+    }
+
+    /**
+     * @return an estimate, in bytes, of the memory retained by the tree,
+     * excluding the compiled graph
+     */
+    public long getMemoryFootprint() {
+        //Object headers and fields, plus the two arrays
+        return 64 + 8L * pathLengths.length + 4L * previousArcs.length;
+    }
+
+}
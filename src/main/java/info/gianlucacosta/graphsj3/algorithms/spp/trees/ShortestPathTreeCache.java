@@ -0,0 +1,230 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.trees;
+
+import info.gianlucacosta.arcontes.graphs.GraphContext;
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.ShortestPathSearch;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Cache of shortest path trees, keyed by start vertex and graph stamp, with
+ * least-recently-used eviction within a memory bound.
+ * <p>
+ * The graph stamp is chosen by the caller, who must change it whenever the
+ * graph or its weights change: a request with a new stamp compiles the graph
+ * again and discards all the trees of the previous stamp. Repeated requests
+ * for the same start vertex and stamp return the cached tree without
+ * running any search.
+ * <p>
+ * Instances are thread-safe; the searches run outside the lock, so
+ * concurrent misses on the same key may compute the same tree twice.
+ */
+public class ShortestPathTreeCache {
+
+    private final GraphContext graphContext;
+    private final long memoryBound;
+    private final LinkedHashMap<TreeKey, ShortestPathTree> trees;
+
+    private CompiledGraph compiledGraph;
+    private long graphStamp;
+    private long memoryUsage;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * @param memoryBound the maximum memory, in bytes, that the cached trees
+     *                    can retain, as estimated by
+     *                    {@link ShortestPathTree#getMemoryFootprint()}
+     */
+    public ShortestPathTreeCache(GraphContext graphContext, long memoryBound) {
+        if (memoryBound < 0) {
+            throw new IllegalArgumentException("The memory bound cannot be negative");
+        }
+
+        this.graphContext = graphContext;
+        this.memoryBound = memoryBound;
+
+        trees = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * @return the shortest path tree from the given start vertex, computing it
+     * only if it is not cached for the given stamp
+     */
+    public ShortestPathTree getTree(Vertex startVertex, long graphStamp) {
+        TreeKey key = new TreeKey(startVertex, graphStamp);
+        CompiledGraph treeGraph;
+
+        synchronized (this) {
+            if (compiledGraph == null || graphStamp != this.graphStamp) {
+                compileGraph(graphStamp);
+            }
+
+            ShortestPathTree cachedTree = trees.get(key);
+
+            if (cachedTree != null) {
+                hitCount++;
+                return cachedTree;
+            }
+
+            missCount++;
+            treeGraph = compiledGraph;
+        }
+
+        ShortestPathTree tree = computeTree(treeGraph, treeGraph.getVertexIndex(startVertex));
+
+        synchronized (this) {
+            if (treeGraph == compiledGraph && !trees.containsKey(key)) {
+                storeTree(key, tree);
+            }
+        }
+
+        return tree;
+    }
+
+    private void compileGraph(long graphStamp) {
+        CompiledGraph newGraph = new CompiledGraph(graphContext);
+
+        newGraph.requireNonNegativeArcWeights();
+
+        evictionCount += trees.size();
+        trees.clear();
+        memoryUsage = 0;
+
+        compiledGraph = newGraph;
+        this.graphStamp = graphStamp;
+    }
+
+    private static ShortestPathTree computeTree(CompiledGraph compiledGraph, int startIndex) {
+        int vertexCount = compiledGraph.getVertexCount();
+
+        ShortestPathSearch search = new ShortestPathSearch(compiledGraph);
+        search.searchForward(startIndex);
+
+        double[] pathLengths = new double[vertexCount];
+        search.copyPathLengths(pathLengths, 0);
+
+        int[] previousArcs = new int[vertexCount];
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            previousArcs[vertexIndex] = search.getPreviousArc(vertexIndex);
+        }
+
+        return new ShortestPathTree(compiledGraph, startIndex, pathLengths, previousArcs);
+    }
+
+    private void storeTree(TreeKey key, ShortestPathTree tree) {
+        long footprint = tree.getMemoryFootprint();
+
+        //A tree exceeding the whole bound would only flush the cache
+        if (footprint > memoryBound) {
+            return;
+        }
+
+        trees.put(key, tree);
+        memoryUsage += footprint;
+
+        Iterator<ShortestPathTree> eldestTrees = trees.values().iterator();
+
+        while (memoryUsage > memoryBound) {
+            ShortestPathTree eldestTree = eldestTrees.next();
+
+            memoryUsage -= eldestTree.getMemoryFootprint();
+            eldestTrees.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Discards all the cached trees, keeping the counters.
+     */
+    public synchronized void clear() {
+        evictionCount += trees.size();
+        trees.clear();
+        memoryUsage = 0;
+    }
+
+    public long getMemoryBound() {
+        return memoryBound;
+    }
+
+    /**
+     * @return the estimated memory, in bytes, retained by the cached trees
+     */
+    public synchronized long getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    public synchronized int getTreeCount() {
+        return trees.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return how many trees were discarded, because of the memory bound or
+     * of a new graph stamp
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    private static class TreeKey {
+
+        private final Vertex startVertex;
+        private final long graphStamp;
+
+        TreeKey(Vertex startVertex, long graphStamp) {
+            this.startVertex = startVertex;
+            this.graphStamp = graphStamp;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof TreeKey)) {
+                return false;
+            }
+
+            TreeKey other = (TreeKey) obj;
+
+            return startVertex.equals(other.startVertex) && graphStamp == other.graphStamp;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * startVertex.hashCode() + (int) (graphStamp ^ (graphStamp >>> 32));
+        }
+
+    }
+
+}
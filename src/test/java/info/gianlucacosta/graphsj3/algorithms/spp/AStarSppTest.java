@@ -0,0 +1,153 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.AlgorithmException;
+import info.gianlucacosta.arcontes.algorithms.AlgorithmInput;
+import info.gianlucacosta.arcontes.graphs.*;
+import info.gianlucacosta.graphsj3.algorithms.spp.heuristics.EuclideanHeuristic;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultCoordinatesInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.SppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.SearchSpace;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class AStarSppTest extends AbstractSppGraphTest<AStarSpp> {
+
+    @Override
+    protected GraphContext createGraphContext() {
+        GraphContext graphContext = super.createGraphContext();
+        MetaInfoRepository metaInfoRepository = graphContext.getMetaInfoRepository();
+
+        metaInfoRepository.putMetaInfo(v1, new DefaultCoordinatesInfo(0, 0));
+        metaInfoRepository.putMetaInfo(v2, new DefaultCoordinatesInfo(7, 0));
+        metaInfoRepository.putMetaInfo(v3, new DefaultCoordinatesInfo(3, 0));
+        metaInfoRepository.putMetaInfo(v4, new DefaultCoordinatesInfo(5, 0));
+        metaInfoRepository.putMetaInfo(v5, new DefaultCoordinatesInfo(8, 0));
+
+        return graphContext;
+    }
+
+    @Override
+    protected List<Vertex> getInputVertexes() {
+        return Arrays.asList(v1, v5);
+    }
+
+    @Override
+    protected AStarSpp createAlgorithm() {
+        GraphContext graphContext = getGraphContext();
+
+        return new AStarSpp(graphContext, getAlgorithmSettings(), getAlgorithmInput(), getAlgorithmOutput(),
+                new EuclideanHeuristic(graphContext.getMetaInfoRepository(), 1));
+    }
+
+    @Test
+    public void theAlgorithm_shouldNotSettleVertexesLeadingAwayFromTheTarget() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getCurrentStep(), equalTo(4));
+        assertThat(getAlgorithm().getSettledVertexCount(), equalTo(4));
+    }
+
+    @Test
+    public void getPathVertexes_shouldBeEmptyBeforeTheTargetIsSettled() throws AlgorithmException {
+        runSteps(3);
+
+        assertThat(getAlgorithm().getPathVertexes().isEmpty(), equalTo(true));
+        assertThat(getAlgorithm().getPathLinks().isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void getPathVertexes_shouldReturnThePathToTheTarget() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getPathVertexes(), contains(v1, v3, v2, v5));
+    }
+
+    @Test
+    public void getPathLinks_shouldReturnThePathToTheTarget() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getPathLinks(), contains(v1_v3, v3_v2, v2_v5));
+    }
+
+    @Test
+    public void getPathLength_shouldReturnTheDistanceOfTheTarget() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getPathLength(), equalTo(9.0));
+    }
+
+    @Test
+    public void theGraph_shouldHaveCorrectMetaDataAtTheEnd() throws AlgorithmException {
+        fullRun();
+
+        MetaInfoRepository metaInfoRepository = getGraphContext().getMetaInfoRepository();
+
+        assertThat(metaInfoRepository.getMetaInfo(v1, SppVertexInfo.class), equalTo((SppVertexInfo) new DefaultSppVertexInfo(null, 0)));
+        assertThat(metaInfoRepository.getMetaInfo(v2, SppVertexInfo.class), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v3, 8)));
+        assertThat(metaInfoRepository.getMetaInfo(v3, SppVertexInfo.class), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v1, 4)));
+        assertThat(metaInfoRepository.getMetaInfo(v4, SppVertexInfo.class), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v3, 7)));
+        assertThat(metaInfoRepository.getMetaInfo(v5, SppVertexInfo.class), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v2, 9)));
+    }
+
+    @Test
+    public void aSharedSearchSpace_shouldRequestTheLowerBoundsOfEachTarget() throws AlgorithmException {
+        CompiledGraph compiledGraph = new CompiledGraph(getGraphContext());
+        SearchSpace searchSpace = new SearchSpace(compiledGraph);
+        int v1Index = compiledGraph.getVertexIndex(v1);
+
+        AStarSpp firstQuery = runQuery(searchSpace, v1, v5);
+
+        assertThat(firstQuery.getPathLength(), equalTo(9.0));
+        assertThat(searchSpace.getLowerBound(v1Index), equalTo(8.0));
+
+        AStarSpp secondQuery = runQuery(searchSpace, v1, v3);
+
+        assertThat(secondQuery.getPathVertexes(), contains(v1, v3));
+        assertThat(searchSpace.getLowerBound(v1Index), equalTo(3.0));
+    }
+
+    private AStarSpp runQuery(SearchSpace searchSpace, Vertex startVertex, Vertex targetVertex) throws AlgorithmException {
+        AlgorithmInput algorithmInput = createScriptedInput(startVertex, targetVertex);
+
+        AStarSpp aStarSpp = new AStarSpp(getGraphContext(), getAlgorithmSettings(), algorithmInput, getAlgorithmOutput(), searchSpace,
+                new EuclideanHeuristic(getGraphContext().getMetaInfoRepository(), 1));
+
+        aStarSpp.init();
+        while (aStarSpp.runStep()) {
+        }
+
+        return aStarSpp;
+    }
+
+}
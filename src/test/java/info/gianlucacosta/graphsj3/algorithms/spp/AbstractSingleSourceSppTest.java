@@ -0,0 +1,54 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.AlgorithmException;
+import info.gianlucacosta.arcontes.algorithms.CommonAlgorithm;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.SppVertexInfo;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * The graph of SppTest, searched from V1, for the engines that must label
+ * its vertexes exactly as Spp does
+ */
+public abstract class AbstractSingleSourceSppTest<T extends CommonAlgorithm> extends AbstractSppGraphTest<T> {
+
+    @Test
+    public void theGraph_shouldHaveTheSameMetaDataAsSpp() throws AlgorithmException {
+        fullRun();
+
+        MetaInfoRepository metaInfoRepository = getGraphContext().getMetaInfoRepository();
+
+        assertThat(metaInfoRepository.getMetaInfo(v1, SppVertexInfo.class), equalTo((SppVertexInfo) new DefaultSppVertexInfo(null, 0)));
+        assertThat(metaInfoRepository.getMetaInfo(v2, SppVertexInfo.class), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v3, 8)));
+        assertThat(metaInfoRepository.getMetaInfo(v3, SppVertexInfo.class), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v1, 4)));
+        assertThat(metaInfoRepository.getMetaInfo(v4, SppVertexInfo.class), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v3, 7)));
+        assertThat(metaInfoRepository.getMetaInfo(v5, SppVertexInfo.class), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v2, 9)));
+    }
+
+}
@@ -0,0 +1,116 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.AlgorithmInput;
+import info.gianlucacosta.arcontes.algorithms.CommonAlgorithm;
+import info.gianlucacosta.arcontes.algorithms.ScriptedAlgorithmInput;
+import info.gianlucacosta.arcontes.algorithms.test.CommonAlgorithmTest;
+import info.gianlucacosta.arcontes.graphs.GraphContext;
+import info.gianlucacosta.arcontes.graphs.Link;
+import info.gianlucacosta.arcontes.graphs.Vertex;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Runs an algorithm on the graph of SppTest; by default, its input only
+ * chooses V1
+ */
+public abstract class AbstractSppGraphTest<T extends CommonAlgorithm> extends CommonAlgorithmTest<T> {
+
+    protected Vertex v1;
+    protected Vertex v2;
+    protected Vertex v3;
+    protected Vertex v4;
+    protected Vertex v5;
+    protected Link v1_v2;
+    protected Link v1_v3;
+    protected Link v1_v4;
+    protected Link v2_v5;
+    protected Link v3_v2;
+    protected Link v3_v4;
+    protected Link v3_v5;
+    protected Link v4_v5;
+    private SppTestGraph testGraph;
+
+    @Override
+    protected GraphContext createGraphContext() {
+        testGraph = new SppTestGraph();
+
+        v1 = testGraph.getVertex(1);
+        v2 = testGraph.getVertex(2);
+        v3 = testGraph.getVertex(3);
+        v4 = testGraph.getVertex(4);
+        v5 = testGraph.getVertex(5);
+
+        v1_v2 = testGraph.getLink(1, 2);
+        v1_v3 = testGraph.getLink(1, 3);
+        v1_v4 = testGraph.getLink(1, 4);
+        v2_v5 = testGraph.getLink(2, 5);
+        v3_v2 = testGraph.getLink(3, 2);
+        v3_v4 = testGraph.getLink(3, 4);
+        v3_v5 = testGraph.getLink(3, 5);
+        v4_v5 = testGraph.getLink(4, 5);
+
+        return testGraph.getGraphContext();
+    }
+
+    @Override
+    protected AlgorithmInput createAlgorithmInput() {
+        return new ScriptedAlgorithmInput() {
+            @Override
+            protected Queue<Vertex> initInputVertexes() {
+                return new LinkedList<>(getInputVertexes());
+            }
+
+        };
+    }
+
+    /**
+     * @return the vertexes chosen by the input of the tested algorithm
+     */
+    protected List<Vertex> getInputVertexes() {
+        return Arrays.asList(v1);
+    }
+
+    /**
+     * @return an input choosing the given vertexes, in order
+     */
+    protected AlgorithmInput createScriptedInput(final Vertex... inputVertexes) {
+        return new ScriptedAlgorithmInput() {
+            @Override
+            protected Queue<Vertex> initInputVertexes() {
+                return new LinkedList<>(Arrays.asList(inputVertexes));
+            }
+
+        };
+    }
+
+    protected SppTestGraph getTestGraph() {
+        return testGraph;
+    }
+
+}
@@ -0,0 +1,133 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.AlgorithmException;
+import info.gianlucacosta.arcontes.graphs.Vertex;
+import info.gianlucacosta.graphsj3.algorithms.spp.heuristics.LandmarkSelection;
+import info.gianlucacosta.graphsj3.algorithms.spp.heuristics.LandmarkTables;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+public class AltSppTest extends AbstractSppGraphTest<AltSpp> {
+
+    private CompiledGraph compiledGraph;
+    private LandmarkTables landmarkTables;
+
+    @Override
+    protected List<Vertex> getInputVertexes() {
+        return Arrays.asList(v1, v5);
+    }
+
+    @Override
+    protected AltSpp createAlgorithm() {
+        compiledGraph = new CompiledGraph(getGraphContext());
+        landmarkTables = new LandmarkTables(compiledGraph, 2, LandmarkSelection.AVOID);
+
+        return new AltSpp(getGraphContext(), getAlgorithmSettings(), getAlgorithmInput(), getAlgorithmOutput(), compiledGraph, landmarkTables);
+    }
+
+    @Test
+    public void getPathVertexes_shouldReturnThePathToTheTarget() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getPathVertexes(), contains(v1, v3, v2, v5));
+    }
+
+    @Test
+    public void getPathLinks_shouldReturnThePathToTheTarget() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getPathLinks(), contains(v1_v3, v3_v2, v2_v5));
+    }
+
+    @Test
+    public void getPathLength_shouldReturnTheDistanceOfTheTarget() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getPathLength(), equalTo(9.0));
+    }
+
+    @Test
+    public void theLowerBounds_shouldNotExceedTheDistances() {
+        int targetIndex = compiledGraph.getVertexIndex(v5);
+
+        assertThat(landmarkTables.getLowerBound(compiledGraph.getVertexIndex(v1), targetIndex), lessThanOrEqualTo(9.0));
+        assertThat(landmarkTables.getLowerBound(compiledGraph.getVertexIndex(v2), targetIndex), lessThanOrEqualTo(1.0));
+        assertThat(landmarkTables.getLowerBound(compiledGraph.getVertexIndex(v3), targetIndex), lessThanOrEqualTo(5.0));
+        assertThat(landmarkTables.getLowerBound(compiledGraph.getVertexIndex(v4), targetIndex), lessThanOrEqualTo(3.0));
+        assertThat(landmarkTables.getLowerBound(targetIndex, targetIndex), equalTo(0.0));
+    }
+
+    @Test
+    public void theLandmarkTables_shouldBeReloadedFromTheirBinaryForm() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        landmarkTables.save(outputStream);
+
+        LandmarkTables reloadedTables = LandmarkTables.load(new ByteArrayInputStream(outputStream.toByteArray()), compiledGraph);
+
+        assertThat(reloadedTables.getLandmarkCount(), equalTo(landmarkTables.getLandmarkCount()));
+
+        for (int landmarkIndex = 0; landmarkIndex < landmarkTables.getLandmarkCount(); landmarkIndex++) {
+            assertThat(reloadedTables.getLandmark(landmarkIndex), equalTo(landmarkTables.getLandmark(landmarkIndex)));
+
+            for (int vertexIndex = 0; vertexIndex < compiledGraph.getVertexCount(); vertexIndex++) {
+                assertThat(reloadedTables.getDistanceFromLandmark(landmarkIndex, vertexIndex), equalTo(landmarkTables.getDistanceFromLandmark(landmarkIndex, vertexIndex)));
+                assertThat(reloadedTables.getDistanceToLandmark(landmarkIndex, vertexIndex), equalTo(landmarkTables.getDistanceToLandmark(landmarkIndex, vertexIndex)));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void loadingTheLandmarkTables_shouldRejectInvalidLandmarks() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        landmarkTables.save(outputStream);
+
+        byte[] bytes = outputStream.toByteArray();
+
+        //The first landmark follows the signature, the version and the three counts
+        ByteBuffer.wrap(bytes).putInt(20, compiledGraph.getVertexCount());
+
+        LandmarkTables.load(new ByteArrayInputStream(bytes), compiledGraph);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void theLandmarkTables_shouldRejectNegativeWeights() {
+        getTestGraph().setWeight(v1_v2, -1);
+
+        new LandmarkTables(new CompiledGraph(getGraphContext()), 2, LandmarkSelection.AVOID);
+    }
+
+}
@@ -0,0 +1,77 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.AlgorithmException;
+import info.gianlucacosta.arcontes.graphs.*;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.SppVertexInfo;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class BellmanFordSppTest extends AbstractSingleSourceSppTest<BellmanFordSpp> {
+
+    @Override
+    protected BellmanFordSpp createAlgorithm() {
+        return new BellmanFordSpp(getGraphContext(), getAlgorithmSettings(), getAlgorithmInput(), getAlgorithmOutput());
+    }
+
+    @Test
+    public void getPathLinks_shouldReturnTheShortestPathTree() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getPathLinks(), contains(v3_v2, v1_v3, v3_v4, v2_v5));
+    }
+
+    @Test
+    public void theGraph_shouldHaveCorrectMetaDataWithNegativeArcs() throws AlgorithmException {
+        Link v5_v4 = getTestGraph().addLink(v5, v4, -3);
+
+        fullRun();
+
+        MetaInfoRepository metaInfoRepository = getGraphContext().getMetaInfoRepository();
+
+        assertThat(metaInfoRepository.getMetaInfo(v4, SppVertexInfo.class), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v5, 6)));
+        assertThat(getAlgorithm().getPathLinks(), contains(v3_v2, v1_v3, v5_v4, v2_v5));
+    }
+
+    @Test
+    public void theAlgorithm_shouldReportNegativeCycles() throws AlgorithmException {
+        Link v5_v1 = getTestGraph().addLink(v5, v1, -10);
+
+        try {
+            fullRun();
+            fail("The negative cycle was not detected");
+        } catch (NegativeCycleException ex) {
+            assertThat(ex.getCycleLinks(), containsInAnyOrder(v1_v3, v3_v2, v2_v5, v5_v1));
+            assertThat(ex.getCycleWeight(), equalTo(-1.0));
+        }
+    }
+
+}
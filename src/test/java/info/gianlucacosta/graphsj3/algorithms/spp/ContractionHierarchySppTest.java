@@ -0,0 +1,156 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.AlgorithmException;
+import info.gianlucacosta.arcontes.algorithms.AlgorithmInput;
+import info.gianlucacosta.arcontes.graphs.*;
+import info.gianlucacosta.graphsj3.algorithms.spp.hierarchies.ContractionHierarchy;
+import info.gianlucacosta.graphsj3.algorithms.spp.hierarchies.ContractionHierarchySearch;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.SppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+public class ContractionHierarchySppTest extends AbstractSppGraphTest<ContractionHierarchySpp> {
+
+    @Override
+    protected List<Vertex> getInputVertexes() {
+        return Arrays.asList(v1, v5);
+    }
+
+    @Override
+    protected ContractionHierarchySpp createAlgorithm() {
+        ContractionHierarchy hierarchy = new ContractionHierarchy(new CompiledGraph(getGraphContext()), 2);
+
+        return new ContractionHierarchySpp(getGraphContext(), getAlgorithmSettings(), getAlgorithmInput(), getAlgorithmOutput(), hierarchy);
+    }
+
+    @Test
+    public void theHierarchy_shouldRankEveryVertexOnce() {
+        ContractionHierarchy hierarchy = getAlgorithm().getHierarchy();
+        CompiledGraph compiledGraph = hierarchy.getCompiledGraph();
+        Set<Integer> ranks = new HashSet<>();
+
+        for (int vertexIndex = 0; vertexIndex < compiledGraph.getVertexCount(); vertexIndex++) {
+            ranks.add(hierarchy.getRank(vertexIndex));
+        }
+
+        assertThat(ranks, containsInAnyOrder(0, 1, 2, 3, 4));
+    }
+
+    @Test
+    public void theHierarchy_shouldKeepTheOriginalArcs() {
+        ContractionHierarchy hierarchy = getAlgorithm().getHierarchy();
+
+        assertThat(hierarchy.getEdgeCount() - hierarchy.getShortcutCount(), equalTo(8));
+    }
+
+    @Test
+    public void theAlgorithm_shouldSettleEachVertexAtMostOncePerDirection() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getSettledVertexCount(), lessThanOrEqualTo(10));
+    }
+
+    @Test
+    public void getPathVertexes_shouldReturnThePathToTheTarget() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getPathVertexes(), contains(v1, v3, v2, v5));
+    }
+
+    @Test
+    public void getPathLinks_shouldReturnThePathToTheTarget() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getPathLinks(), contains(v1_v3, v3_v2, v2_v5));
+    }
+
+    @Test
+    public void getPathLength_shouldReturnTheDistanceOfTheTarget() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getPathLength(), equalTo(9.0));
+    }
+
+    @Test
+    public void theGraph_shouldHaveCorrectMetaDataAlongThePath() throws AlgorithmException {
+        fullRun();
+
+        MetaInfoRepository metaInfoRepository = getGraphContext().getMetaInfoRepository();
+
+        assertThat(metaInfoRepository.getMetaInfo(v1, SppVertexInfo.class), equalTo((SppVertexInfo) new DefaultSppVertexInfo(null, 0)));
+        assertThat(metaInfoRepository.getMetaInfo(v3, SppVertexInfo.class), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v1, 4)));
+        assertThat(metaInfoRepository.getMetaInfo(v2, SppVertexInfo.class), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v3, 8)));
+        assertThat(metaInfoRepository.getMetaInfo(v5, SppVertexInfo.class), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v2, 9)));
+    }
+
+    @Test
+    public void aSharedSearch_shouldServeConsecutiveQueries() throws AlgorithmException {
+        ContractionHierarchySearch search = new ContractionHierarchySearch(getAlgorithm().getHierarchy());
+
+        ContractionHierarchySpp firstQuery = runQuery(search, v1, v5);
+
+        assertThat(firstQuery.getPathLinks(), contains(v1_v3, v3_v2, v2_v5));
+
+        ContractionHierarchySpp secondQuery = runQuery(search, v3, v4);
+
+        assertThat(secondQuery.getPathLinks(), contains(v3_v4));
+        assertThat(secondQuery.getPathLength(), equalTo(3.0));
+
+        assertThat(firstQuery.getPathLength(), equalTo(9.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void theHierarchy_shouldRejectNegativeWeights() {
+        getTestGraph().setWeight(v1_v2, -1);
+
+        new ContractionHierarchy(new CompiledGraph(getGraphContext()), 2);
+    }
+
+    private ContractionHierarchySpp runQuery(ContractionHierarchySearch search, Vertex startVertex, Vertex targetVertex) throws AlgorithmException {
+        AlgorithmInput algorithmInput = createScriptedInput(startVertex, targetVertex);
+
+        ContractionHierarchySpp contractionHierarchySpp = new ContractionHierarchySpp(getGraphContext(), getAlgorithmSettings(), algorithmInput, getAlgorithmOutput(), search);
+
+        contractionHierarchySpp.init();
+        while (contractionHierarchySpp.runStep()) {
+        }
+
+        return contractionHierarchySpp;
+    }
+
+}
@@ -0,0 +1,78 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.AlgorithmException;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class DeltaSteppingSppTest extends AbstractSingleSourceSppTest<DeltaSteppingSpp> {
+
+    @Override
+    protected DeltaSteppingSpp createAlgorithm() {
+        return new DeltaSteppingSpp(getGraphContext(), getAlgorithmSettings(), getAlgorithmInput(), getAlgorithmOutput(), 2);
+    }
+
+    @Test
+    public void getPathVertexes_shouldStartFromTheStartVertex() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getPathVertexes(), contains(v1, v2, v3, v4, v5));
+    }
+
+    @Test
+    public void getPathLinks_shouldReturnTheShortestPathTree() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getPathLinks(), contains(v3_v2, v1_v3, v3_v4, v2_v5));
+    }
+
+    @Test
+    public void aSuppliedPool_shouldBeLeftRunning() throws AlgorithmException {
+        ForkJoinPool forkJoinPool = new ForkJoinPool(2);
+
+        try {
+            DeltaSteppingSpp deltaSteppingSpp = new DeltaSteppingSpp(getGraphContext(), getAlgorithmSettings(), getAlgorithmInput(), getAlgorithmOutput(), forkJoinPool);
+
+            deltaSteppingSpp.init();
+            while (deltaSteppingSpp.runStep()) {
+            }
+
+            assertThat(deltaSteppingSpp.getPathLinks(), contains(v3_v2, v1_v3, v3_v4, v2_v5));
+            assertThat(forkJoinPool.isShutdown(), equalTo(false));
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void aNullPool_shouldBeRejected() {
+        new DeltaSteppingSpp(getGraphContext(), getAlgorithmSettings(), getAlgorithmInput(), getAlgorithmOutput(), (ForkJoinPool) null);
+    }
+
+}
@@ -0,0 +1,54 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.AlgorithmException;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class DenseSppTest extends AbstractSingleSourceSppTest<DenseSpp> {
+
+    @Override
+    protected DenseSpp createAlgorithm() {
+        return new DenseSpp(getGraphContext(), getAlgorithmSettings(), getAlgorithmInput(), getAlgorithmOutput());
+    }
+
+    @Test
+    public void theAlgorithm_shouldRunTheSameStepsAsSpp() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getCurrentStep(), equalTo(4));
+        assertThat(getAlgorithm().getPathVertexes(), contains(v1, v3, v4, v2, v5));
+    }
+
+    @Test
+    public void getPathLinks_shouldFollowTheSettlementOrder() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getPathLinks(), contains(v1_v3, v3_v4, v3_v2, v2_v5));
+    }
+
+}
@@ -0,0 +1,152 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.graphs.*;
+import info.gianlucacosta.arcontes.graphs.metainfo.WeightInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.SppVertexInfo;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class DynamicSppTest {
+
+    private Vertex v1;
+    private Vertex v2;
+    private Vertex v3;
+    private Vertex v4;
+    private Vertex v5;
+    private Link v1_v2;
+    private Link v1_v3;
+    private Link v2_v5;
+    private Link v3_v2;
+    private Link v3_v4;
+    private Link v4_v5;
+    private DynamicSpp dynamicSpp;
+    private SppTestGraph testGraph;
+
+    @Before
+    public void createGraph() {
+        testGraph = new SppTestGraph();
+
+        v1 = testGraph.getVertex(1);
+        v2 = testGraph.getVertex(2);
+        v3 = testGraph.getVertex(3);
+        v4 = testGraph.getVertex(4);
+        v5 = testGraph.getVertex(5);
+
+        v1_v2 = testGraph.getLink(1, 2);
+        v1_v3 = testGraph.getLink(1, 3);
+        v2_v5 = testGraph.getLink(2, 5);
+        v3_v2 = testGraph.getLink(3, 2);
+        v3_v4 = testGraph.getLink(3, 4);
+        v4_v5 = testGraph.getLink(4, 5);
+
+        dynamicSpp = new DynamicSpp(testGraph.getGraphContext(), v1);
+    }
+
+    private SppVertexInfo getLabel(Vertex vertex) {
+        return testGraph.getMetaInfoRepository().getMetaInfo(vertex, SppVertexInfo.class);
+    }
+
+    @Test
+    public void theConstructor_shouldWriteTheSameLabelsAsSpp() {
+        assertThat(getLabel(v1), equalTo((SppVertexInfo) new DefaultSppVertexInfo(null, 0)));
+        assertThat(getLabel(v2), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v3, 8)));
+        assertThat(getLabel(v3), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v1, 4)));
+        assertThat(getLabel(v4), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v3, 7)));
+        assertThat(getLabel(v5), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v2, 9)));
+    }
+
+    @Test
+    public void decreasingAWeight_shouldOnlyRepairTheImprovedVertexes() {
+        int changedVertexCount = dynamicSpp.setWeight(v1_v2, 1);
+
+        assertThat(changedVertexCount, equalTo(2));
+        assertThat(getLabel(v2), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v1, 1)));
+        assertThat(getLabel(v5), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v2, 2)));
+        assertThat(getLabel(v4), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v3, 7)));
+    }
+
+    @Test
+    public void increasingATreeWeight_shouldReconnectTheSubtree() {
+        int changedVertexCount = dynamicSpp.setWeight(v3_v2, 10);
+
+        assertThat(changedVertexCount, equalTo(2));
+        assertThat(getLabel(v2), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v1, 9)));
+        assertThat(dynamicSpp.getPathLength(v5), equalTo(10.0));
+        assertThat(getLabel(v3), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v1, 4)));
+    }
+
+    @Test
+    public void increasingATreeWeight_shouldOnlyRelabelTheAffectedVertexes() {
+        dynamicSpp.setWeight(v1_v2, 8);
+
+        int changedVertexCount = dynamicSpp.setWeight(v1_v3, 5);
+
+        assertThat(changedVertexCount, equalTo(3));
+        assertThat(getLabel(v2), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v1, 8)));
+        assertThat(getLabel(v3), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v1, 5)));
+        assertThat(dynamicSpp.getPathLength(v4), equalTo(8.0));
+        assertThat(getLabel(v5), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v2, 9)));
+    }
+
+    @Test
+    public void increasingANonTreeWeight_shouldChangeNoLabel() {
+        assertThat(dynamicSpp.setWeight(v1_v2, 20), equalTo(0));
+        assertThat(getLabel(v2), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v3, 8)));
+    }
+
+    @Test
+    public void setWeight_shouldWriteTheWeightInfo() {
+        dynamicSpp.setWeight(v4_v5, 2);
+
+        WeightInfo<Double> weightInfo = testGraph.getMetaInfoRepository().getMetaInfo(v4_v5, WeightInfo.class);
+
+        assertThat(weightInfo.getWeight(), equalTo(2.0));
+    }
+
+    @Test
+    public void getPathLinks_shouldFollowTheChanges() {
+        assertThat(dynamicSpp.getPathLinks(), contains(v3_v2, v1_v3, v3_v4, v2_v5));
+
+        dynamicSpp.setWeight(v1_v2, 1);
+
+        assertThat(dynamicSpp.getPathLinks(), contains(v1_v2, v1_v3, v3_v4, v2_v5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setWeight_shouldRejectNegativeWeights() {
+        dynamicSpp.setWeight(v1_v2, -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setWeight_shouldRejectNaN() {
+        dynamicSpp.setWeight(v1_v2, Double.NaN);
+    }
+
+}
@@ -0,0 +1,69 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.AlgorithmException;
+import info.gianlucacosta.arcontes.graphs.metainfo.DefaultWeightInfo;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class IntegerSppTest extends AbstractSingleSourceSppTest<IntegerSpp> {
+
+    @Override
+    protected IntegerSpp createAlgorithm() {
+        return new IntegerSpp(getGraphContext(), getAlgorithmSettings(), getAlgorithmInput(), getAlgorithmOutput());
+    }
+
+    @Test
+    public void theAlgorithm_shouldRunTheSameStepsAsSpp() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getCurrentStep(), equalTo(4));
+        assertThat(getAlgorithm().getPathVertexes(), contains(v1, v3, v4, v2, v5));
+    }
+
+    @Test
+    public void theAlgorithm_shouldUseDialBucketsForSmallWeights() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().isUsingDialBuckets(), equalTo(true));
+    }
+
+    @Test
+    public void getPathLinks_shouldFollowTheSettlementOrder() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getPathLinks(), contains(v1_v3, v3_v4, v3_v2, v2_v5));
+    }
+
+    @Test(expected = AlgorithmException.class)
+    public void theAlgorithm_shouldRejectFractionalWeights() throws AlgorithmException {
+        getGraphContext().getMetaInfoRepository().putMetaInfo(v4_v5, new DefaultWeightInfo<>(2.5));
+
+        fullRun();
+    }
+
+}
@@ -0,0 +1,134 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.AlgorithmException;
+import info.gianlucacosta.arcontes.algorithms.AlgorithmInput;
+import info.gianlucacosta.arcontes.graphs.*;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.SppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.SearchSpace;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class PointToPointSppTest extends AbstractSppGraphTest<PointToPointSpp> {
+
+    @Override
+    protected List<Vertex> getInputVertexes() {
+        return Arrays.asList(v1, v5);
+    }
+
+    @Override
+    protected PointToPointSpp createAlgorithm() {
+        return new PointToPointSpp(getGraphContext(), getAlgorithmSettings(), getAlgorithmInput(), getAlgorithmOutput());
+    }
+
+    @Test
+    public void theAlgorithm_shouldStopWhenTheTargetIsSettled() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getCurrentStep(), equalTo(5));
+        assertThat(getAlgorithm().getSettledVertexCount(), equalTo(5));
+    }
+
+    @Test
+    public void getPathVertexes_shouldBeEmptyBeforeTheTargetIsSettled() throws AlgorithmException {
+        runSteps(4);
+
+        assertThat(getAlgorithm().getPathVertexes().isEmpty(), equalTo(true));
+        assertThat(getAlgorithm().getPathLinks().isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void getPathVertexes_shouldReturnThePathToTheTarget() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getPathVertexes(), contains(v1, v3, v2, v5));
+    }
+
+    @Test
+    public void getPathLinks_shouldReturnThePathToTheTarget() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getPathLinks(), contains(v1_v3, v3_v2, v2_v5));
+    }
+
+    @Test
+    public void getPathLength_shouldReturnTheDistanceOfTheTarget() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getPathLength(), equalTo(9.0));
+    }
+
+    @Test
+    public void theGraph_shouldHaveCorrectMetaDataAtTheEnd() throws AlgorithmException {
+        fullRun();
+
+        MetaInfoRepository metaInfoRepository = getGraphContext().getMetaInfoRepository();
+
+        assertThat(metaInfoRepository.getMetaInfo(v1, SppVertexInfo.class), equalTo((SppVertexInfo) new DefaultSppVertexInfo(null, 0)));
+        assertThat(metaInfoRepository.getMetaInfo(v2, SppVertexInfo.class), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v3, 8)));
+        assertThat(metaInfoRepository.getMetaInfo(v3, SppVertexInfo.class), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v1, 4)));
+        assertThat(metaInfoRepository.getMetaInfo(v4, SppVertexInfo.class), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v3, 7)));
+        assertThat(metaInfoRepository.getMetaInfo(v5, SppVertexInfo.class), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v2, 9)));
+    }
+
+    @Test
+    public void aSharedSearchSpace_shouldOnlyResetTheTouchedVertexes() throws AlgorithmException {
+        SearchSpace searchSpace = new SearchSpace(new CompiledGraph(getGraphContext()));
+
+        PointToPointSpp firstQuery = runQuery(searchSpace, v1, v5);
+
+        assertThat(firstQuery.getPathLength(), equalTo(9.0));
+        assertThat(searchSpace.getTouchedVertexCount(), equalTo(5));
+
+        PointToPointSpp secondQuery = runQuery(searchSpace, v4, v5);
+
+        assertThat(secondQuery.getPathVertexes(), contains(v4, v5));
+        assertThat(secondQuery.getPathLength(), equalTo(3.0));
+        assertThat(searchSpace.getTouchedVertexCount(), equalTo(2));
+
+        assertThat(firstQuery.getPathLength(), equalTo(9.0));
+    }
+
+    private PointToPointSpp runQuery(SearchSpace searchSpace, Vertex startVertex, Vertex targetVertex) throws AlgorithmException {
+        AlgorithmInput algorithmInput = createScriptedInput(startVertex, targetVertex);
+
+        PointToPointSpp pointToPointSpp = new PointToPointSpp(getGraphContext(), getAlgorithmSettings(), algorithmInput, getAlgorithmOutput(), searchSpace);
+
+        pointToPointSpp.init();
+        while (pointToPointSpp.runStep()) {
+        }
+
+        return pointToPointSpp;
+    }
+
+}
@@ -40,7 +40,9 @@ import org.junit.Test;
 import java.util.LinkedList;
 import java.util.Queue;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertThat;
 
@@ -315,4 +317,20 @@ public class SppTest extends CommonAlgorithmTest<Spp> {
         assertThat(getAlgorithm().getPathLinks(), containsInAnyOrder(v1_v3, v3_v4, v3_v2, v2_v5));
     }
 
+    @Test
+    public void getPathTo_shouldFollowThePreviousArcs() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getPathTo(v5), contains(v1_v3, v3_v2, v2_v5));
+        assertThat(getAlgorithm().getPathTo(v4), contains(v1_v3, v3_v4));
+        assertThat(getAlgorithm().getPathTo(v1), empty());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void getPathTo_shouldRequireTheVertexToBeReached() throws AlgorithmException {
+        runSteps(1);
+
+        getAlgorithm().getPathTo(v5);
+    }
+
 }
@@ -0,0 +1,146 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.graphs.*;
+import info.gianlucacosta.arcontes.graphs.metainfo.DefaultNameInfo;
+import info.gianlucacosta.arcontes.graphs.metainfo.DefaultWeightInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import info.gianlucacosta.helios.metainfo.DefaultMetaInfoRepository;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test graph whose vertexes are named V1, V2, ... in graph order.
+ * <p>
+ * The default constructor creates the graph of SppTest, shared by the tests
+ * of the SPP engines and searches.
+ */
+public class SppTestGraph {
+
+    private final Graph graph;
+    private final MetaInfoRepository metaInfoRepository;
+    private final GraphContext graphContext;
+    private final List<Vertex> vertexes;
+    private final List<Link> links;
+    private final List<Vertex> linkSources;
+    private final List<Vertex> linkTargets;
+
+    public SppTestGraph() {
+        this(5);
+
+        addLink(1, 2, 9);
+        addLink(1, 3, 4);
+        addLink(1, 4, 8);
+        addLink(2, 5, 1);
+        addLink(3, 2, 4);
+        addLink(3, 4, 3);
+        addLink(3, 5, 7);
+        addLink(4, 5, 3);
+    }
+
+    /**
+     * Creates a graph having the given number of vertexes and no links
+     */
+    public SppTestGraph(int vertexCount) {
+        graph = new DefaultGraph();
+        metaInfoRepository = new DefaultMetaInfoRepository();
+        graphContext = new DefaultGraphContext(graph, metaInfoRepository);
+
+        vertexes = new ArrayList<>();
+        links = new ArrayList<>();
+        linkSources = new ArrayList<>();
+        linkTargets = new ArrayList<>();
+
+        for (int number = 1; number <= vertexCount; number++) {
+            Vertex vertex = new DefaultVertex();
+            graph.addVertex(vertex);
+
+            metaInfoRepository.putMetaInfo(vertex, new DefaultNameInfo("V" + number));
+            vertexes.add(vertex);
+        }
+    }
+
+    private void addLink(int sourceNumber, int targetNumber, double weight) {
+        addLink(getVertex(sourceNumber), getVertex(targetNumber), weight);
+    }
+
+    public Link addLink(Vertex source, Vertex target, double weight) {
+        Link link = new DefaultLink(source, target);
+        graph.addLink(link);
+
+        metaInfoRepository.putMetaInfo(link, new DefaultWeightInfo<>(weight));
+
+        links.add(link);
+        linkSources.add(source);
+        linkTargets.add(target);
+
+        return link;
+    }
+
+    public void setWeight(Link link, double weight) {
+        metaInfoRepository.putMetaInfo(link, new DefaultWeightInfo<>(weight));
+    }
+
+    /**
+     * @return the vertex named "V" + number
+     */
+    public Vertex getVertex(int number) {
+        return vertexes.get(number - 1);
+    }
+
+    /**
+     * @return the first link added between the given vertexes
+     */
+    public Link getLink(int sourceNumber, int targetNumber) {
+        Vertex source = getVertex(sourceNumber);
+        Vertex target = getVertex(targetNumber);
+
+        for (int linkIndex = 0; linkIndex < links.size(); linkIndex++) {
+            if (linkSources.get(linkIndex) == source && linkTargets.get(linkIndex) == target) {
+                return links.get(linkIndex);
+            }
+        }
+
+        throw new IllegalArgumentException(String.format("There is no link from V%d to V%d", sourceNumber, targetNumber));
+    }
+
+    public Graph getGraph() {
+        return graph;
+    }
+
+    public MetaInfoRepository getMetaInfoRepository() {
+        return metaInfoRepository;
+    }
+
+    public GraphContext getGraphContext() {
+        return graphContext;
+    }
+
+    public CompiledGraph compile() {
+        return new CompiledGraph(graphContext);
+    }
+
+}
@@ -0,0 +1,72 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp;
+
+import info.gianlucacosta.arcontes.algorithms.AlgorithmException;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.SppVertexInfo;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class SppWithoutLabelsTest extends AbstractSppGraphTest<Spp> {
+
+    @Override
+    protected Spp createAlgorithm() {
+        return new Spp(getGraphContext(), getAlgorithmSettings(), getAlgorithmInput(), getAlgorithmOutput(), false);
+    }
+
+    @Test
+    public void getSppVertexInfo_shouldReturnTheSameLabelsAsSpp() throws AlgorithmException {
+        fullRun();
+
+        Spp spp = getAlgorithm();
+
+        assertThat(spp.getSppVertexInfo(v1), equalTo((SppVertexInfo) new DefaultSppVertexInfo(null, 0)));
+        assertThat(spp.getSppVertexInfo(v2), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v3, 8)));
+        assertThat(spp.getSppVertexInfo(v3), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v1, 4)));
+        assertThat(spp.getSppVertexInfo(v4), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v3, 7)));
+        assertThat(spp.getSppVertexInfo(v5), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v2, 9)));
+    }
+
+    @Test
+    public void getSppVertexInfo_shouldFollowTheSteps() throws AlgorithmException {
+        runSteps(1);
+
+        Spp spp = getAlgorithm();
+
+        assertThat(spp.getSppVertexInfo(v2), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v1, 9)));
+        assertThat(spp.getSppVertexInfo(v5), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v1, Double.POSITIVE_INFINITY)));
+    }
+
+    @Test
+    public void getPathLinks_shouldReturnTheShortestPathTree() throws AlgorithmException {
+        fullRun();
+
+        assertThat(getAlgorithm().getPathLinks(), contains(v1_v3, v3_v4, v3_v2, v2_v5));
+        assertThat(getAlgorithm().getPathTo(v5), contains(v1_v3, v3_v2, v2_v5));
+    }
+
+}
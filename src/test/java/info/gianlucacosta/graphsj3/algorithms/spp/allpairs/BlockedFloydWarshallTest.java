@@ -0,0 +1,132 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.allpairs;
+
+import info.gianlucacosta.arcontes.graphs.*;
+import info.gianlucacosta.graphsj3.algorithms.spp.SppTestGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.SppVertexInfo;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class BlockedFloydWarshallTest {
+
+    private static final double INF = Double.POSITIVE_INFINITY;
+
+    private Vertex v1;
+    private Vertex v2;
+    private Vertex v3;
+    private Vertex v4;
+    private Vertex v5;
+    private Link v1_v3;
+    private Link v2_v5;
+    private Link v3_v2;
+    private SppTestGraph testGraph;
+
+    @Before
+    public void createGraph() {
+        testGraph = new SppTestGraph();
+
+        v1 = testGraph.getVertex(1);
+        v2 = testGraph.getVertex(2);
+        v3 = testGraph.getVertex(3);
+        v4 = testGraph.getVertex(4);
+        v5 = testGraph.getVertex(5);
+
+        v1_v3 = testGraph.getLink(1, 3);
+        v2_v5 = testGraph.getLink(2, 5);
+        v3_v2 = testGraph.getLink(3, 2);
+    }
+
+    private AllPairsPaths search() {
+        return new BlockedFloydWarshall(testGraph.compile(), 2, 2).search();
+    }
+
+    @Test
+    public void search_shouldComputeAllTheDistances() {
+        double[] expectedDistances = {
+                0, 8, 4, 7, 9,
+                INF, 0, INF, INF, 1,
+                INF, 4, 0, 3, 5,
+                INF, INF, INF, 0, 3,
+                INF, INF, INF, INF, 0
+        };
+
+        assertThat(search().getDistanceMatrix().toArray(), equalTo(expectedDistances));
+    }
+
+    @Test
+    public void getPathLinks_shouldReturnTheShortestPath() {
+        assertThat(search().getPathLinks(v1, v5), contains(v1_v3, v3_v2, v2_v5));
+    }
+
+    @Test
+    public void getPathVertexes_shouldReturnTheShortestPath() {
+        assertThat(search().getPathVertexes(v1, v5), contains(v1, v3, v2, v5));
+    }
+
+    @Test
+    public void getPathLinks_shouldBeEmptyForUnreachableTargets() {
+        assertThat(search().getPathLinks(v5, v1), empty());
+    }
+
+    @Test
+    public void getSppVertexInfo_shouldReturnTheLabelsOfSpp() {
+        AllPairsPaths allPairsPaths = search();
+
+        assertThat(allPairsPaths.getSppVertexInfo(v1, v1), equalTo((SppVertexInfo) new DefaultSppVertexInfo(null, 0)));
+        assertThat(allPairsPaths.getSppVertexInfo(v1, v2), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v3, 8)));
+        assertThat(allPairsPaths.getSppVertexInfo(v1, v4), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v3, 7)));
+        assertThat(allPairsPaths.getSppVertexInfo(v1, v5), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v2, 9)));
+    }
+
+    @Test
+    public void search_shouldSupportNegativeArcs() {
+        testGraph.addLink(v5, v4, -2);
+
+        AllPairsPaths allPairsPaths = search();
+
+        assertThat(allPairsPaths.getDistance(v1, v4), equalTo(7.0));
+        assertThat(allPairsPaths.getDistance(v2, v4), equalTo(-1.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void search_shouldRejectNegativeCycles() {
+        testGraph.addLink(v5, v1, -10);
+
+        search();
+    }
+
+    @Test
+    public void search_shouldIgnoreLoopsWithoutWeight() {
+        testGraph.getGraph().addLink(new DefaultLink(v4, v4));
+
+        assertThat(search().getDistance(v1, v4), equalTo(7.0));
+    }
+
+}
@@ -0,0 +1,93 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.allpairs;
+
+import info.gianlucacosta.arcontes.graphs.*;
+import info.gianlucacosta.graphsj3.algorithms.spp.SppTestGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.hierarchies.ContractionHierarchy;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class ManyToManySearchTest {
+
+    private static final double INF = Double.POSITIVE_INFINITY;
+
+    private Vertex v1;
+    private Vertex v2;
+    private Vertex v3;
+    private Vertex v4;
+    private Vertex v5;
+    private ContractionHierarchy hierarchy;
+
+    @Before
+    public void createGraph() {
+        SppTestGraph testGraph = new SppTestGraph();
+
+        v1 = testGraph.getVertex(1);
+        v2 = testGraph.getVertex(2);
+        v3 = testGraph.getVertex(3);
+        v4 = testGraph.getVertex(4);
+        v5 = testGraph.getVertex(5);
+
+        hierarchy = new ContractionHierarchy(testGraph.compile(), 2);
+    }
+
+    @Test
+    public void search_shouldComputeTheDistancesBetweenSourcesAndTargets() {
+        DistanceMatrix distanceMatrix = new ManyToManySearch(hierarchy, 2).search(Arrays.asList(v3, v1, v5), Arrays.asList(v5, v2, v4, v1));
+
+        double[] expectedDistances = {
+                5, 4, 3, INF,
+                9, 8, 7, 0,
+                0, INF, INF, INF
+        };
+
+        assertThat(distanceMatrix.toArray(), equalTo(expectedDistances));
+    }
+
+    @Test
+    public void search_shouldMatchTheAllPairsSearch() {
+        DistanceMatrix expectedMatrix = new ParallelAllPairsSearch(hierarchy.getCompiledGraph(), 2).search();
+        List<Vertex> vertexes = hierarchy.getCompiledGraph().getVertexes();
+
+        DistanceMatrix distanceMatrix = new ManyToManySearch(hierarchy, 2).search(vertexes, vertexes);
+
+        assertThat(distanceMatrix.toArray(), equalTo(expectedMatrix.toArray()));
+    }
+
+    @Test
+    public void search_shouldSupportEmptyTargets() {
+        DistanceMatrix distanceMatrix = new ManyToManySearch(hierarchy, 2).search(Arrays.asList(v1, v2), Collections.<Vertex>emptyList());
+
+        assertThat(distanceMatrix.getRowCount(), equalTo(2));
+        assertThat(distanceMatrix.getColumnCount(), equalTo(0));
+    }
+
+}
@@ -0,0 +1,93 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.allpairs;
+
+import info.gianlucacosta.arcontes.graphs.*;
+import info.gianlucacosta.graphsj3.algorithms.spp.SppTestGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class ParallelAllPairsSearchTest {
+
+    private static final double INF = Double.POSITIVE_INFINITY;
+
+    private Vertex v1;
+    private Vertex v2;
+    private Vertex v3;
+    private Vertex v4;
+    private Vertex v5;
+    private CompiledGraph compiledGraph;
+
+    @Before
+    public void createGraph() {
+        SppTestGraph testGraph = new SppTestGraph();
+
+        v1 = testGraph.getVertex(1);
+        v2 = testGraph.getVertex(2);
+        v3 = testGraph.getVertex(3);
+        v4 = testGraph.getVertex(4);
+        v5 = testGraph.getVertex(5);
+
+        compiledGraph = testGraph.compile();
+    }
+
+    @Test
+    public void search_shouldComputeAllTheDistances() {
+        DistanceMatrix distanceMatrix = new ParallelAllPairsSearch(compiledGraph, 2).search();
+
+        double[] expectedDistances = {
+                0, 8, 4, 7, 9,
+                INF, 0, INF, INF, 1,
+                INF, 4, 0, 3, 5,
+                INF, INF, INF, 0, 3,
+                INF, INF, INF, INF, 0
+        };
+
+        assertThat(distanceMatrix.toArray(), equalTo(expectedDistances));
+    }
+
+    @Test
+    public void search_shouldUseTheGivenSourcesAsRows() {
+        DistanceMatrix distanceMatrix = new ParallelAllPairsSearch(compiledGraph, 2).search(Arrays.asList(v3, v1));
+
+        assertThat(distanceMatrix.getRowVertexes(), contains(v3, v1));
+        assertThat(distanceMatrix.getDistance(v3, v5), equalTo(5.0));
+        assertThat(distanceMatrix.getDistance(v1, v5), equalTo(9.0));
+        assertThat(distanceMatrix.getDistance(1, 2), equalTo(4.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getDistance_shouldRejectVertexesOutsideTheRows() {
+        DistanceMatrix distanceMatrix = new ParallelAllPairsSearch(compiledGraph, 2).search(Arrays.asList(v3));
+
+        distanceMatrix.getDistance(v1, v5);
+    }
+
+}
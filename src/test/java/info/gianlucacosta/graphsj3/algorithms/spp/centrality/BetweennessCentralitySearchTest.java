@@ -0,0 +1,161 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.centrality;
+
+import info.gianlucacosta.arcontes.graphs.*;
+import info.gianlucacosta.graphsj3.algorithms.spp.SppTestGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class BetweennessCentralitySearchTest {
+
+    private Vertex v1;
+    private Vertex v2;
+    private Vertex v3;
+    private Vertex v4;
+    private Vertex v5;
+    private Link v1_v2;
+    private Link v1_v3;
+    private Link v2_v5;
+    private Link v3_v2;
+    private Link v3_v4;
+    private Link v4_v5;
+    private CompiledGraph compiledGraph;
+
+    @Before
+    public void createGraph() {
+        SppTestGraph testGraph = new SppTestGraph();
+
+        v1 = testGraph.getVertex(1);
+        v2 = testGraph.getVertex(2);
+        v3 = testGraph.getVertex(3);
+        v4 = testGraph.getVertex(4);
+        v5 = testGraph.getVertex(5);
+
+        v1_v2 = testGraph.getLink(1, 2);
+        v1_v3 = testGraph.getLink(1, 3);
+        v2_v5 = testGraph.getLink(2, 5);
+        v3_v2 = testGraph.getLink(3, 2);
+        v3_v4 = testGraph.getLink(3, 4);
+        v4_v5 = testGraph.getLink(4, 5);
+
+        compiledGraph = testGraph.compile();
+    }
+
+    @Test
+    public void search_shouldComputeTheVertexBetweenness() {
+        BetweennessCentrality centrality = new BetweennessCentralitySearch(compiledGraph, 2).search();
+
+        assertThat(centrality.getBetweenness(v1), equalTo(0.0));
+        assertThat(centrality.getBetweenness(v2), equalTo(2.0));
+        assertThat(centrality.getBetweenness(v3), equalTo(3.0));
+        assertThat(centrality.getBetweenness(v4), equalTo(0.0));
+        assertThat(centrality.getBetweenness(v5), equalTo(0.0));
+        assertThat(centrality.isSampled(), equalTo(false));
+    }
+
+    @Test
+    public void search_shouldComputeTheArcBetweenness() {
+        BetweennessCentrality centrality = new BetweennessCentralitySearch(compiledGraph, 2).search();
+
+        assertThat(centrality.getLinkBetweenness(v1_v3), equalTo(4.0));
+        assertThat(centrality.getLinkBetweenness(v3_v2), equalTo(4.0));
+        assertThat(centrality.getLinkBetweenness(v2_v5), equalTo(3.0));
+        assertThat(centrality.getLinkBetweenness(v3_v4), equalTo(2.0));
+        assertThat(centrality.getLinkBetweenness(v4_v5), equalTo(1.0));
+        assertThat(centrality.getLinkBetweenness(v1_v2), equalTo(0.0));
+    }
+
+    @Test
+    public void search_shouldSplitTheDependencyAmongEqualPaths() {
+        SppTestGraph squareGraph = new SppTestGraph(4);
+
+        Vertex a = squareGraph.getVertex(1);
+        Vertex b = squareGraph.getVertex(2);
+        Vertex c = squareGraph.getVertex(3);
+        Vertex d = squareGraph.getVertex(4);
+
+        Link a_b = squareGraph.addLink(a, b, 1);
+        squareGraph.addLink(a, c, 1);
+        Link b_d = squareGraph.addLink(b, d, 1);
+        squareGraph.addLink(c, d, 1);
+
+        BetweennessCentrality centrality = new BetweennessCentralitySearch(squareGraph.compile(), 2).search();
+
+        assertThat(centrality.getBetweenness(b), equalTo(0.5));
+        assertThat(centrality.getBetweenness(c), equalTo(0.5));
+        assertThat(centrality.getLinkBetweenness(a_b), equalTo(1.5));
+        assertThat(centrality.getLinkBetweenness(b_d), equalTo(1.5));
+    }
+
+    @Test
+    public void search_shouldOnlyCountTheFirstOfEqualParallelLinks() {
+        SppTestGraph chainGraph = new SppTestGraph(3);
+
+        Vertex a = chainGraph.getVertex(1);
+        Vertex b = chainGraph.getVertex(2);
+        Vertex c = chainGraph.getVertex(3);
+
+        Link first_a_b = chainGraph.addLink(a, b, 1);
+        Link second_a_b = chainGraph.addLink(a, b, 1);
+        chainGraph.addLink(b, c, 1);
+
+        BetweennessCentrality centrality = new BetweennessCentralitySearch(chainGraph.compile(), 2).search();
+
+        assertThat(centrality.getBetweenness(b), equalTo(1.0));
+        assertThat(centrality.getLinkBetweenness(first_a_b), equalTo(2.0));
+        assertThat(centrality.getLinkBetweenness(second_a_b), equalTo(0.0));
+    }
+
+    @Test
+    public void searchSampled_withAllThePivots_shouldBeExact() {
+        BetweennessCentrality centrality = new BetweennessCentralitySearch(compiledGraph, 2).searchSampled(5, new Random(7));
+
+        assertThat(centrality.getBetweenness(v2), equalTo(2.0));
+        assertThat(centrality.getBetweenness(v3), equalTo(3.0));
+        assertThat(centrality.getLinkBetweenness(v1_v3), equalTo(4.0));
+        assertThat(centrality.isSampled(), equalTo(false));
+    }
+
+    @Test
+    public void searchSampled_shouldScaleThePivotContributions() {
+        BetweennessCentrality centrality = new BetweennessCentralitySearch(compiledGraph, 2).searchSampled(2, new Random(7));
+
+        assertThat(centrality.getSourceCount(), equalTo(2));
+        assertThat(centrality.isSampled(), equalTo(true));
+        assertThat(centrality.getBetweenness(v1), equalTo(0.0));
+        assertThat(centrality.getBetweenness(v4), equalTo(0.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void searchSampled_withoutPivots_shouldFail() {
+        new BetweennessCentralitySearch(compiledGraph).searchSampled(0, new Random(7));
+    }
+
+}
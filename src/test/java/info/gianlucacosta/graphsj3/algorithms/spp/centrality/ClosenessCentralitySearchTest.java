@@ -0,0 +1,121 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.centrality;
+
+import info.gianlucacosta.arcontes.graphs.*;
+import info.gianlucacosta.graphsj3.algorithms.spp.SppTestGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class ClosenessCentralitySearchTest {
+
+    private Vertex v1;
+    private Vertex v2;
+    private Vertex v3;
+    private Vertex v4;
+    private Vertex v5;
+    private CompiledGraph compiledGraph;
+
+    @Before
+    public void createGraph() {
+        SppTestGraph testGraph = new SppTestGraph();
+
+        v1 = testGraph.getVertex(1);
+        v2 = testGraph.getVertex(2);
+        v3 = testGraph.getVertex(3);
+        v4 = testGraph.getVertex(4);
+        v5 = testGraph.getVertex(5);
+
+        compiledGraph = testGraph.compile();
+    }
+
+    @Test
+    public void search_shouldComputeTheCloseness() {
+        ClosenessCentrality centrality = new ClosenessCentralitySearch(compiledGraph, 2).search();
+
+        assertThat(centrality.getCloseness(v1), equalTo(4 / 28.0));
+        assertThat(centrality.getCloseness(v2), equalTo(1 / 4.0));
+        assertThat(centrality.getCloseness(v3), equalTo((3 / 12.0) * (3 / 4.0)));
+        assertThat(centrality.getCloseness(v4), equalTo((1 / 3.0) * (1 / 4.0)));
+        assertThat(centrality.getCloseness(v5), equalTo(0.0));
+    }
+
+    @Test
+    public void search_shouldComputeTheHarmonicCentrality() {
+        ClosenessCentrality centrality = new ClosenessCentralitySearch(compiledGraph, 2).search();
+
+        assertThat(centrality.getHarmonicCentrality(v1), equalTo(1 / 4.0 + 1 / 7.0 + 1 / 8.0 + 1 / 9.0));
+        assertThat(centrality.getHarmonicCentrality(v2), equalTo(1.0));
+        assertThat(centrality.getHarmonicCentrality(v3), equalTo(1 / 3.0 + 1 / 4.0 + 1 / 5.0));
+        assertThat(centrality.getHarmonicCentrality(v5), equalTo(0.0));
+    }
+
+    @Test
+    public void search_shouldCountTheReachedVertexes() {
+        ClosenessCentrality centrality = new ClosenessCentralitySearch(compiledGraph, 2).search();
+
+        assertThat(centrality.getReachedVertexCount(v1), equalTo(4));
+        assertThat(centrality.getDistanceSum(v1), equalTo(28.0));
+        assertThat(centrality.getReachedVertexCount(v3), equalTo(3));
+        assertThat(centrality.getDistanceSum(v3), equalTo(12.0));
+        assertThat(centrality.getReachedVertexCount(v5), equalTo(0));
+    }
+
+    @Test
+    public void zeroDistances_shouldBeSkippedByTheHarmonicSum() {
+        SppTestGraph chainGraph = new SppTestGraph(3);
+
+        Vertex a = chainGraph.getVertex(1);
+        Vertex b = chainGraph.getVertex(2);
+        Vertex c = chainGraph.getVertex(3);
+
+        chainGraph.addLink(a, b, 0);
+        chainGraph.addLink(b, c, 2);
+
+        ClosenessCentrality centrality = new ClosenessCentralitySearch(chainGraph.compile(), 2).search();
+
+        assertThat(centrality.getReachedVertexCount(a), equalTo(2));
+        assertThat(centrality.getHarmonicCentrality(a), equalTo(0.5));
+        assertThat(centrality.getCloseness(a), equalTo(1.0));
+        assertThat(centrality.getHarmonicCentrality(b), equalTo(0.5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void theSearch_shouldRejectNegativeWeights() {
+        SppTestGraph pairGraph = new SppTestGraph(2);
+
+        pairGraph.addLink(pairGraph.getVertex(1), pairGraph.getVertex(2), -1);
+
+        new ClosenessCentralitySearch(pairGraph.compile());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void theSearch_shouldRequireSomeParallelism() {
+        new ClosenessCentralitySearch(compiledGraph, 0);
+    }
+
+}
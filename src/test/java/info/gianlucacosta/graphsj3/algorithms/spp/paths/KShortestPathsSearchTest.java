@@ -0,0 +1,106 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.paths;
+
+import info.gianlucacosta.arcontes.graphs.*;
+import info.gianlucacosta.graphsj3.algorithms.spp.SppTestGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.structures.CompiledGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class KShortestPathsSearchTest {
+
+    private Vertex v1;
+    private Vertex v2;
+    private Vertex v3;
+    private Vertex v4;
+    private Vertex v5;
+    private Link v1_v2;
+    private Link v1_v3;
+    private Link v1_v4;
+    private Link v2_v5;
+    private Link v3_v2;
+    private Link v3_v4;
+    private Link v3_v5;
+    private Link v4_v5;
+    private CompiledGraph compiledGraph;
+
+    @Before
+    public void createGraph() {
+        SppTestGraph testGraph = new SppTestGraph();
+
+        v1 = testGraph.getVertex(1);
+        v2 = testGraph.getVertex(2);
+        v3 = testGraph.getVertex(3);
+        v4 = testGraph.getVertex(4);
+        v5 = testGraph.getVertex(5);
+
+        v1_v2 = testGraph.getLink(1, 2);
+        v1_v3 = testGraph.getLink(1, 3);
+        v1_v4 = testGraph.getLink(1, 4);
+        v2_v5 = testGraph.getLink(2, 5);
+        v3_v2 = testGraph.getLink(3, 2);
+        v3_v4 = testGraph.getLink(3, 4);
+        v3_v5 = testGraph.getLink(3, 5);
+        v4_v5 = testGraph.getLink(4, 5);
+
+        compiledGraph = testGraph.compile();
+    }
+
+    @Test
+    public void search_shouldReturnThePathsInCostOrder() {
+        KShortestPaths paths = new KShortestPathsSearch(compiledGraph, 2).search(v1, v5, 4);
+
+        assertThat(paths.getPathCount(), equalTo(4));
+
+        assertThat(paths.getPath(0), contains(v1_v3, v3_v2, v2_v5));
+        assertThat(paths.getPath(1), contains(v1_v2, v2_v5));
+        assertThat(paths.getPath(2), contains(v1_v3, v3_v4, v4_v5));
+        assertThat(paths.getPath(3), contains(v1_v3, v3_v5));
+
+        assertThat(paths.getPathLength(0), equalTo(9.0));
+        assertThat(paths.getPathLength(1), equalTo(10.0));
+        assertThat(paths.getPathLength(2), equalTo(10.0));
+        assertThat(paths.getPathLength(3), equalTo(11.0));
+    }
+
+    @Test
+    public void search_shouldStopWhenThereAreNoMorePaths() {
+        KShortestPaths paths = new KShortestPathsSearch(compiledGraph, 2).search(v1, v5, 10);
+
+        assertThat(paths.getPathCount(), equalTo(5));
+        assertThat(paths.getPath(4), contains(v1_v4, v4_v5));
+    }
+
+    @Test
+    public void search_shouldReturnNoPathsForAnUnreachableTarget() {
+        KShortestPaths paths = new KShortestPathsSearch(compiledGraph, 2).search(v5, v1, 3);
+
+        assertThat(paths.getPathCount(), equalTo(0));
+    }
+
+}
@@ -0,0 +1,127 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.structures;
+
+import info.gianlucacosta.arcontes.graphs.*;
+import info.gianlucacosta.arcontes.graphs.metainfo.DefaultWeightInfo;
+import info.gianlucacosta.helios.metainfo.DefaultMetaInfoRepository;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+
+public class BreadthFirstSearchTest {
+
+    //Well above the 16 words of 64 vertexes needed to split the expansion
+    private static final int VERTEX_COUNT = 3000;
+    private static final int EXITING_LINK_COUNT = 6;
+
+    private CompiledGraph compiledGraph;
+    private ForkJoinPool forkJoinPool;
+
+    @Before
+    public void createGraph() {
+        Graph graph = new DefaultGraph();
+        MetaInfoRepository metaInfoRepository = new DefaultMetaInfoRepository();
+
+        List<Vertex> vertexes = new ArrayList<>();
+
+        for (int vertexIndex = 0; vertexIndex < VERTEX_COUNT; vertexIndex++) {
+            Vertex vertex = new DefaultVertex();
+            graph.addVertex(vertex);
+            vertexes.add(vertex);
+        }
+
+        Random random = new Random(42);
+
+        for (int vertexIndex = 0; vertexIndex < VERTEX_COUNT; vertexIndex++) {
+            for (int linkIndex = 0; linkIndex < EXITING_LINK_COUNT; linkIndex++) {
+                int targetIndex = random.nextInt(VERTEX_COUNT);
+
+                if (targetIndex != vertexIndex) {
+                    Link link = new DefaultLink(vertexes.get(vertexIndex), vertexes.get(targetIndex));
+                    graph.addLink(link);
+
+                    metaInfoRepository.putMetaInfo(link, new DefaultWeightInfo<>(1.0));
+                }
+            }
+        }
+
+        compiledGraph = new CompiledGraph(new DefaultGraphContext(graph, metaInfoRepository));
+        forkJoinPool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void shutdownPool() {
+        forkJoinPool.shutdown();
+    }
+
+    @Test
+    public void aParallelSearch_shouldMatchTheSequentialOne() {
+        BreadthFirstSearch sequentialSearch = new BreadthFirstSearch(compiledGraph, null);
+        BreadthFirstSearch parallelSearch = new BreadthFirstSearch(compiledGraph, forkJoinPool);
+
+        sequentialSearch.search(0);
+        parallelSearch.search(0);
+
+        assertThat(parallelSearch.getBottomUpLevelCount(), greaterThan(0));
+        assertThat(parallelSearch.getBottomUpLevelCount(), equalTo(sequentialSearch.getBottomUpLevelCount()));
+
+        for (int vertexIndex = 0; vertexIndex < VERTEX_COUNT; vertexIndex++) {
+            assertThat(parallelSearch.getLevel(vertexIndex), equalTo(sequentialSearch.getLevel(vertexIndex)));
+            assertThat(parallelSearch.getPreviousArc(vertexIndex), equalTo(sequentialSearch.getPreviousArc(vertexIndex)));
+        }
+
+        assertThat(parallelSearch.getReachedVertexCount(), equalTo(sequentialSearch.getReachedVertexCount()));
+
+        for (int position = 0; position < sequentialSearch.getReachedVertexCount(); position++) {
+            assertThat(parallelSearch.getReachedVertex(position), equalTo(sequentialSearch.getReachedVertex(position)));
+        }
+    }
+
+    @Test
+    public void aParallelSearch_shouldFindTheShortestPaths() {
+        BreadthFirstSearch parallelSearch = new BreadthFirstSearch(compiledGraph, forkJoinPool);
+        parallelSearch.search(0);
+
+        ShortestPathSearch shortestPathSearch = new ShortestPathSearch(compiledGraph);
+        shortestPathSearch.searchForward(0);
+
+        for (int vertexIndex = 0; vertexIndex < VERTEX_COUNT; vertexIndex++) {
+            double pathLength = shortestPathSearch.getPathLength(vertexIndex);
+            int expectedLevel = Double.isInfinite(pathLength) ? -1 : (int) pathLength;
+
+            assertThat(parallelSearch.getLevel(vertexIndex), equalTo(expectedLevel));
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.structures;
+
+import info.gianlucacosta.arcontes.graphs.*;
+import info.gianlucacosta.arcontes.graphs.metainfo.DefaultWeightInfo;
+import info.gianlucacosta.helios.metainfo.DefaultMetaInfoRepository;
+import info.gianlucacosta.helios.metainfo.MetaInfoRepository;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class DenseShortestPathSearchTest {
+
+    private Vertex source;
+    private Vertex a;
+    private Vertex b;
+    private Vertex c;
+    private Vertex unreachable;
+    private MetaInfoRepository metaInfoRepository;
+    private CompiledGraph compiledGraph;
+    private DenseShortestPathSearch search;
+
+    @Before
+    public void createGraph() {
+        Graph graph = new DefaultGraph();
+        metaInfoRepository = new DefaultMetaInfoRepository();
+
+        source = new DefaultVertex();
+        graph.addVertex(source);
+
+        a = new DefaultVertex();
+        graph.addVertex(a);
+
+        b = new DefaultVertex();
+        graph.addVertex(b);
+
+        c = new DefaultVertex();
+        graph.addVertex(c);
+
+        unreachable = new DefaultVertex();
+        graph.addVertex(unreachable);
+
+        //The arc to B is added first, so that only the graph order favours A
+        addLink(graph, source, b, 1);
+        addLink(graph, source, a, 1);
+        addLink(graph, a, c, 1);
+        addLink(graph, b, c, 1);
+        addLink(graph, unreachable, source, 1);
+
+        compiledGraph = new CompiledGraph(new DefaultGraphContext(graph, metaInfoRepository));
+        search = new DenseShortestPathSearch(compiledGraph);
+    }
+
+    private void addLink(Graph graph, Vertex source, Vertex target, double weight) {
+        Link link = new DefaultLink(source, target);
+        graph.addLink(link);
+
+        metaInfoRepository.putMetaInfo(link, new DefaultWeightInfo<>(weight));
+    }
+
+    private int indexOf(Vertex vertex) {
+        return compiledGraph.getVertexIndex(vertex);
+    }
+
+    @Test
+    public void tiedVertexes_shouldBeSettledInGraphOrder() {
+        search.init(indexOf(source));
+
+        assertThat(search.step(), equalTo(indexOf(a)));
+        assertThat(search.step(), equalTo(indexOf(b)));
+        assertThat(search.step(), equalTo(indexOf(c)));
+    }
+
+    @Test
+    public void aTiedPath_shouldKeepTheFirstSettledPredecessor() {
+        search.init(indexOf(source));
+
+        while (!search.isFinished()) {
+            search.step();
+        }
+
+        assertThat(search.getPathLength(indexOf(c)), equalTo(2.0));
+        assertThat(search.getPreviousVertex(indexOf(c)), equalTo(indexOf(a)));
+    }
+
+    @Test
+    public void unreachableVertexes_shouldKeepInfiniteLengthAndNoPredecessor() {
+        search.init(indexOf(source));
+
+        while (!search.isFinished()) {
+            search.step();
+        }
+
+        assertThat(search.getSettledVertexCount(), equalTo(4));
+        assertThat(search.getPathLength(indexOf(unreachable)), equalTo(Double.POSITIVE_INFINITY));
+        assertThat(search.getPreviousVertex(indexOf(unreachable)), equalTo(-1));
+        assertThat(search.getPreviousVertex(indexOf(source)), equalTo(-1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void stepping_shouldFailOnceTheReachableVertexesAreSettled() {
+        search.init(indexOf(source));
+
+        while (!search.isFinished()) {
+            search.step();
+        }
+
+        search.step();
+    }
+
+}
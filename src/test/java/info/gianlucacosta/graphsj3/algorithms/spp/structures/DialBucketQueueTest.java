@@ -0,0 +1,135 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.structures;
+
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class DialBucketQueueTest {
+
+    @Test
+    public void poll_shouldWrapAroundTheBuckets() {
+        DialBucketQueue queue = new DialBucketQueue(4, 3);
+
+        queue.insertOrDecrease(0, 2);
+        queue.insertOrDecrease(1, 3);
+
+        assertThat(queue.poll(), equalTo(0));
+        assertThat(queue.getLastKey(), equalTo(2L));
+
+        //Keys 5 and 6 share the buckets of keys 1 and 2
+        queue.insertOrDecrease(2, 5);
+
+        assertThat(queue.poll(), equalTo(1));
+        assertThat(queue.getLastKey(), equalTo(3L));
+
+        queue.insertOrDecrease(3, 6);
+
+        assertThat(queue.poll(), equalTo(2));
+        assertThat(queue.getLastKey(), equalTo(5L));
+
+        assertThat(queue.poll(), equalTo(3));
+        assertThat(queue.getLastKey(), equalTo(6L));
+
+        assertThat(queue.isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void insertOrDecrease_shouldMoveAnIndexFromTheMiddleOfItsBucket() {
+        DialBucketQueue queue = new DialBucketQueue(3, 10);
+
+        queue.insertOrDecrease(0, 5);
+        queue.insertOrDecrease(1, 5);
+        queue.insertOrDecrease(2, 5);
+
+        assertThat(queue.insertOrDecrease(1, 3), equalTo(true));
+
+        assertThat(queue.poll(), equalTo(1));
+        assertThat(queue.getLastKey(), equalTo(3L));
+
+        assertThat(queue.poll(), equalTo(2));
+        assertThat(queue.poll(), equalTo(0));
+        assertThat(queue.getLastKey(), equalTo(5L));
+    }
+
+    @Test
+    public void insertOrDecrease_shouldIgnoreHigherKeys() {
+        DialBucketQueue queue = new DialBucketQueue(1, 10);
+
+        queue.insertOrDecrease(0, 4);
+
+        assertThat(queue.insertOrDecrease(0, 6), equalTo(false));
+
+        assertThat(queue.poll(), equalTo(0));
+        assertThat(queue.getLastKey(), equalTo(4L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void insertOrDecrease_shouldRejectKeysBeyondTheSpan() {
+        DialBucketQueue queue = new DialBucketQueue(2, 3);
+
+        queue.insertOrDecrease(0, 2);
+        queue.poll();
+
+        queue.insertOrDecrease(1, 6);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void insertOrDecrease_shouldRejectKeysBelowTheLastOne() {
+        DialBucketQueue queue = new DialBucketQueue(2, 3);
+
+        queue.insertOrDecrease(0, 2);
+        queue.poll();
+
+        queue.insertOrDecrease(1, 1);
+    }
+
+    @Test
+    public void clear_shouldRestartFromKeyZero() {
+        DialBucketQueue queue = new DialBucketQueue(2, 3);
+
+        queue.insertOrDecrease(0, 3);
+        queue.insertOrDecrease(1, 2);
+        queue.poll();
+
+        queue.clear();
+
+        assertThat(queue.isEmpty(), equalTo(true));
+        assertThat(queue.contains(0), equalTo(false));
+        assertThat(queue.getLastKey(), equalTo(0L));
+
+        queue.insertOrDecrease(0, 1);
+
+        assertThat(queue.poll(), equalTo(0));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void poll_shouldFailOnAnEmptyQueue() {
+        new DialBucketQueue(1, 1).poll();
+    }
+
+}
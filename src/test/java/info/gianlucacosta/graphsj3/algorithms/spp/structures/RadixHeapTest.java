@@ -0,0 +1,125 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.structures;
+
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class RadixHeapTest {
+
+    @Test
+    public void poll_shouldRedistributeABucketAcrossSeveralLevels() {
+        RadixHeap heap = new RadixHeap(7);
+
+        //All the keys differ from 0 in bit 6, so they share bucket 7
+        long[] keys = {96, 65, 80, 64, 72, 66, 68};
+        for (int index = 0; index < keys.length; index++) {
+            heap.insertOrDecrease(index, keys[index]);
+        }
+
+        //Around 64, they spread over buckets 0 to 6
+        assertThat(heap.poll(), equalTo(3));
+        assertThat(heap.getLastKey(), equalTo(64L));
+
+        int[] expectedIndexes = {1, 5, 6, 4, 2, 0};
+        long[] expectedKeys = {65, 66, 68, 72, 80, 96};
+
+        for (int position = 0; position < expectedIndexes.length; position++) {
+            assertThat(heap.poll(), equalTo(expectedIndexes[position]));
+            assertThat(heap.getLastKey(), equalTo(expectedKeys[position]));
+        }
+
+        assertThat(heap.isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void insertOrDecrease_shouldMoveAnIndexToALowerBucket() {
+        RadixHeap heap = new RadixHeap(3);
+
+        heap.insertOrDecrease(0, 50);
+        heap.insertOrDecrease(1, 40);
+        heap.insertOrDecrease(2, 45);
+
+        assertThat(heap.insertOrDecrease(0, 10), equalTo(true));
+        assertThat(heap.insertOrDecrease(2, 46), equalTo(false));
+
+        assertThat(heap.poll(), equalTo(0));
+        assertThat(heap.getLastKey(), equalTo(10L));
+
+        assertThat(heap.poll(), equalTo(1));
+        assertThat(heap.poll(), equalTo(2));
+        assertThat(heap.getLastKey(), equalTo(45L));
+    }
+
+    @Test
+    public void insertOrDecrease_shouldAcceptKeysEqualToTheLastOne() {
+        RadixHeap heap = new RadixHeap(2);
+
+        heap.insertOrDecrease(0, 7);
+        heap.poll();
+
+        heap.insertOrDecrease(1, 7);
+
+        assertThat(heap.contains(1), equalTo(true));
+        assertThat(heap.poll(), equalTo(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void insertOrDecrease_shouldRejectKeysBelowTheLastOne() {
+        RadixHeap heap = new RadixHeap(2);
+
+        heap.insertOrDecrease(0, 7);
+        heap.poll();
+
+        heap.insertOrDecrease(1, 6);
+    }
+
+    @Test
+    public void clear_shouldRestartFromKeyZero() {
+        RadixHeap heap = new RadixHeap(2);
+
+        heap.insertOrDecrease(0, 30);
+        heap.insertOrDecrease(1, 20);
+        heap.poll();
+
+        heap.clear();
+
+        assertThat(heap.isEmpty(), equalTo(true));
+        assertThat(heap.contains(0), equalTo(false));
+        assertThat(heap.getLastKey(), equalTo(0L));
+
+        heap.insertOrDecrease(0, 1);
+
+        assertThat(heap.poll(), equalTo(0));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void poll_shouldFailOnAnEmptyHeap() {
+        new RadixHeap(1).poll();
+    }
+
+}
@@ -0,0 +1,108 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.trees;
+
+import info.gianlucacosta.arcontes.graphs.*;
+import info.gianlucacosta.graphsj3.algorithms.spp.SppTestGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.SppVertexInfo;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class IsochroneSearchTest {
+
+    private Vertex v1;
+    private Vertex v2;
+    private Vertex v3;
+    private Vertex v4;
+    private Vertex v5;
+    private Link v1_v2;
+    private Link v1_v3;
+    private Link v1_v4;
+    private Link v3_v2;
+    private Link v3_v5;
+    private Link v4_v5;
+    private IsochroneSearch isochroneSearch;
+
+    @Before
+    public void createGraph() {
+        SppTestGraph testGraph = new SppTestGraph();
+
+        v1 = testGraph.getVertex(1);
+        v2 = testGraph.getVertex(2);
+        v3 = testGraph.getVertex(3);
+        v4 = testGraph.getVertex(4);
+        v5 = testGraph.getVertex(5);
+
+        v1_v2 = testGraph.getLink(1, 2);
+        v1_v3 = testGraph.getLink(1, 3);
+        v1_v4 = testGraph.getLink(1, 4);
+        v3_v2 = testGraph.getLink(3, 2);
+        v3_v5 = testGraph.getLink(3, 5);
+        v4_v5 = testGraph.getLink(4, 5);
+
+        isochroneSearch = new IsochroneSearch(testGraph.compile());
+    }
+
+    @Test
+    public void search_shouldStopAtTheRadius() {
+        Isochrone isochrone = isochroneSearch.search(v1, 7);
+
+        assertThat(isochrone.getVertexes(), contains(v1, v3, v4));
+        assertThat(isochrone.getPathLength(v4), equalTo(7.0));
+        assertThat(isochrone.getPathLength(v2), equalTo(Double.POSITIVE_INFINITY));
+        assertThat(isochrone.getSppVertexInfo(v4), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v3, 7)));
+    }
+
+    @Test
+    public void search_shouldReturnTheBoundaryLinks() {
+        Isochrone isochrone = isochroneSearch.search(v1, 7);
+
+        assertThat(isochrone.getBoundaryLinks(), contains(v1_v2, v3_v2, v3_v5, v4_v5));
+    }
+
+    @Test
+    public void aZeroRadius_shouldOnlyIncludeTheStartVertex() {
+        Isochrone isochrone = isochroneSearch.search(v1, 0);
+
+        assertThat(isochrone.getVertexes(), contains(v1));
+        assertThat(isochrone.getBoundaryLinks(), contains(v1_v2, v1_v3, v1_v4));
+    }
+
+    @Test
+    public void search_shouldForgetThePreviousQuery() {
+        isochroneSearch.search(v1, 7);
+
+        Isochrone isochrone = isochroneSearch.search(v3, 100);
+
+        assertThat(isochrone.getVertexes(), contains(v3, v4, v2, v5));
+        assertThat(isochrone.getPathLength(v5), equalTo(5.0));
+        assertThat(isochrone.getBoundaryLinks(), empty());
+    }
+
+}
@@ -0,0 +1,96 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.trees;
+
+import info.gianlucacosta.arcontes.graphs.*;
+import info.gianlucacosta.graphsj3.algorithms.spp.SppTestGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.SppVertexInfo;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class NearestSourceSearchTest {
+
+    private Vertex v1;
+    private Vertex v2;
+    private Vertex v3;
+    private Vertex v4;
+    private Vertex v5;
+    private NearestSourceSearch nearestSourceSearch;
+
+    @Before
+    public void createGraph() {
+        SppTestGraph testGraph = new SppTestGraph();
+
+        v1 = testGraph.getVertex(1);
+        v2 = testGraph.getVertex(2);
+        v3 = testGraph.getVertex(3);
+        v4 = testGraph.getVertex(4);
+        v5 = testGraph.getVertex(5);
+
+        nearestSourceSearch = new NearestSourceSearch(testGraph.compile());
+    }
+
+    @Test
+    public void search_shouldAssignEachVertexToItsNearestSource() {
+        NearestSourcePartition partition = nearestSourceSearch.search(Arrays.asList(v1, v3));
+
+        assertThat(partition.getOwner(v1), equalTo(v1));
+        assertThat(partition.getOwner(v2), equalTo(v3));
+        assertThat(partition.getOwner(v3), equalTo(v3));
+        assertThat(partition.getOwner(v4), equalTo(v3));
+        assertThat(partition.getOwner(v5), equalTo(v3));
+
+        assertThat(partition.getOwnedVertexes(v1), contains(v1));
+        assertThat(partition.getOwnedVertexes(v3), contains(v2, v3, v4, v5));
+    }
+
+    @Test
+    public void search_shouldComputeTheDistancesFromTheNearestSource() {
+        NearestSourcePartition partition = nearestSourceSearch.search(Arrays.asList(v1, v3));
+
+        assertThat(partition.getSppVertexInfo(v1), equalTo((SppVertexInfo) new DefaultSppVertexInfo(null, 0)));
+        assertThat(partition.getSppVertexInfo(v2), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v3, 4)));
+        assertThat(partition.getSppVertexInfo(v3), equalTo((SppVertexInfo) new DefaultSppVertexInfo(null, 0)));
+        assertThat(partition.getSppVertexInfo(v4), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v3, 3)));
+        assertThat(partition.getSppVertexInfo(v5), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v2, 5)));
+    }
+
+    @Test
+    public void search_shouldLeaveTheUnreachableVertexesWithoutOwner() {
+        NearestSourcePartition partition = nearestSourceSearch.search(Arrays.asList(v2, v4));
+
+        assertThat(partition.getOwner(v1), nullValue());
+        assertThat(partition.getPathLength(v3), equalTo(Double.POSITIVE_INFINITY));
+        assertThat(partition.getOwner(v5), equalTo(v2));
+        assertThat(partition.getPathLength(v5), equalTo(1.0));
+    }
+
+}
@@ -0,0 +1,130 @@
+/*§
+  ===========================================================================
+  GraphsJ - Algorithms
+  ===========================================================================
+  Copyright (C) 2009-2015 Gianluca Costa
+  ===========================================================================
+  This program is free software: you can redistribute it and/or modify
+  it under the terms of the GNU General Public License as
+  published by the Free Software Foundation, either version 3 of the
+  License, or (at your option) any later version.
+
+  This program is distributed in the hope that it will be useful,
+  but WITHOUT ANY WARRANTY; without even the implied warranty of
+  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  GNU General Public License for more details.
+
+  You should have received a copy of the GNU General Public
+  License along with this program.  If not, see
+  <http://www.gnu.org/licenses/gpl-3.0.html>.
+  ===========================================================================
+*/
+
+package info.gianlucacosta.graphsj3.algorithms.spp.trees;
+
+import info.gianlucacosta.arcontes.graphs.*;
+import info.gianlucacosta.graphsj3.algorithms.spp.SppTestGraph;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.DefaultSppVertexInfo;
+import info.gianlucacosta.graphsj3.algorithms.spp.metainfo.SppVertexInfo;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ShortestPathTreeCacheTest {
+
+    private Vertex v1;
+    private Vertex v2;
+    private Vertex v3;
+    private Vertex v4;
+    private Vertex v5;
+    private Link v1_v2;
+    private GraphContext graphContext;
+    private SppTestGraph testGraph;
+
+    @Before
+    public void createGraph() {
+        testGraph = new SppTestGraph();
+
+        v1 = testGraph.getVertex(1);
+        v2 = testGraph.getVertex(2);
+        v3 = testGraph.getVertex(3);
+        v4 = testGraph.getVertex(4);
+        v5 = testGraph.getVertex(5);
+
+        v1_v2 = testGraph.getLink(1, 2);
+
+        graphContext = testGraph.getGraphContext();
+    }
+
+    @Test
+    public void getTree_shouldComputeTheSameLabelsAsSpp() {
+        ShortestPathTree tree = new ShortestPathTreeCache(graphContext, 1024).getTree(v1, 0);
+
+        assertThat(tree.getSppVertexInfo(v1), equalTo((SppVertexInfo) new DefaultSppVertexInfo(null, 0)));
+        assertThat(tree.getSppVertexInfo(v2), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v3, 8)));
+        assertThat(tree.getSppVertexInfo(v3), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v1, 4)));
+        assertThat(tree.getSppVertexInfo(v4), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v3, 7)));
+        assertThat(tree.getSppVertexInfo(v5), equalTo((SppVertexInfo) new DefaultSppVertexInfo(v2, 9)));
+    }
+
+    @Test
+    public void getTree_shouldGiveNoPreviousVertexToTheUnreachableVertexes() {
+        ShortestPathTree tree = new ShortestPathTreeCache(graphContext, 1024).getTree(v5, 0);
+
+        assertThat(tree.getSppVertexInfo(v1), equalTo((SppVertexInfo) new DefaultSppVertexInfo(null, Double.POSITIVE_INFINITY)));
+    }
+
+    @Test
+    public void repeatedRequests_shouldHitTheCache() {
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(graphContext, 1024);
+
+        ShortestPathTree tree = cache.getTree(v1, 0);
+
+        assertThat(cache.getTree(v1, 0), sameInstance(tree));
+        assertThat(cache.getHitCount(), equalTo(1L));
+        assertThat(cache.getMissCount(), equalTo(1L));
+    }
+
+    @Test
+    public void aNewStamp_shouldComputeTheTreeAgain() {
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(graphContext, 1024);
+
+        ShortestPathTree tree = cache.getTree(v1, 0);
+
+        testGraph.setWeight(v1_v2, 1.0);
+
+        ShortestPathTree newTree = cache.getTree(v1, 1);
+
+        assertThat(newTree, not(sameInstance(tree)));
+        assertThat(newTree.getPathLength(v5), equalTo(2.0));
+        assertThat(cache.getMissCount(), equalTo(2L));
+        assertThat(cache.getTreeCount(), equalTo(1));
+    }
+
+    @Test
+    public void theMemoryBound_shouldEvictTheLeastRecentlyUsedTree() {
+        ShortestPathTreeCache probe = new ShortestPathTreeCache(graphContext, 1024);
+        long footprint = probe.getTree(v1, 0).getMemoryFootprint();
+
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(graphContext, 2 * footprint);
+
+        ShortestPathTree v1Tree = cache.getTree(v1, 0);
+        cache.getTree(v2, 0);
+        cache.getTree(v1, 0);
+        cache.getTree(v3, 0);
+
+        assertThat(cache.getTreeCount(), equalTo(2));
+        assertThat(cache.getEvictionCount(), equalTo(1L));
+        assertThat(cache.getMemoryUsage(), equalTo(2 * footprint));
+        assertThat(cache.getTree(v1, 0), sameInstance(v1Tree));
+
+        cache.getTree(v2, 0);
+
+        assertThat(cache.getMissCount(), equalTo(4L));
+    }
+
+}